@@ -0,0 +1,467 @@
+package com.example.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import com.example.utils.Deadline;
+import com.example.utils.FrameworkLogger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * AdaptiveWait is the framework's wait engine. WebDriverWait checks its condition every
+ * 500 ms, so a wait returns up to half a second after the element is ready. Here:
+ *
+ * - Poll mode: any condition is checked at tight intervals first (10 ms), backing off
+ *   by 1.5x per poll up to 250 ms, so quick waits return quickly and long ones do not
+ *   flood the driver with round trips
+ * - Observe mode: element waits ({@link #forPresent}, {@link #forVisible},
+ *   {@link #forClickable}) inject a MutationObserver that resolves the condition in the
+ *   browser; the call returns in one round trip as soon as the element is ready. If the
+ *   page navigates away mid-wait the observer is re-injected on the new page; a lost
+ *   session or browser fails the wait at once.
+ * - Every wait is bounded by the test's {@link Deadline}, and the condition is not
+ *   evaluated again once it has passed
+ * - The driver's implicit wait is off while a condition is polled, so a single
+ *   findElement cannot hold the wait past its timeout
+ * - Poll counts, round trips and wasted latency (time between the condition becoming
+ *   true and the wait returning; estimated as half the last poll gap in poll mode) are
+ *   logged per wait at debug level and summarized by {@link #getStatsSummary()}
+ *
+ * {@link BasePage#getWait()} returns an {@link AdaptiveWait.Wait}, so existing
+ * getWait().until(...) calls use adaptive polling too. Its ignoring(...), withMessage(...)
+ * and pollingEvery(...) settings are honored; pollingEvery caps the backoff interval.
+ *
+ * Example:
+ *   WebElement button = AdaptiveWait.forClickable(By.id("nav-search-submit-button"));
+ *   String title = AdaptiveWait.until("title set", driver -> driver.getTitle().isEmpty() ? null : driver.getTitle());
+ *
+ * Configuration (system properties):
+ * - wait.mode            observe (browser-side) or poll for element waits (default observe)
+ * - wait.poll.minMillis  first poll interval (default 10)
+ * - wait.poll.maxMillis  longest poll interval (default 250)
+ * - wait.poll.factor     growth of the interval per poll (default 1.5)
+ */
+public class AdaptiveWait {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(AdaptiveWait.class);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(20);
+    private static final boolean OBSERVE = !"poll".equalsIgnoreCase(System.getProperty("wait.mode", "observe"));
+    private static final long MIN_POLL_MILLIS = Long.getLong("wait.poll.minMillis", 10L);
+    private static final long MAX_POLL_MILLIS = Long.getLong("wait.poll.maxMillis", 250L);
+    private static final double POLL_FACTOR = Double.parseDouble(System.getProperty("wait.poll.factor", "1.5"));
+    // One observer call stays below the driver's default 30 s script timeout
+    private static final long MAX_OBSERVE_MILLIS = 25000;
+
+    // Resolves with [element or null, ms the browser waited] as soon as the element
+    // reaches the state, or after the timeout. Mutations trigger a check; a slow
+    // interval also catches changes no mutation reports (layout, CSS transitions).
+    private static final String OBSERVE_SCRIPT = LocatorSet.LOOKUP_FUNCTIONS +
+            "var using = arguments[0], value = arguments[1], state = arguments[2], timeout = arguments[3];" +
+            "var done = arguments[arguments.length - 1], start = Date.now(), finished = false;" +
+            "var observer = null, timer = null, interval = null;" +
+            "function match() {" +
+            "  var nodes = [];" +
+            "  try { nodes = all(using, value); } catch (e) { }" +
+            "  for (var i = 0; i < nodes.length; i++) {" +
+            "    if (state === 'present') { return nodes[i]; }" +
+            "    if (shown(nodes[i]) && (state === 'visible' || !nodes[i].disabled)) { return nodes[i]; }" +
+            "  }" +
+            "  return null;" +
+            "}" +
+            "function finish(el) {" +
+            "  if (finished) { return; }" +
+            "  finished = true;" +
+            "  if (observer) { observer.disconnect(); }" +
+            "  clearTimeout(timer);" +
+            "  clearInterval(interval);" +
+            "  done([el, Date.now() - start]);" +
+            "}" +
+            "function check() { var el = match(); if (el) { finish(el); } }" +
+            "var first = match();" +
+            "if (first || timeout <= 0) {" +
+            "  finish(first);" +
+            "} else {" +
+            "  if (window.MutationObserver) {" +
+            "    observer = new MutationObserver(check);" +
+            "    observer.observe(document.documentElement || document," +
+            "      { childList: true, subtree: true, attributes: true, characterData: true });" +
+            "  }" +
+            "  interval = setInterval(check, 100);" +
+            "  timer = setTimeout(function () { finish(null); }, timeout);" +
+            "}";
+
+    /**
+     * Element states the observer can wait for
+     */
+    public enum State {
+        PRESENT("present"),
+        VISIBLE("visible"),
+        CLICKABLE("clickable");
+
+        private final String script;
+
+        State(String script) {
+            this.script = script;
+        }
+    }
+
+    /**
+     * Poll interval schedule: starts tight and backs off geometrically
+     */
+    public static class Backoff {
+        private final long maxMillis;
+        private double next = MIN_POLL_MILLIS;
+
+        public Backoff() {
+            this(MAX_POLL_MILLIS);
+        }
+
+        /**
+         * @param maxMillis Longest interval (at least 1)
+         */
+        public Backoff(long maxMillis) {
+            this.maxMillis = Math.max(1, maxMillis);
+            next = Math.min(next, this.maxMillis);
+        }
+
+        /**
+         * Get the next interval to sleep
+         * @param remainingMillis Time left in the wait
+         * @return Interval in milliseconds, at least 1 and at most remainingMillis
+         */
+        public long next(long remainingMillis) {
+            long interval = Math.round(next);
+            next = Math.min(maxMillis, next * POLL_FACTOR);
+            return Math.max(1, Math.min(interval, remainingMillis));
+        }
+    }
+
+    /**
+     * WebDriverWait that waits through {@link AdaptiveWait#until} instead of polling
+     * at a fixed interval. Ignores NotFoundException and StaleElementReferenceException
+     * by default, plus whatever ignoring(...) adds.
+     */
+    public static class Wait extends WebDriverWait {
+        private final WebDriver driver;
+        // No initializers: WebDriverWait's constructor already sets these through the overrides below
+        private Duration timeout;
+        private Duration interval;
+        private Supplier<String> message;
+        private List<Class<? extends Throwable>> ignored;
+
+        public Wait(WebDriver driver, Duration timeout) {
+            super(driver, timeout);
+            this.driver = driver;
+            ignoring(StaleElementReferenceException.class);
+        }
+
+        @Override
+        public FluentWait<WebDriver> withTimeout(Duration timeout) {
+            this.timeout = timeout;
+            return super.withTimeout(timeout);
+        }
+
+        @Override
+        public FluentWait<WebDriver> pollingEvery(Duration interval) {
+            this.interval = interval;
+            return super.pollingEvery(interval);
+        }
+
+        @Override
+        public FluentWait<WebDriver> withMessage(String message) {
+            this.message = () -> message;
+            return super.withMessage(message);
+        }
+
+        @Override
+        public FluentWait<WebDriver> withMessage(Supplier<String> messageSupplier) {
+            this.message = messageSupplier;
+            return super.withMessage(messageSupplier);
+        }
+
+        @Override
+        public <K extends Throwable> FluentWait<WebDriver> ignoreAll(Collection<Class<? extends K>> types) {
+            if (ignored == null) {
+                ignored = new ArrayList<>();
+            }
+            ignored.addAll(types);
+            return super.ignoreAll(types);
+        }
+
+        @Override
+        public <V> V until(Function<? super WebDriver, V> isTrue) {
+            long maxPoll = interval != null ? Math.min(MAX_POLL_MILLIS, interval.toMillis()) : MAX_POLL_MILLIS;
+            return poll(driver, String.valueOf(isTrue), isTrue, timeout, ignored, maxPoll, message);
+        }
+    }
+
+    // Per-description statistics
+    private static class Stat {
+        final AtomicLong waits = new AtomicLong();
+        final AtomicLong roundTrips = new AtomicLong();
+        final AtomicLong wastedMillis = new AtomicLong();
+    }
+
+    // Statistics
+    private static final AtomicLong waits = new AtomicLong();
+    private static final AtomicLong observed = new AtomicLong();
+    private static final AtomicLong reinjections = new AtomicLong();
+    private static final AtomicLong roundTrips = new AtomicLong();
+    private static final AtomicLong timeouts = new AtomicLong();
+    private static final AtomicLong waitedMillis = new AtomicLong();
+    private static final AtomicLong wastedMillis = new AtomicLong();
+    private static final Map<String, Stat> byDescription = new ConcurrentHashMap<>();
+    private static final List<Class<? extends Throwable>> NOT_YET =
+            List.of(NotFoundException.class, StaleElementReferenceException.class);
+
+    private AdaptiveWait() {
+    }
+
+    /**
+     * Wait up to 20 s for a condition to return a non-null, non-false value
+     * @param description What is waited for (logs and statistics)
+     * @param condition Condition; NotFoundException and StaleElementReferenceException count as "not yet"
+     * @return The condition's value
+     * @throws TimeoutException if the condition is not met in time
+     */
+    public static <V> V until(String description, Function<? super WebDriver, V> condition) {
+        return until(description, condition, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Wait for a condition to return a non-null, non-false value, polling adaptively
+     * @param description What is waited for (logs and statistics)
+     * @param condition Condition; NotFoundException and StaleElementReferenceException count as "not yet"
+     * @param timeout Maximum wait, further limited by the test's {@link Deadline}
+     * @return The condition's value
+     * @throws TimeoutException if the condition is not met in time
+     */
+    public static <V> V until(String description, Function<? super WebDriver, V> condition, Duration timeout) {
+        return poll(BasePage.getDriver(), description, condition, timeout, NOT_YET, MAX_POLL_MILLIS, null);
+    }
+
+    private static <V> V poll(WebDriver driver, String description, Function<? super WebDriver, V> condition,
+                              Duration timeout, List<Class<? extends Throwable>> ignored, long maxPollMillis,
+                              Supplier<String> message) {
+        long limit = Deadline.capMillis(timeout.toMillis());
+        long start = System.currentTimeMillis();
+        long deadline = start + limit;
+        Backoff backoff = new Backoff(maxPollMillis);
+        long polls = 0;
+        long lastMissAt = -1;
+        RuntimeException lastError = null;
+        Duration implicitWait = suspendImplicitWait(driver);
+        try {
+            while (true) {
+                // Never start another evaluation once the time is up
+                if (polls > 0 && System.currentTimeMillis() >= deadline) {
+                    record(description, "poll", polls, System.currentTimeMillis() - start, 0, true);
+                    String what = message != null ? message.get() : null;
+                    throw Deadline.explain(new TimeoutException("Expected condition failed: "
+                            + (what != null ? what : "waiting for " + description) + " (tried for "
+                            + limit + " ms, " + polls + " polls)", lastError));
+                }
+                polls++;
+                try {
+                    V value = condition.apply(driver);
+                    if (value != null && !Boolean.FALSE.equals(value)) {
+                        long now = System.currentTimeMillis();
+                        // The condition became true somewhere since the last miss
+                        long wasted = lastMissAt < 0 ? 0 : (now - lastMissAt) / 2;
+                        record(description, "poll", polls, now - start, wasted, false);
+                        return value;
+                    }
+                    lastError = null;
+                } catch (RuntimeException e) {
+                    if (e instanceof Deadline.ExceededException || !isIgnored(e, ignored)) {
+                        throw e;
+                    }
+                    lastError = e;
+                }
+                lastMissAt = System.currentTimeMillis();
+                if (lastMissAt < deadline) {
+                    BasePage.waitFor(backoff.next(deadline - lastMissAt));
+                }
+            }
+        } finally {
+            restoreImplicitWait(driver, implicitWait);
+        }
+    }
+
+    private static boolean isIgnored(RuntimeException e, List<Class<? extends Throwable>> ignored) {
+        for (Class<? extends Throwable> type : ignored) {
+            if (type.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Turns the implicit wait off if a test turned it on; returns the value to restore, or null
+    private static Duration suspendImplicitWait(WebDriver driver) {
+        try {
+            Duration implicitWait = driver.manage().timeouts().getImplicitWaitTimeout();
+            if (implicitWait.isZero()) {
+                return null;
+            }
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            return implicitWait;
+        } catch (UnsupportedCommandException e) {
+            return null; // Driver cannot report it; BasePage starts every driver with none
+        }
+    }
+
+    private static void restoreImplicitWait(WebDriver driver, Duration implicitWait) {
+        if (implicitWait != null) {
+            driver.manage().timeouts().implicitlyWait(implicitWait);
+        }
+    }
+
+    /**
+     * Wait up to 20 s for an element to be in the DOM
+     * @param locator Locator
+     * @return Element
+     * @throws TimeoutException if it does not appear in time
+     */
+    public static WebElement forPresent(By locator) {
+        return forState(locator, State.PRESENT, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Wait up to 20 s for an element to be visible
+     * @param locator Locator
+     * @return Visible element
+     * @throws TimeoutException if it does not become visible in time
+     */
+    public static WebElement forVisible(By locator) {
+        return forState(locator, State.VISIBLE, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Wait up to 20 s for an element to be visible and enabled
+     * @param locator Locator
+     * @return Clickable element
+     * @throws TimeoutException if it does not become clickable in time
+     */
+    public static WebElement forClickable(By locator) {
+        return forState(locator, State.CLICKABLE, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Wait for an element to reach a state, in the browser (observe mode) or by polling
+     * @param locator CSS, XPath, id, name, class name, tag name or link text locator
+     * @param state State to wait for
+     * @param timeout Maximum wait, further limited by the test's {@link Deadline}
+     * @return Element
+     * @throws TimeoutException if the state is not reached in time
+     */
+    public static WebElement forState(By locator, State state, Duration timeout) {
+        String description = state.script + " " + locator;
+        List<String> candidate = LocatorSet.toScriptCandidate(locator, description);
+        if (!OBSERVE) {
+            return until(description, driver -> observeOnce(candidate, state, 0), timeout);
+        }
+        // Scripts are not subject to the implicit wait, so observe mode leaves it alone
+
+        long limit = Deadline.capMillis(timeout.toMillis());
+        long start = System.currentTimeMillis();
+        long deadline = start + limit;
+        long calls = 0;
+        long browserMillis = 0;
+        observed.incrementAndGet();
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            calls++;
+            try {
+                List<?> result = observe(candidate, state, Math.max(0, Math.min(remaining, MAX_OBSERVE_MILLIS)));
+                browserMillis += ((Number) result.get(1)).longValue();
+                if (result.get(0) instanceof WebElement) {
+                    long elapsed = System.currentTimeMillis() - start;
+                    // What the browser did not spend waiting went to round trips and re-injection
+                    record(description, "observe", calls, elapsed, Math.max(0, elapsed - browserMillis), false);
+                    return (WebElement) result.get(0);
+                }
+            } catch (JavascriptException | ScriptTimeoutException | StaleElementReferenceException e) {
+                // The page navigated while the observer was waiting; anything else (lost
+                // session, unreachable browser) cannot be fixed by trying again
+                reinjections.incrementAndGet();
+                LOG.debug(() -> "⏱️ Re-injecting observer for " + description + ": " + e.getClass().getSimpleName());
+                BasePage.waitFor(Math.min(MIN_POLL_MILLIS, Math.max(1, remaining)));
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                record(description, "observe", calls, System.currentTimeMillis() - start, 0, true);
+                throw Deadline.explain(new TimeoutException("Expected condition failed: waiting for " + description
+                        + " (tried for " + limit + " ms)"));
+            }
+        }
+    }
+
+    private static WebElement observeOnce(List<String> candidate, State state, long timeoutMillis) {
+        Object element = observe(candidate, state, timeoutMillis).get(0);
+        return element instanceof WebElement ? (WebElement) element : null;
+    }
+
+    private static List<?> observe(List<String> candidate, State state, long timeoutMillis) {
+        Object result = BasePage.getJsExecutor().executeAsyncScript(OBSERVE_SCRIPT,
+                candidate.get(0), candidate.get(1), state.script, timeoutMillis);
+        if (!(result instanceof List) || ((List<?>) result).size() < 2) {
+            // The async callback was lost with the page
+            throw new JavascriptException("Unexpected observer result: " + result);
+        }
+        return (List<?>) result;
+    }
+
+    private static void record(String description, String mode, long calls, long elapsed, long wasted, boolean timedOut) {
+        waits.incrementAndGet();
+        roundTrips.addAndGet(calls);
+        waitedMillis.addAndGet(elapsed);
+        wastedMillis.addAndGet(wasted);
+        if (timedOut) {
+            timeouts.incrementAndGet();
+        }
+        Stat stat = byDescription.computeIfAbsent(description, k -> new Stat());
+        stat.waits.incrementAndGet();
+        stat.roundTrips.addAndGet(calls);
+        stat.wastedMillis.addAndGet(wasted);
+        LOG.debug(() -> String.format("⏱️ %s (%s): %s after %d ms, %d round trips, ~%d ms wasted",
+                description, mode, timedOut ? "timed out" : "met", elapsed, calls, wasted));
+    }
+
+    /**
+     * Get a one-line summary of wait statistics, including the waits that wasted the most time
+     * @return Statistics summary
+     */
+    public static String getStatsSummary() {
+        long total = waits.get();
+        List<Map.Entry<String, Stat>> worst = new ArrayList<>(byDescription.entrySet());
+        worst.sort(Comparator.comparingLong((Map.Entry<String, Stat> e) -> e.getValue().wastedMillis.get()).reversed());
+        StringBuilder top = new StringBuilder();
+        for (int i = 0; i < Math.min(3, worst.size()); i++) {
+            Stat stat = worst.get(i).getValue();
+            top.append(i > 0 ? "; " : "").append(worst.get(i).getKey()).append(": ")
+                    .append(stat.waits.get()).append(" waits, ")
+                    .append(stat.roundTrips.get() / Math.max(1, stat.waits.get())).append(" round trips each, ~")
+                    .append(stat.wastedMillis.get()).append(" ms wasted");
+        }
+        return String.format("Waits: %d (%d in browser, %d observer re-injections), %d timeouts, "
+                        + "%d round trips, %d ms waited, ~%d ms wasted after ready%s",
+                total, observed.get(), reinjections.get(), timeouts.get(), roundTrips.get(),
+                waitedMillis.get(), wastedMillis.get(), top.length() > 0 ? " [" + top + "]" : "");
+    }
+}
@@ -2,14 +2,14 @@ package com.example.pages;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 
 public class AmazonHomePage extends BasePage {
     
     // Locators
-    private final By searchBox1 = By.id("twotabsearchtextbox");
-    private final By searchBox2 = By.name("field-keywords");
-    private final By searchBox3 = By.cssSelector("input[type='text'][placeholder*='Search']");
+    private final LocatorSet searchBox = LocatorSet.of("AmazonHomePage.searchBox",
+            By.id("twotabsearchtextbox"),
+            By.name("field-keywords"),
+            By.cssSelector("input[type='text'][placeholder*='Search']"));
     private final By searchButton = By.id("nav-search-submit-button");
     
     // Constructor
@@ -20,7 +20,7 @@ public class AmazonHomePage extends BasePage {
     // Page actions
     public void navigateToAmazon() {
         navigateToUrl("https://www.amazon.com");
-        waitFor(2000);
+        waitForPageReady(2000);
     }
     
     public void searchProduct(String searchTerm) {
@@ -31,20 +31,13 @@ public class AmazonHomePage extends BasePage {
     }
     
     private WebElement getSearchBox() {
-        // Try multiple selectors for the search box
-        try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(searchBox1));
-        } catch (Exception e) {
-            try {
-                return wait.until(ExpectedConditions.visibilityOfElementLocated(searchBox2));
-            } catch (Exception e2) {
-                return wait.until(ExpectedConditions.visibilityOfElementLocated(searchBox3));
-            }
-        }
+        // All layouts' selectors are checked together; the one that wins is tried first next time
+        return searchBox.waitForVisible();
     }
     
     private void clickSearchButton() {
-        WebElement button = wait.until(ExpectedConditions.elementToBeClickable(searchButton));
+        // Resolved in the browser: returns in one round trip as soon as the button is enabled
+        WebElement button = AdaptiveWait.forClickable(searchButton);
         button.click();
     }
 }
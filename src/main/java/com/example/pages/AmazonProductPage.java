@@ -2,8 +2,10 @@ package com.example.pages;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
+import com.example.utils.FrameworkLogger;
 
 public class AmazonProductPage extends BasePage {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(AmazonProductPage.class);
     
     // Locators
     private final By productTitle = By.id("productTitle");
@@ -23,74 +25,70 @@ public class AmazonProductPage extends BasePage {
     }
     
     // Page actions
-    public void scrollToElement(String xpath) {
-        try {
-            WebElement element = driver.findElement(By.xpath(xpath));
-            js.executeScript("arguments[0].scrollIntoView(true);", element);
-            
-            String text = element.getText();
-            System.out.println("Text of the element: " + text);
-        } catch (Exception e) {
-            System.out.println("Element not found with xpath: " + xpath);
-            throw e;
-        }
+    
+    /**
+     * Scroll an optional section into view. Sections missing from the page are normal,
+     * so absence is answered immediately instead of after a wait.
+     * @param xpath XPath of the section
+     * @return true if the section was found and scrolled to, false if it is not on the page
+     */
+    public boolean scrollToElement(String xpath) {
+        return scrollTo(By.xpath(xpath));
     }
     
-    public void scrollToVideosSection() {
-        scrollToElement("//span[@aria-label='Videos for similar products']");
+    public boolean scrollToVideosSection() {
+        return scrollTo(videosSection);
     }
     
-    public void scrollToProductDetails() {
-        scrollToElement("//div[@id='detailBullets_feature_div']");
+    public boolean scrollToProductDetails() {
+        return scrollTo(productDetails);
     }
     
-    public void scrollToCustomerReviews() {
-        scrollToElement("//div[@data-hook='review-body']");
+    public boolean scrollToCustomerReviews() {
+        return scrollTo(customerReviews);
     }
     
-    public void scrollToProductDescription() {
-        scrollToElement("//div[@id='feature-bullets']");
+    public boolean scrollToProductDescription() {
+        return scrollTo(productDescription);
+    }
+    
+    private boolean scrollTo(By section) {
+        WebElement element = findNow(section);
+        if (element == null) {
+            LOG.info("Section not on this page: " + section);
+            return false;
+        }
+        getJsExecutor().executeScript("arguments[0].scrollIntoView(true);", element);
+        LOG.info("Text of the element: " + element.getText());
+        return true;
     }
     
-    public void scrollPageToBottom() throws InterruptedException {
+    public void scrollPageToBottom() {
         BasePage.scrollToBottom();
-        waitFor(3000);
+        waitForPageReady(3000); // Lazy-loaded sections settle
     }
     
-    public void scrollPageToTop() throws InterruptedException {
+    public void scrollPageToTop() {
         BasePage.scrollToTop();
-        waitFor(3000);
+        waitForPageReady(3000);
     }
     
-    public void scrollBottomAndTop() throws InterruptedException {
+    public void scrollBottomAndTop() {
         scrollPageToBottom();
         scrollPageToTop();
     }
     
     public String getProductTitle() {
-        try {
-            WebElement title = driver.findElement(productTitle);
-            return title.getText();
-        } catch (Exception e) {
-            return "Product title not found";
-        }
+        WebElement title = findNow(productTitle);
+        return title != null ? title.getText() : "Product title not found";
     }
     
     public String getProductPrice() {
-        try {
-            WebElement price = driver.findElement(productPrice);
-            return price.getText();
-        } catch (Exception e) {
-            return "Price not found";
-        }
+        WebElement price = findNow(productPrice);
+        return price != null ? price.getText() : "Price not found";
     }
     
     public boolean isProductPageLoaded() {
-        try {
-            return driver.findElement(productTitle).isDisplayed() || 
-                   driver.findElement(productImages).isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return isVisibleNow(productTitle) || isVisibleNow(productImages);
     }
 }
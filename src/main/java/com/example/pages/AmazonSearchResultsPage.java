@@ -2,10 +2,12 @@ package com.example.pages;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
+import com.example.utils.FrameworkLogger;
+import java.util.ArrayList;
 import java.util.List;
 
 public class AmazonSearchResultsPage extends BasePage {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(AmazonSearchResultsPage.class);
     
     // Locators
     private final By searchResults = By.xpath("//div[@data-cy='title-recipe']");
@@ -19,38 +21,53 @@ public class AmazonSearchResultsPage extends BasePage {
     
     // Page actions
     public void waitForSearchResults() {
-        wait.until(ExpectedConditions.presenceOfElementLocated(searchResults));
+        AdaptiveWait.forPresent(searchResults);
     }
     
-    public void clickSearchResult(int index) throws InterruptedException {
+    public void clickSearchResult(int index) {
         waitForSearchResults();
         
-        List<WebElement> results = driver.findElements(searchResults);
-        System.out.println("Total search results found: " + results.size());
+        List<DomRow> results = extractRows(searchResults, "textContent");
+        LOG.info("Total search results found: " + results.size());
         
         if (results.size() > index) {
-            WebElement targetResult = results.get(index);
-            System.out.println("Clicking on search result at index " + index + "...");
-            targetResult.click();
+            DomRow targetResult = results.get(index);
+            String title = targetResult.getPropertyAsString("textContent");
+            LOG.info("Clicking on search result at index " + index + ": "
+                   + (title != null ? title.trim() : ""));
+            waitForNavigation(() -> targetResult.getElement().click(), 5000);
         } else {
-            System.out.println("Not enough search results. Only " + results.size() + " results found.");
+            LOG.warn("Not enough search results. Only " + results.size() + " results found.");
             // Click on the last available result if no result at specified index
             if (results.size() > 0) {
-                results.get(results.size() - 1).click();
+                DomRow lastResult = results.get(results.size() - 1);
+                waitForNavigation(() -> lastResult.getElement().click(), 5000);
             }
         }
-        waitFor(5000);
     }
     
     public int getSearchResultsCount() {
         waitForSearchResults();
-        List<WebElement> results = driver.findElements(searchResults);
-        return results.size();
+        return extractRows(searchResults).size();
     }
     
     public List<WebElement> getSearchResults() {
         waitForSearchResults();
-        return driver.findElements(searchResults);
+        List<WebElement> elements = new ArrayList<>();
+        for (DomRow row : extractRows(searchResults)) {
+            elements.add(row.getElement());
+        }
+        return elements;
+    }
+    
+    public List<String> getSearchResultTitles() {
+        waitForSearchResults();
+        List<String> titles = new ArrayList<>();
+        for (DomRow row : extractRows(searchResults, "textContent")) {
+            String title = row.getPropertyAsString("textContent");
+            titles.add(title != null ? title.trim() : "");
+        }
+        return titles;
     }
     
     public boolean areSearchResultsDisplayed() {
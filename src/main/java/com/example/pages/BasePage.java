@@ -1,19 +1,53 @@
 package com.example.pages;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.safari.SafariDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.JavascriptExecutor;
+import com.example.utils.Deadline;
+import com.example.utils.ExtentReportManager;
 import com.example.utils.ScreenshotUtils;
+import com.example.utils.FrameworkLogger;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class BasePage {
-    protected static WebDriver driver;
-    protected static WebDriverWait wait;
-    protected static JavascriptExecutor js;
+    private static final FrameworkLogger LOG = FrameworkLogger.get(BasePage.class);
+    private static final Duration PAGE_LOAD_TIMEOUT = Duration.ofSeconds(30);
+    
+    // Evaluates every matching element in the page in one script call.
+    // Each row is [element, attribute values..., property values...].
+    private static final String EXTRACT_ROWS_SCRIPT =
+            "var using = arguments[0], value = arguments[1], attrs = arguments[2], props = arguments[3];" +
+            "var nodes = [];" +
+            "if (using === 'xpath') {" +
+            "  var snapshot = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "  for (var i = 0; i < snapshot.snapshotLength; i++) { nodes.push(snapshot.snapshotItem(i)); }" +
+            "} else {" +
+            "  nodes = Array.prototype.slice.call(document.querySelectorAll(value));" +
+            "}" +
+            "return nodes.map(function (node) {" +
+            "  var row = [node];" +
+            "  for (var a = 0; a < attrs.length; a++) { row.push(node.getAttribute(attrs[a])); }" +
+            "  for (var p = 0; p < props.length; p++) {" +
+            "    var v = node[props[p]];" +
+            "    row.push(v === undefined || v === null ? null : (typeof v === 'object' ? String(v) : v));" +
+            "  }" +
+            "  return row;" +
+            "});";
+    
+    // Each thread owns its own browser session so TestNG can run methods in parallel
+    private static final ThreadLocal<DriverSession> session = new ThreadLocal<>();
     
     // Browser types enum
     public enum BrowserType {
@@ -24,28 +58,69 @@ public class BasePage {
     }
     
     /**
-     * Initialize browser with specified type
+     * Initialize browser with specified type, launched with the current {@link LaunchProfile}.
+     * When the session pool is enabled a warm browser is borrowed from {@link WebDriverPool}
+     * instead of cold-starting a new one.
      * @param browserType Type of browser to launch
      */
     public static void initializeBrowser(BrowserType browserType) {
-        switch (browserType) {
-            case CHROME:
-                driver = new ChromeDriver();
-                break;
-            case FIREFOX:
-                driver = new FirefoxDriver();
-                break;
-            case EDGE:
-                driver = new EdgeDriver();
-                break;
-            case SAFARI:
-                driver = new SafariDriver();
-                break;
-            default:
-                driver = new ChromeDriver(); // Default to Chrome
+        if (session.get() != null) {
+            quitBrowser(); // Never leak a session that was not handed back
+        }
+        
+        LaunchProfile profile = LaunchProfile.current();
+        DriverSession current = WebDriverPool.isEnabled()
+                ? WebDriverPool.acquire(browserType, profile)
+                : createSession(browserType, profile);
+        session.set(current);
+        
+        LOG.info("Browser initialized: " + current.getDriver().getClass().getSimpleName()
+               + " [" + Thread.currentThread().getName() + "]");
+    }
+    
+    /**
+     * Launch and configure a brand new browser (cold start)
+     * @param browserType Type of browser to launch
+     * @param profile Launch options
+     * @return New DriverSession
+     */
+    static DriverSession createSession(BrowserType browserType, LaunchProfile profile) {
+        long start = System.currentTimeMillis();
+        WebDriver driver;
+        try {
+            switch (browserType) {
+                case FIREFOX:
+                    driver = new FirefoxDriver(profile.firefoxOptions());
+                    break;
+                case EDGE:
+                    driver = new EdgeDriver(profile.edgeOptions());
+                    break;
+                case SAFARI:
+                    driver = new SafariDriver(profile.safariOptions());
+                    break;
+                case CHROME:
+                default:
+                    driver = new ChromeDriver(profile.chromeOptions()); // Default to Chrome
+            }
+        } catch (RuntimeException e) {
+            LaunchProfile.deleteProfileCopy(LaunchProfile.takeProfileCopy()); // The browser never started
+            throw e;
         }
+        DriverSession created = new DriverSession(driver, browserType, profile.getName(), LaunchProfile.takeProfileCopy());
         
-        setupDriver();
+        try {
+            setupDriver(driver, profile);
+            LaunchProfile.recordStartup(browserType, profile, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            // Nobody owns the session yet: close the browser and delete its profile copy
+            try {
+                created.quit();
+            } catch (RuntimeException quitError) {
+                e.addSuppressed(quitError);
+            }
+            throw e;
+        }
+        return created;
     }
     
     /**
@@ -78,26 +153,42 @@ public class BasePage {
     
     /**
      * Setup driver configurations
+     * @param driver Freshly started WebDriver instance
+     * @param profile Launch options it was started with
      */
-    private static void setupDriver() {
-        driver.manage().window().maximize();
+    private static void setupDriver(WebDriver driver, LaunchProfile profile) {
+        if (profile.isMaximize()) {
+            driver.manage().window().maximize(); // Fixed-size and headless windows are sized at launch
+        }
         driver.manage().deleteAllCookies();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-        
-        wait = new WebDriverWait(driver, Duration.ofSeconds(20));
-        js = (JavascriptExecutor) driver;
-        
-        System.out.println("Browser initialized: " + driver.getClass().getSimpleName());
+        // No implicit wait: every lookup waits explicitly, within the test's Deadline
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        driver.manage().timeouts().pageLoadTimeout(PAGE_LOAD_TIMEOUT);
     }
     
     /**
-     * Navigate to URL
+     * Navigate to URL. The page load may take at most what the test's {@link Deadline}
+     * has left.
      * @param url URL to navigate to
      */
     public static void navigateToUrl(String url) {
-        driver.get(url);
-        System.out.println("Navigated to: " + url);
+        WebDriver driver = getDriver();
+        Duration pageLoad = Deadline.cap(PAGE_LOAD_TIMEOUT);
+        if (pageLoad.compareTo(PAGE_LOAD_TIMEOUT) < 0) {
+            // Shorten the browser's page load timeout for this navigation only
+            driver.manage().timeouts().pageLoadTimeout(pageLoad);
+            try {
+                driver.get(url);
+            } catch (TimeoutException e) {
+                throw Deadline.explain(e); // The test's budget ran out, not the page load timeout
+            } finally {
+                driver.manage().timeouts().pageLoadTimeout(PAGE_LOAD_TIMEOUT);
+            }
+        } else {
+            driver.get(url);
+        }
+        session.get().recordOrigin(url);
+        LOG.info("Navigated to: " + url);
     }
     
     /**
@@ -105,7 +196,7 @@ public class BasePage {
      * @return Page title
      */
     public static String getPageTitle() {
-        return driver.getTitle();
+        return getDriver().getTitle();
     }
     
     /**
@@ -113,7 +204,9 @@ public class BasePage {
      * @return Current URL
      */
     public static String getCurrentUrl() {
-        return driver.getCurrentUrl();
+        String url = getDriver().getCurrentUrl();
+        session.get().recordOrigin(url); // Also catches origins reached by clicking
+        return url;
     }
     
     /**
@@ -125,103 +218,247 @@ public class BasePage {
             Thread.sleep(milliseconds);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.out.println("Wait interrupted: " + e.getMessage());
+            LOG.warn("Wait interrupted: " + e.getMessage());
         }
     }
     
+    /**
+     * Extract attributes and DOM properties of every element matching a locator in a
+     * single script call, instead of one WebDriver round trip per element and value.
+     * Supports CSS, XPath, id, name and tag name locators.
+     * @param locator Locator for the elements
+     * @param attributes Attribute names to read with getAttribute (may be empty)
+     * @param properties DOM property names to read, e.g. "href" (resolved URL) or "textContent"
+     * @return One row per matching element, in document order
+     */
+    public static List<DomRow> extractRows(By locator, List<String> attributes, List<String> properties) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Unsupported locator for bulk extraction: " + locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String using = parameters.using();
+        String value = String.valueOf(parameters.value());
+        if (!"css selector".equals(using) && !"xpath".equals(using) && !"tag name".equals(using)) {
+            throw new IllegalArgumentException("Unsupported locator for bulk extraction: " + locator);
+        }
+        
+        Object result = getJsExecutor().executeScript(EXTRACT_ROWS_SCRIPT, using, value, attributes, properties);
+        if (!(result instanceof List)) {
+            return Collections.emptyList();
+        }
+        
+        // Column layout shared by every row: index 0 is the element itself
+        Map<String, Integer> attributeColumns = new HashMap<>();
+        Map<String, Integer> propertyColumns = new HashMap<>();
+        for (int i = 0; i < attributes.size(); i++) {
+            attributeColumns.put(attributes.get(i), i + 1);
+        }
+        for (int i = 0; i < properties.size(); i++) {
+            propertyColumns.put(properties.get(i), attributes.size() + i + 1);
+        }
+        
+        List<?> rawRows = (List<?>) result;
+        List<DomRow> rows = new ArrayList<>(rawRows.size());
+        for (int i = 0; i < rawRows.size(); i++) {
+            List<?> raw = (List<?>) rawRows.get(i);
+            rows.add(new DomRow(i, (WebElement) raw.get(0), attributeColumns, propertyColumns,
+                    Collections.unmodifiableList(new ArrayList<Object>(raw))));
+        }
+        return rows;
+    }
+    
+    /**
+     * Extract DOM properties of every element matching a locator in a single script call
+     * @param locator Locator for the elements
+     * @param properties DOM property names to read
+     * @return One row per matching element, in document order
+     */
+    public static List<DomRow> extractRows(By locator, String... properties) {
+        List<String> props = new ArrayList<>();
+        Collections.addAll(props, properties);
+        return extractRows(locator, Collections.<String>emptyList(), props);
+    }
+    
+    /**
+     * Find the first element matching a locator right now, without waiting, so a missing
+     * element is reported immediately.
+     * Supports CSS, XPath, id, name, class name, tag name and link text locators.
+     * @param locator Locator for the element
+     * @return First matching element, or null if there is none
+     */
+    public static WebElement findNow(By locator) {
+        return LocatorSet.probe(locator, false);
+    }
+    
+    /**
+     * Find the first visible element matching a locator right now, without waiting
+     * @param locator Locator for the element
+     * @return First visible matching element, or null if there is none
+     */
+    public static WebElement findVisibleNow(By locator) {
+        return LocatorSet.probe(locator, true);
+    }
+    
+    /**
+     * Check whether an element is in the page right now, without waiting
+     * @param locator Locator for the element
+     * @return true if at least one element matches
+     */
+    public static boolean isPresentNow(By locator) {
+        return findNow(locator) != null;
+    }
+    
+    /**
+     * Check whether a visible element is in the page right now, without waiting
+     * @param locator Locator for the element
+     * @return true if at least one matching element is visible
+     */
+    public static boolean isVisibleNow(By locator) {
+        return findVisibleNow(locator) != null;
+    }
+    
+    /**
+     * Wait until the current page is ready (document complete, network idle, DOM quiet),
+     * returning as soon as it is instead of sleeping for a fixed time
+     * @param maxMilliseconds Upper bound for the wait, further limited by the test's {@link Deadline}
+     * @return Milliseconds actually waited
+     */
+    public static long waitForPageReady(long maxMilliseconds) {
+        maxMilliseconds = Deadline.capMillis(maxMilliseconds);
+        long waited = PageReadiness.waitUntilReady(maxMilliseconds, false);
+        ExtentReportManager.logInfo("Page ready after " + waited + " ms (saved "
+                + (maxMilliseconds - waited) + " ms vs. fixed " + maxMilliseconds + " ms wait)");
+        return waited;
+    }
+    
+    /**
+     * Wait until an action that navigates (e.g. a click) has loaded a new, ready document
+     * @param action Action that triggers the navigation
+     * @param maxMilliseconds Upper bound for the wait, further limited by the test's {@link Deadline}
+     * @return Milliseconds actually waited after the action
+     */
+    public static long waitForNavigation(Runnable action, long maxMilliseconds) {
+        PageReadiness.markDocument();
+        action.run();
+        maxMilliseconds = Deadline.capMillis(maxMilliseconds);
+        long waited = PageReadiness.waitUntilReady(maxMilliseconds, true);
+        ExtentReportManager.logInfo("New page ready after " + waited + " ms (saved "
+                + (maxMilliseconds - waited) + " ms vs. fixed " + maxMilliseconds + " ms wait)");
+        return waited;
+    }
+    
     /**
      * Scroll to top of page
      */
     public static void scrollToTop() {
-        js.executeScript("window.scrollTo(0, 0);");
-        System.out.println("Scrolled to top of page");
+        getJsExecutor().executeScript("window.scrollTo(0, 0);");
+        LOG.info("Scrolled to top of page");
     }
     
     /**
      * Scroll to bottom of page
      */
     public static void scrollToBottom() {
-        js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
-        System.out.println("Scrolled to bottom of page");
+        getJsExecutor().executeScript("window.scrollTo(0, document.body.scrollHeight);");
+        LOG.info("Scrolled to bottom of page");
     }
     
     /**
      * Refresh the current page
      */
     public static void refreshPage() {
-        driver.navigate().refresh();
-        System.out.println("Page refreshed");
+        getDriver().navigate().refresh();
+        LOG.info("Page refreshed");
     }
     
     /**
      * Navigate back
      */
     public static void navigateBack() {
-        driver.navigate().back();
-        System.out.println("Navigated back");
+        getDriver().navigate().back();
+        LOG.info("Navigated back");
     }
     
     /**
      * Navigate forward
      */
     public static void navigateForward() {
-        driver.navigate().forward();
-        System.out.println("Navigated forward");
+        getDriver().navigate().forward();
+        LOG.info("Navigated forward");
     }
     
     /**
      * Close current browser window
      */
     public static void closeBrowser() {
+        WebDriver driver = getDriver();
         if (driver != null) {
             driver.close();
-            System.out.println("Browser window closed");
+            LOG.info("Browser window closed");
         }
     }
     
     /**
-     * Quit browser and end session
+     * End the browser session for the current thread. Pooled sessions are reset and
+     * handed back to {@link WebDriverPool}; unpooled sessions are quit.
      */
     public static void quitBrowser() {
-        if (driver != null) {
-            driver.quit();
-            driver = null;
-            wait = null;
-            js = null;
-            System.out.println("Browser session terminated");
+        DriverSession current = session.get();
+        if (current != null) {
+            session.remove();
+            if (WebDriverPool.isEnabled()) {
+                WebDriverPool.release(current);
+                LOG.info("Browser session returned to pool");
+            } else {
+                current.quit();
+                LOG.info("Browser session terminated");
+            }
         }
     }
     
     /**
-     * Get WebDriver instance
-     * @return WebDriver instance
+     * Get WebDriver instance for the current thread
+     * @return WebDriver instance, or null if no browser was started on this thread
      */
     public static WebDriver getDriver() {
-        return driver;
+        DriverSession current = session.get();
+        return current != null ? current.getDriver() : null;
     }
     
     /**
-     * Get WebDriverWait instance
-     * @return WebDriverWait instance
+     * Get WebDriverWait instance for the current thread. It polls adaptively through
+     * {@link AdaptiveWait}, for the usual 20 s or what the test's {@link Deadline} has
+     * left if that is less.
+     * @return WebDriverWait instance, or null if no browser was started on this thread
      */
     public static WebDriverWait getWait() {
-        return wait;
+        DriverSession current = session.get();
+        return current != null ? current.getWait() : null;
     }
     
     /**
-     * Get JavascriptExecutor instance
-     * @return JavascriptExecutor instance
+     * Get JavascriptExecutor instance for the current thread
+     * @return JavascriptExecutor instance, or null if no browser was started on this thread
      */
     public static JavascriptExecutor getJsExecutor() {
-        return js;
+        DriverSession current = session.get();
+        return current != null ? current.getJsExecutor() : null;
+    }
+    
+    /**
+     * Get the browser session bound to the current thread
+     * @return DriverSession, or null if no browser was started on this thread
+     */
+    public static DriverSession getSession() {
+        return session.get();
     }
     
     /**
-     * Check if browser is initialized
+     * Check if browser is initialized on the current thread
      * @return true if browser is initialized, false otherwise
      */
     public static boolean isBrowserInitialized() {
-        return driver != null;
+        return session.get() != null;
     }
     
     /**
@@ -230,10 +467,11 @@ public class BasePage {
      * @return Path to saved screenshot
      */
     public static String takeScreenshot(String screenshotName) {
+        WebDriver driver = getDriver();
         if (driver != null) {
             return ScreenshotUtils.captureScreenshot(driver, screenshotName);
         } else {
-            System.out.println("❌ Cannot take screenshot: Driver not initialized");
+            LOG.error("❌ Cannot take screenshot: Driver not initialized");
             return null;
         }
     }
@@ -252,10 +490,11 @@ public class BasePage {
      * @return Path to saved screenshot
      */
     public static String takePassScreenshot(String testName) {
+        WebDriver driver = getDriver();
         if (driver != null) {
             return ScreenshotUtils.capturePassScreenshot(driver, testName);
         } else {
-            System.out.println("❌ Cannot take pass screenshot: Driver not initialized");
+            LOG.error("❌ Cannot take pass screenshot: Driver not initialized");
             return null;
         }
     }
@@ -266,10 +505,11 @@ public class BasePage {
      * @return Path to saved screenshot
      */
     public static String takeFailScreenshot(String testName) {
+        WebDriver driver = getDriver();
         if (driver != null) {
             return ScreenshotUtils.captureFailScreenshot(driver, testName);
         } else {
-            System.out.println("❌ Cannot take fail screenshot: Driver not initialized");
+            LOG.error("❌ Cannot take fail screenshot: Driver not initialized");
             return null;
         }
     }
@@ -280,10 +520,11 @@ public class BasePage {
      * @return Path to saved screenshot
      */
     public static String takeStepScreenshot(String stepName) {
+        WebDriver driver = getDriver();
         if (driver != null) {
             return ScreenshotUtils.captureStepScreenshot(driver, stepName);
         } else {
-            System.out.println("❌ Cannot take step screenshot: Driver not initialized");
+            LOG.error("❌ Cannot take step screenshot: Driver not initialized");
             return null;
         }
     }
@@ -0,0 +1,85 @@
+package com.example.pages;
+
+import org.openqa.selenium.WebElement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DomRow is one element's worth of data returned by {@link BasePage#extractRows}.
+ * Values are stored positionally; the column index is shared by every row of the
+ * same extraction so rows stay compact.
+ */
+public class DomRow {
+    private final int index;
+    private final WebElement element;
+    private final Map<String, Integer> attributeColumns;
+    private final Map<String, Integer> propertyColumns;
+    private final List<Object> values;
+
+    DomRow(int index, WebElement element, Map<String, Integer> attributeColumns,
+           Map<String, Integer> propertyColumns, List<Object> values) {
+        this.index = index;
+        this.element = element;
+        this.attributeColumns = attributeColumns;
+        this.propertyColumns = propertyColumns;
+        this.values = values;
+    }
+
+    /**
+     * Get the position of the element in document order
+     * @return 0-based index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Get a reference to the element, for the rare cases that need to interact with it
+     * @return WebElement
+     */
+    public WebElement getElement() {
+        return element;
+    }
+
+    /**
+     * Get an extracted attribute value (as returned by getAttribute in the DOM)
+     * @param name Attribute name
+     * @return Attribute value, or null if absent
+     */
+    public String getAttribute(String name) {
+        Integer column = attributeColumns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Attribute was not extracted: " + name);
+        }
+        Object value = values.get(column);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Get an extracted DOM property value (e.g. resolved href, textContent, checked)
+     * @param name Property name
+     * @return Property value, or null if absent
+     */
+    public Object getProperty(String name) {
+        Integer column = propertyColumns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Property was not extracted: " + name);
+        }
+        return values.get(column);
+    }
+
+    /**
+     * Get an extracted DOM property as a string
+     * @param name Property name
+     * @return Property value as string, or null if absent
+     */
+    public String getPropertyAsString(String name) {
+        Object value = getProperty(name);
+        return value != null ? value.toString() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "DomRow[" + index + "] " + values;
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.pages;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DriverSession bundles a WebDriver with the WebDriverWait and JavascriptExecutor
+ * built for it, so a thread always sees a consistent set of browser handles.
+ * It also carries the usage bookkeeping {@link WebDriverPool} needs to retire sessions.
+ */
+public class DriverSession {
+    private static final Duration DEFAULT_WAIT_TIMEOUT = Duration.ofSeconds(20);
+
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+    private final JavascriptExecutor js;
+    private final BasePage.BrowserType browserType;
+    private final String launchProfile;
+    private final Path profileCopy;
+    private final long createdAt;
+    private volatile int useCount;
+    private volatile long lastReleasedAt;
+    private PageReadiness.NetworkTracker networkTracker;
+    private boolean networkTrackerResolved;
+    // Origins (scheme://host[:port]) the session has visited since its last reset
+    private final Set<String> origins = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create a session around an already started driver
+     * @param driver WebDriver instance
+     * @param browserType Browser the driver was launched for
+     * @param launchProfile Name of the {@link LaunchProfile} it was launched with
+     */
+    public DriverSession(WebDriver driver, BasePage.BrowserType browserType, String launchProfile) {
+        this(driver, browserType, launchProfile, null);
+    }
+
+    /**
+     * Create a session around an already started driver
+     * @param driver WebDriver instance
+     * @param browserType Browser the driver was launched for
+     * @param launchProfile Name of the {@link LaunchProfile} it was launched with
+     * @param profileCopy Copy of the seed profile the browser uses, deleted by {@link #quit()}; null if none
+     */
+    DriverSession(WebDriver driver, BasePage.BrowserType browserType, String launchProfile, Path profileCopy) {
+        this.driver = driver;
+        this.profileCopy = profileCopy;
+        this.wait = new AdaptiveWait.Wait(driver, DEFAULT_WAIT_TIMEOUT);
+        this.js = (JavascriptExecutor) driver;
+        this.browserType = browserType;
+        this.launchProfile = launchProfile;
+        this.createdAt = System.currentTimeMillis();
+        this.lastReleasedAt = createdAt;
+    }
+
+    /**
+     * Get WebDriver instance
+     * @return WebDriver instance
+     */
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    /**
+     * Quit the browser and delete the profile copy it was started from, if any
+     */
+    public void quit() {
+        try {
+            driver.quit();
+        } finally {
+            LaunchProfile.deleteProfileCopy(profileCopy);
+        }
+    }
+
+    /**
+     * Get WebDriverWait instance
+     * @return WebDriverWait instance
+     */
+    public WebDriverWait getWait() {
+        return wait;
+    }
+
+    /**
+     * Get JavascriptExecutor instance
+     * @return JavascriptExecutor instance
+     */
+    public JavascriptExecutor getJsExecutor() {
+        return js;
+    }
+
+    /**
+     * Get the time the session was created
+     * @return Creation time in epoch milliseconds
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Get the browser type this session was launched for
+     * @return Browser type
+     */
+    public BasePage.BrowserType getBrowserType() {
+        return browserType;
+    }
+
+    /**
+     * Get the name of the launch profile the browser was started with
+     * @return Launch profile name
+     */
+    public String getLaunchProfile() {
+        return launchProfile;
+    }
+
+    /**
+     * Get how long the browser has been alive
+     * @return Session age in milliseconds
+     */
+    public long getAgeMillis() {
+        return System.currentTimeMillis() - createdAt;
+    }
+
+    /**
+     * Get how long the session has been sitting unused since it was last released
+     * @return Idle time in milliseconds
+     */
+    public long getIdleMillis() {
+        return System.currentTimeMillis() - lastReleasedAt;
+    }
+
+    /**
+     * Get the number of times this session has been lent to a test
+     * @return Use count
+     */
+    public int getUseCount() {
+        return useCount;
+    }
+
+    /**
+     * Record that the session was lent to a test
+     */
+    void markBorrowed() {
+        useCount++;
+    }
+
+    /**
+     * Record that the session was handed back
+     */
+    void markReleased() {
+        lastReleasedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Remember the origin of a URL the session has visited, so a reset can clear its storage
+     * @param url Visited URL; non-HTTP(S) URLs are ignored
+     */
+    void recordOrigin(String url) {
+        if (url == null) {
+            return;
+        }
+        try {
+            URI uri = URI.create(url);
+            String scheme = uri.getScheme();
+            if (uri.getHost() != null && ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+                origins.add(scheme.toLowerCase() + "://" + uri.getHost().toLowerCase()
+                        + (uri.getPort() != -1 ? ":" + uri.getPort() : ""));
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a URL we can clear storage for
+        }
+    }
+
+    /**
+     * Take the origins visited since the last call
+     * @return Visited origins
+     */
+    Set<String> drainOrigins() {
+        Set<String> drained = new HashSet<>(origins);
+        origins.removeAll(drained);
+        return drained;
+    }
+
+    /**
+     * Get the DevTools network tracker attached to this browser
+     * @return Tracker, or null if not attached or unsupported
+     */
+    PageReadiness.NetworkTracker getNetworkTracker() {
+        return networkTracker;
+    }
+
+    /**
+     * Check whether attaching a network tracker has already been attempted
+     * @return true once {@link #setNetworkTracker} has been called
+     */
+    boolean isNetworkTrackerResolved() {
+        return networkTrackerResolved;
+    }
+
+    /**
+     * Attach the network tracker for this browser (null if the browser does not support it)
+     * @param networkTracker Tracker or null
+     */
+    void setNetworkTracker(PageReadiness.NetworkTracker networkTracker) {
+        this.networkTracker = networkTracker;
+        this.networkTrackerResolved = true;
+    }
+
+    /**
+     * Forget the network tracker, e.g. when the tab it listens to is closed, so the next
+     * readiness wait attaches a new one
+     */
+    void resetNetworkTracker() {
+        this.networkTracker = null;
+        this.networkTrackerResolved = false;
+    }
+}
@@ -0,0 +1,385 @@
+package com.example.pages;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.FirefoxProfile;
+import org.openqa.selenium.safari.SafariOptions;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import com.example.utils.FrameworkLogger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * LaunchProfile is a named set of browser launch options for Chrome, Edge and Firefox.
+ * A bare browser starts headed, waits for every image and runs its first-run and
+ * background work; the lighter profiles skip what tests don't need.
+ *
+ * Built-in profiles:
+ * - default   headed, maximized, normal page loads (the old behavior)
+ * - ci        headless, 1920x1080, eager page loads, no background networking
+ * - fast      ci without images
+ * - minimal   fast with page load strategy "none" (navigation returns at once; rely on waits)
+ *
+ * The profile is chosen by -Dbrowser.profile, else the "browser-profile" parameter of
+ * the running &lt;test&gt; or suite, else "default". Single settings can be overridden
+ * with the properties below. Startup time is recorded per browser and profile
+ * ({@link #getStartupSummary()}).
+ *
+ * Configuration (system properties):
+ * - browser.profile              profile name (default: suite parameter, else default)
+ * - browser.headless             run without a window
+ * - browser.pageLoadStrategy     normal, eager or none
+ * - browser.windowSize           fixed size instead of maximize, e.g. 1366x768
+ * - browser.images               load images (true/false)
+ * - browser.backgroundNetworking allow updates, sync, extensions and first-run work (true/false)
+ * - browser.profileDir           pre-seeded browser profile; each browser starts from a copy,
+ *                                deleted when its session quits ({@link DriverSession#quit()})
+ */
+public class LaunchProfile {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(LaunchProfile.class);
+    private static final Map<String, LaunchProfile> BUILT_IN = new LinkedHashMap<>();
+
+    // Profile copies are locked by their browser. Each is deleted when its session quits;
+    // whatever is left (sessions never quit) is deleted when the JVM exits.
+    private static final List<Path> profileCopies = new ArrayList<>();
+    // Copy made by the last options built on this thread, until the session claims it
+    private static final ThreadLocal<Path> pendingCopy = new ThreadLocal<>();
+
+    // Startup statistics by "browser/profile"
+    private static final Map<String, AtomicLong[]> startups = new ConcurrentHashMap<>();
+
+    static {
+        BUILT_IN.put("default", new LaunchProfile("default", false, PageLoadStrategy.NORMAL, null, true, true, null));
+        BUILT_IN.put("ci", new LaunchProfile("ci", true, PageLoadStrategy.EAGER, "1920x1080", true, false, null));
+        BUILT_IN.put("fast", new LaunchProfile("fast", true, PageLoadStrategy.EAGER, "1920x1080", false, false, null));
+        BUILT_IN.put("minimal", new LaunchProfile("minimal", true, PageLoadStrategy.NONE, "1920x1080", false, false, null));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            synchronized (profileCopies) {
+                profileCopies.forEach(LaunchProfile::deleteQuietly);
+            }
+        }));
+    }
+
+    private final String name;
+    private final boolean headless;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final String windowSize;
+    private final boolean images;
+    private final boolean backgroundNetworking;
+    private final String profileDir;
+
+    private LaunchProfile(String name, boolean headless, PageLoadStrategy pageLoadStrategy, String windowSize,
+                          boolean images, boolean backgroundNetworking, String profileDir) {
+        this.name = name;
+        this.headless = headless;
+        this.pageLoadStrategy = pageLoadStrategy;
+        this.windowSize = windowSize;
+        this.images = images;
+        this.backgroundNetworking = backgroundNetworking;
+        this.profileDir = profileDir;
+    }
+
+    /**
+     * Get the profile for the browser about to start: the selected profile with any
+     * single-setting overrides applied
+     * @return Launch profile
+     */
+    public static LaunchProfile current() {
+        String selected = System.getProperty("browser.profile");
+        if (selected == null) {
+            ITestResult result = Reporter.getCurrentTestResult();
+            if (result != null && result.getTestContext() != null) {
+                selected = result.getTestContext().getCurrentXmlTest().getParameter("browser-profile");
+            }
+        }
+        LaunchProfile base = named(selected != null ? selected.trim() : "default");
+
+        String strategy = System.getProperty("browser.pageLoadStrategy");
+        LaunchProfile profile = new LaunchProfile(base.name,
+                Boolean.parseBoolean(System.getProperty("browser.headless", String.valueOf(base.headless))),
+                strategy != null ? PageLoadStrategy.fromString(strategy.trim().toLowerCase()) : base.pageLoadStrategy,
+                System.getProperty("browser.windowSize", base.windowSize),
+                Boolean.parseBoolean(System.getProperty("browser.images", String.valueOf(base.images))),
+                Boolean.parseBoolean(System.getProperty("browser.backgroundNetworking",
+                        String.valueOf(base.backgroundNetworking))),
+                System.getProperty("browser.profileDir", base.profileDir));
+        if (profile.pageLoadStrategy == null) {
+            throw new IllegalArgumentException("Unknown browser.pageLoadStrategy: " + strategy
+                    + " (expected normal, eager or none)");
+        }
+        return profile;
+    }
+
+    /**
+     * Get a built-in profile by name
+     * @param name Profile name
+     * @return Launch profile
+     * @throws IllegalArgumentException for unknown names
+     */
+    public static LaunchProfile named(String name) {
+        LaunchProfile profile = BUILT_IN.get(name.toLowerCase());
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown browser profile '" + name + "', expected one of "
+                    + BUILT_IN.keySet());
+        }
+        return profile;
+    }
+
+    /**
+     * Get the profile name
+     * @return Built-in profile name, e.g. ci
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Check whether the browser runs without a window
+     * @return true for a headless browser
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Get the page load strategy the browser is started with
+     * @return Page load strategy (normal, eager or none)
+     */
+    public PageLoadStrategy getPageLoadStrategy() {
+        return pageLoadStrategy;
+    }
+
+    /**
+     * Check whether the window should be maximized after start
+     * @return true if the window should be maximized after start (no fixed size, headed)
+     */
+    public boolean isMaximize() {
+        return windowSize == null && !headless;
+    }
+
+    /**
+     * Build Chrome options for this profile
+     * @return Chrome options
+     */
+    public ChromeOptions chromeOptions() {
+        return applyChromium(new ChromeOptions());
+    }
+
+    /**
+     * Build Edge options for this profile
+     * @return Edge options
+     */
+    public EdgeOptions edgeOptions() {
+        return applyChromium(new EdgeOptions());
+    }
+
+    /**
+     * Build Firefox options for this profile
+     * @return Firefox options
+     */
+    public FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
+        if (headless) {
+            options.addArguments("-headless");
+        }
+        int[] size = parseWindowSize();
+        if (size != null) {
+            options.addArguments("--width=" + size[0], "--height=" + size[1]);
+        }
+        if (profileDir != null && seedExists()) {
+            // FirefoxProfile copies the directory for every browser itself
+            options.setProfile(new FirefoxProfile(new File(profileDir)));
+        }
+        if (!images) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (!backgroundNetworking) {
+            options.addPreference("app.update.auto", false);
+            options.addPreference("app.normandy.enabled", false);
+            options.addPreference("browser.shell.checkDefaultBrowser", false);
+            options.addPreference("browser.startup.homepage_override.mstone", "ignore");
+            options.addPreference("datareporting.policy.dataSubmissionEnabled", false);
+            options.addPreference("extensions.update.enabled", false);
+            options.addPreference("toolkit.telemetry.enabled", false);
+        }
+        return options;
+    }
+
+    /**
+     * Build Safari options for this profile. Safari supports only the page load strategy.
+     * @return Safari options
+     */
+    public SafariOptions safariOptions() {
+        SafariOptions options = new SafariOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
+        return options;
+    }
+
+    private <T extends ChromiumOptions<?>> T applyChromium(T options) {
+        options.setPageLoadStrategy(pageLoadStrategy);
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+        int[] size = parseWindowSize();
+        if (size != null) {
+            options.addArguments("--window-size=" + size[0] + "," + size[1]);
+        }
+        if (profileDir != null && seedExists()) {
+            // A user data dir is locked by the browser using it, so each browser gets a copy
+            options.addArguments("--user-data-dir=" + copyProfile());
+        }
+        if (!images) {
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+        if (!backgroundNetworking) {
+            options.addArguments("--disable-background-networking", "--disable-component-update",
+                    "--disable-default-apps", "--disable-extensions", "--disable-sync",
+                    "--no-first-run", "--no-default-browser-check");
+        }
+        return options;
+    }
+
+    private int[] parseWindowSize() {
+        if (windowSize == null || windowSize.trim().isEmpty()) {
+            return null;
+        }
+        String[] parts = windowSize.trim().toLowerCase().split("[x,]");
+        try {
+            return new int[] {Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid browser.windowSize '" + windowSize + "', expected e.g. 1920x1080");
+        }
+    }
+
+    private boolean seedExists() {
+        if (Files.isDirectory(Paths.get(profileDir))) {
+            return true;
+        }
+        LOG.warn("⚠️ Browser profile directory " + profileDir + " does not exist; starting with a fresh profile");
+        return false;
+    }
+
+    private String copyProfile() {
+        Path seed = Paths.get(profileDir);
+        try {
+            Path copy = Files.createTempDirectory("browser-profile-");
+            Set<String> lockFiles = Set.of("SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile");
+            try (Stream<Path> files = Files.walk(seed)) {
+                for (Path source : (Iterable<Path>) files::iterator) {
+                    if (lockFiles.contains(source.getFileName().toString())) {
+                        continue;
+                    }
+                    Path target = copy.resolve(seed.relativize(source).toString());
+                    if (Files.isDirectory(source)) {
+                        Files.createDirectories(target);
+                    } else {
+                        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            }
+            synchronized (profileCopies) {
+                profileCopies.add(copy);
+            }
+            deleteProfileCopy(pendingCopy.get()); // Options built but never used to start a browser
+            pendingCopy.set(copy);
+            return copy.toString();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not copy browser profile " + profileDir + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Take the profile copy made for the browser about to start on this thread
+     * @return Copy directory, or null if the options built last did not need one
+     */
+    static Path takeProfileCopy() {
+        Path copy = pendingCopy.get();
+        pendingCopy.remove();
+        return copy;
+    }
+
+    /**
+     * Delete a profile copy once its browser has quit. A copy that cannot be deleted yet
+     * is retried when the JVM exits.
+     * @param copy Copy directory from {@link #takeProfileCopy()}, or null
+     */
+    static void deleteProfileCopy(Path copy) {
+        if (copy == null) {
+            return;
+        }
+        deleteQuietly(copy);
+        if (!Files.exists(copy)) {
+            synchronized (profileCopies) {
+                profileCopies.remove(copy);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            // Best effort: temp files are left for the OS to clean up
+        }
+    }
+
+    /**
+     * Record how long a browser took to start with a profile
+     * @param browserType Browser type
+     * @param profile Launch profile
+     * @param millis Startup time
+     */
+    static void recordStartup(BasePage.BrowserType browserType, LaunchProfile profile, long millis) {
+        AtomicLong[] stat = startups.computeIfAbsent(browserType.name().toLowerCase() + "/" + profile.getName(),
+                k -> new AtomicLong[] {new AtomicLong(), new AtomicLong(), new AtomicLong(Long.MAX_VALUE)});
+        stat[0].incrementAndGet();
+        stat[1].addAndGet(millis);
+        stat[2].accumulateAndGet(millis, Math::min);
+        LOG.info("🚀 Started " + browserType + " with launch profile '" + profile.getName() + "' in " + millis + " ms");
+    }
+
+    /**
+     * Get a one-line summary of browser startup times per browser and profile
+     * @return Startup summary
+     */
+    public static String getStartupSummary() {
+        if (startups.isEmpty()) {
+            return "Browser startups: none";
+        }
+        StringJoiner summary = new StringJoiner(", ", "Browser startups: ", "");
+        startups.forEach((key, stat) -> summary.add(key + " ×" + stat[0].get()
+                + " avg " + stat[1].get() / Math.max(1, stat[0].get()) + " ms (min " + stat[2].get() + " ms)"));
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return name + " [headless=" + headless + ", pageLoad=" + pageLoadStrategy
+                + ", window=" + (windowSize != null ? windowSize : isMaximize() ? "maximized" : "default")
+                + ", images=" + images + ", backgroundNetworking=" + backgroundNetworking
+                + (profileDir != null ? ", profileDir=" + profileDir : "") + "]";
+    }
+}
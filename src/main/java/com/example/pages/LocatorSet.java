@@ -0,0 +1,288 @@
+package com.example.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+import com.example.utils.Deadline;
+import com.example.utils.FrameworkLogger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LocatorSet is one logical element with several candidate locators, e.g. the search
+ * box on Amazon's regular and alternate layouts. Instead of waiting for each candidate
+ * in turn, every poll evaluates the candidates in a single script call and takes the
+ * first that matches. Polls start tight and back off ({@link AdaptiveWait.Backoff}).
+ *
+ * The winning candidate is remembered per page (host and first path segment) and passed
+ * into the script, which tries it first and returns as soon as it matches, without
+ * evaluating the other candidates. Only when it no longer matches are the rest tried in
+ * order. Hits and misses of that cache are reported by {@link #getStatsSummary()}.
+ *
+ * Waits never outlast the test's {@link Deadline}.
+ *
+ * Candidates must be CSS, XPath, id, name, class name, tag name or link text locators.
+ *
+ * Example:
+ *   private static final LocatorSet SEARCH_BOX = LocatorSet.of("home.searchBox",
+ *           By.id("twotabsearchtextbox"), By.name("field-keywords"));
+ *   WebElement box = SEARCH_BOX.waitForVisible();
+ */
+public class LocatorSet {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(LocatorSet.class);
+    private static final long DEFAULT_TIMEOUT_MILLIS = 20000;
+
+    // Browser-side lookup helpers shared with AdaptiveWait: shown(el) and all(using, value)
+    static final String LOOKUP_FUNCTIONS =
+            "function shown(el) {" +
+            "  if (!(el.offsetWidth || el.offsetHeight || el.getClientRects().length)) { return false; }" +
+            "  var style = window.getComputedStyle(el);" +
+            "  return style.visibility !== 'hidden' && style.display !== 'none';" +
+            "}" +
+            "function all(using, value) {" +
+            "  if (using === 'xpath') {" +
+            "    var snapshot = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), nodes = [];" +
+            "    for (var i = 0; i < snapshot.snapshotLength; i++) { nodes.push(snapshot.snapshotItem(i)); }" +
+            "    return nodes;" +
+            "  }" +
+            "  if (using === 'link text' || using === 'partial link text') {" +
+            "    return Array.prototype.filter.call(document.getElementsByTagName('a'), function (a) {" +
+            "      var text = (a.innerText || a.textContent || '').trim();" +
+            "      return using === 'link text' ? text === value : text.indexOf(value) >= 0;" +
+            "    });" +
+            "  }" +
+            "  return Array.prototype.slice.call(document.querySelectorAll(value));" +
+            "}";
+
+    // Tries the learned candidate for this page first, then the others in order, in one
+    // round trip. Arguments: candidates, {page: learned index}, whether the match must be
+    // visible. Reports [page, matching index or -1, element, element visible, learned hit]
+    private static final String RESOLVE_SCRIPT = LOOKUP_FUNCTIONS +
+            "var candidates = arguments[0], learned = arguments[1], requireVisible = arguments[2];" +
+            "var page = location.host + '/' + (location.pathname.split('/')[1] || '');" +
+            "function pick(c) {" +
+            "  var nodes = [];" +
+            "  try { nodes = all(candidates[c][0], candidates[c][1]); } catch (e) { }" +
+            "  for (var n = 0; n < nodes.length; n++) { if (shown(nodes[n])) { return [nodes[n], true]; } }" +
+            "  return nodes.length > 0 && !requireVisible ? [nodes[0], false] : null;" +
+            "}" +
+            "var first = Object.prototype.hasOwnProperty.call(learned, page) ? learned[page] : -1;" +
+            "if (first >= 0 && first < candidates.length) {" +
+            "  var hit = pick(first);" +
+            "  if (hit) { return [page, first, hit[0], hit[1], true]; }" +
+            "}" +
+            "for (var c = 0; c < candidates.length; c++) {" +
+            "  if (c === first) { continue; }" +
+            "  var match = pick(c);" +
+            "  if (match) { return [page, c, match[0], match[1], false]; }" +
+            "}" +
+            "return [page, -1, null, false, false];";
+
+    // Winning candidate index by set name, then by page
+    private static final Map<String, Map<String, Integer>> winners = new ConcurrentHashMap<>();
+
+    // Statistics
+    private static final AtomicLong lookups = new AtomicLong();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong timeouts = new AtomicLong();
+    private static final AtomicLong roundTrips = new AtomicLong();
+    private static final AtomicLong lookupMillis = new AtomicLong();
+    private static final AtomicLong probes = new AtomicLong();
+    private static final AtomicLong probesAbsent = new AtomicLong();
+
+    private final String name;
+    private final List<By> candidates;
+    private final List<List<String>> scriptCandidates;
+
+    private LocatorSet(String name, List<By> candidates) {
+        this.name = name;
+        this.candidates = candidates;
+        this.scriptCandidates = new ArrayList<>();
+        for (By candidate : candidates) {
+            scriptCandidates.add(toScriptCandidate(candidate, name));
+        }
+    }
+
+    static List<String> toScriptCandidate(By candidate, String name) {
+        if (!(candidate instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Unsupported locator in set " + name + ": " + candidate);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) candidate).getRemoteParameters();
+        return Arrays.asList(parameters.using(), String.valueOf(parameters.value()));
+    }
+
+    /**
+     * Look up a single locator once in the page, without any waiting. Used by
+     * {@link BasePage#findNow} and friends; not counted as a locator set lookup.
+     * @param locator Locator
+     * @param requireVisible Only accept a visible match
+     * @return First (visible) match, or null
+     */
+    static WebElement probe(By locator, boolean requireVisible) {
+        probes.incrementAndGet();
+        Object result = BasePage.getJsExecutor().executeScript(RESOLVE_SCRIPT,
+                Collections.singletonList(toScriptCandidate(locator, "probe")), Collections.emptyMap(), requireVisible);
+        WebElement match = null;
+        if (result instanceof List && ((List<?>) result).size() >= 5) {
+            Object found = ((List<?>) result).get(2);
+            if (found instanceof WebElement) {
+                match = (WebElement) found;
+            }
+        }
+        if (match == null) {
+            probesAbsent.incrementAndGet();
+        }
+        return match;
+    }
+
+    /**
+     * Create a locator set
+     * @param name Name used for the winner cache and in logs, e.g. "home.searchBox"
+     * @param candidates Candidate locators, most likely first
+     * @return Locator set
+     */
+    public static LocatorSet of(String name, By... candidates) {
+        if (candidates.length == 0) {
+            throw new IllegalArgumentException("Locator set " + name + " needs at least one candidate");
+        }
+        return new LocatorSet(name, Collections.unmodifiableList(Arrays.asList(candidates)));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<By> getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * Wait up to 20 s for any candidate to be visible
+     * @return Visible element
+     * @throws TimeoutException if no candidate becomes visible in time
+     */
+    public WebElement waitForVisible() {
+        return waitFor(Duration.ofMillis(DEFAULT_TIMEOUT_MILLIS), true);
+    }
+
+    /**
+     * Wait for any candidate to be visible
+     * @param timeout Maximum wait
+     * @return Visible element
+     * @throws TimeoutException if no candidate becomes visible in time
+     */
+    public WebElement waitForVisible(Duration timeout) {
+        return waitFor(timeout, true);
+    }
+
+    /**
+     * Wait for any candidate to be present in the DOM, visible or not
+     * @param timeout Maximum wait
+     * @return Present element
+     * @throws TimeoutException if no candidate appears in time
+     */
+    public WebElement waitForPresent(Duration timeout) {
+        return waitFor(timeout, false);
+    }
+
+    /**
+     * Look for any candidate once, without waiting
+     * @return Visible element, or null if no candidate is visible right now
+     */
+    public WebElement findVisibleNow() {
+        return waitFor(Duration.ZERO, true, false);
+    }
+
+    private WebElement waitFor(Duration timeout, boolean requireVisible) {
+        return waitFor(timeout, requireVisible, true);
+    }
+
+    private WebElement waitFor(Duration timeout, boolean requireVisible, boolean throwOnTimeout) {
+        timeout = Deadline.cap(timeout);
+        long start = System.currentTimeMillis();
+        long deadline = start + timeout.toMillis();
+        lookups.incrementAndGet();
+        AdaptiveWait.Backoff backoff = new AdaptiveWait.Backoff();
+        try {
+            while (true) {
+                WebElement match = resolve(requireVisible);
+                if (match != null) {
+                    return match;
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    if (!throwOnTimeout) {
+                        return null;
+                    }
+                    timeouts.incrementAndGet();
+                    throw Deadline.explain(new TimeoutException("None of " + candidates + " (" + name + ") became "
+                            + (requireVisible ? "visible" : "present") + " within " + timeout.toMillis() + " ms"));
+                }
+                BasePage.waitFor(backoff.next(deadline - System.currentTimeMillis()));
+            }
+        } finally {
+            lookupMillis.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    // One round trip: the script tries this page's learned winner first and stops there if it matches
+    private WebElement resolve(boolean requireVisible) {
+        roundTrips.incrementAndGet();
+        Map<String, Integer> learned = winners.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+        Object result = BasePage.getJsExecutor().executeScript(RESOLVE_SCRIPT, scriptCandidates, learned, requireVisible);
+        if (!(result instanceof List) || ((List<?>) result).size() < 5) {
+            return null;
+        }
+        List<?> parts = (List<?>) result;
+        int winner = ((Number) parts.get(1)).intValue();
+        if (winner < 0) {
+            return null;
+        }
+
+        if (Boolean.TRUE.equals(parts.get(4))) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            String page = String.valueOf(parts.get(0));
+            Integer was = learned.put(page, winner);
+            LOG.info("🎯 " + name + " resolved by " + candidates.get(winner) + " on " + page
+                    + (was != null && was != winner ? " (was " + candidates.get(was) + ")" : ""));
+        }
+        return (WebElement) parts.get(2);
+    }
+
+    /**
+     * Forget every learned winner, e.g. between unrelated suites
+     */
+    public static void clearLearned() {
+        winners.clear();
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Get a one-line summary of locator set statistics
+     * @return Statistics summary
+     */
+    public static String getStatsSummary() {
+        long total = lookups.get();
+        return String.format("Locator sets: %d lookups, %d cache hits, %d misses, %d timeouts, "
+                        + "%d round trips, avg %d ms per lookup, %d winners learned; "
+                        + "%d instant presence checks (%d absent)",
+                total, hits.get(), misses.get(), timeouts.get(), roundTrips.get(),
+                total > 0 ? lookupMillis.get() / total : 0,
+                winners.values().stream().mapToInt(Map::size).sum(), probes.get(), probesAbsent.get());
+    }
+}
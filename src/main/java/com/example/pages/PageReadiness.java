@@ -0,0 +1,218 @@
+package com.example.pages;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+import com.example.utils.FrameworkLogger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PageReadiness decides when a page is actually ready instead of sleeping for a fixed
+ * time. A page is ready when all of the following hold, each bounded by the caller's
+ * deadline:
+ *
+ * - document.readyState is "complete" (and, after a click, a new document has loaded)
+ * - no network requests are in flight, as seen through DevTools events (Chromium only)
+ * - the DOM has not mutated for a short quiet window
+ *
+ * Configuration (system properties):
+ * - page.ready.quietMillis   DOM and network quiet window (default 500)
+ * - page.ready.maxInflight   requests allowed to stay open, e.g. long polls (default 0)
+ */
+public class PageReadiness {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(PageReadiness.class);
+    private static final long QUIET_MILLIS = Long.getLong("page.ready.quietMillis", 500L);
+    private static final int MAX_INFLIGHT = Integer.getInteger("page.ready.maxInflight", 0);
+    private static final long POLL_MILLIS = 50;
+    // Requests open longer than this are treated as long polls / beacons and ignored
+    private static final long STALE_REQUEST_MILLIS = 10000;
+
+    // One round trip per poll: installs a MutationObserver on first use and reports
+    // [readyState, ms since last DOM mutation, whether the marked document is still loaded]
+    private static final String PROBE_SCRIPT =
+            "var r = window.__pageReadiness;" +
+            "if (!r) {" +
+            "  r = window.__pageReadiness = { last: Date.now() };" +
+            "  if (window.MutationObserver && document.documentElement) {" +
+            "    new MutationObserver(function () { r.last = Date.now(); })" +
+            "      .observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });" +
+            "  }" +
+            "}" +
+            "return [document.readyState, Date.now() - r.last, !!window.__readinessMarker];";
+
+    // Statistics
+    private static final AtomicLong waits = new AtomicLong();
+    private static final AtomicLong timeouts = new AtomicLong();
+    private static final AtomicLong waitedMillis = new AtomicLong();
+    private static final AtomicLong budgetMillis = new AtomicLong();
+
+    private PageReadiness() {
+    }
+
+    /**
+     * Tracks in-flight network requests for one browser through DevTools events
+     */
+    static class NetworkTracker {
+        private final Map<String, Long> inflight = new HashMap<>();
+        private long idleSince = System.currentTimeMillis();
+
+        synchronized void started(String requestId) {
+            if (requestId != null) {
+                inflight.put(requestId, System.currentTimeMillis());
+            }
+        }
+
+        synchronized void finished(String requestId) {
+            if (requestId != null && inflight.remove(requestId) != null && activeCount() <= MAX_INFLIGHT) {
+                idleSince = System.currentTimeMillis();
+            }
+        }
+
+        synchronized long quietMillis() {
+            return activeCount() <= MAX_INFLIGHT ? System.currentTimeMillis() - idleSince : 0;
+        }
+
+        private int activeCount() {
+            long cutoff = System.currentTimeMillis() - STALE_REQUEST_MILLIS;
+            inflight.values().removeIf(startedAt -> startedAt < cutoff);
+            return inflight.size();
+        }
+    }
+
+    /**
+     * Mark the currently loaded document so a later {@link #waitUntilReady(long, boolean)}
+     * with expectNewDocument can tell when a navigation has replaced it
+     */
+    public static void markDocument() {
+        try {
+            BasePage.getJsExecutor().executeScript("window.__readinessMarker = true;");
+        } catch (Exception e) {
+            // Nothing loaded yet; any document we see next is new
+        }
+    }
+
+    /**
+     * Wait until the page is ready or the deadline passes, whichever comes first
+     * @param maxMillis Upper bound for the wait (typically the fixed sleep it replaces)
+     * @param expectNewDocument true to also wait for the document marked by {@link #markDocument()} to be replaced
+     * @return Milliseconds actually spent waiting
+     */
+    public static long waitUntilReady(long maxMillis, boolean expectNewDocument) {
+        long start = System.currentTimeMillis();
+        long deadline = start + maxMillis;
+        NetworkTracker tracker = networkTracker(BasePage.getSession());
+        boolean ready = false;
+
+        while (!ready && System.currentTimeMillis() < deadline) {
+            try {
+                List<?> probe = (List<?>) BasePage.getJsExecutor().executeScript(PROBE_SCRIPT);
+                boolean documentReady = "complete".equals(probe.get(0))
+                        && !(expectNewDocument && Boolean.TRUE.equals(probe.get(2)));
+                boolean domQuiet = ((Number) probe.get(1)).longValue() >= QUIET_MILLIS;
+                boolean networkQuiet = tracker == null || tracker.quietMillis() >= QUIET_MILLIS;
+                ready = documentReady && domQuiet && networkQuiet;
+            } catch (Exception e) {
+                // Script failed mid-navigation; the next poll sees the new document
+            }
+            if (!ready) {
+                BasePage.waitFor(Math.min(POLL_MILLIS, Math.max(1, deadline - System.currentTimeMillis())));
+            }
+        }
+
+        long waited = System.currentTimeMillis() - start;
+        waits.incrementAndGet();
+        waitedMillis.addAndGet(waited);
+        budgetMillis.addAndGet(maxMillis);
+        if (!ready) {
+            timeouts.incrementAndGet();
+        }
+        return waited;
+    }
+
+    /**
+     * Get the total wall time saved compared with sleeping for the full budget
+     * @return Saved time in milliseconds
+     */
+    public static long getSavedMillis() {
+        return budgetMillis.get() - waitedMillis.get();
+    }
+
+    /**
+     * Get a one-line summary of readiness waits
+     * @return Statistics summary
+     */
+    public static String getSummary() {
+        return String.format("Page readiness: %d waits, %d hit deadline, waited %dms of %dms budget, saved %ds",
+                waits.get(), timeouts.get(), waitedMillis.get(), budgetMillis.get(), getSavedMillis() / 1000);
+    }
+
+    /**
+     * Detach the session's network tracker from the tab it listens to. Call before that
+     * tab is closed; the next readiness wait attaches to whichever tab is current then.
+     * @param session Browser session
+     */
+    static void detachTracker(DriverSession session) {
+        synchronized (session) {
+            if (session.getNetworkTracker() != null) {
+                try {
+                    DevTools devTools = ((HasDevTools) session.getDriver()).getDevTools();
+                    devTools.clearListeners();
+                    devTools.disconnectSession();
+                } catch (Exception e) {
+                    // Tab already gone; its DevTools session went with it
+                }
+            }
+            session.resetNetworkTracker();
+        }
+    }
+
+    // Attach a DevTools network listener to the session's current tab once; null if unsupported
+    private static NetworkTracker networkTracker(DriverSession session) {
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            if (!session.isNetworkTrackerResolved()) {
+                session.setNetworkTracker(attachTracker(session.getDriver()));
+            }
+            return session.getNetworkTracker();
+        }
+    }
+
+    private static NetworkTracker attachTracker(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return null;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne(driver.getWindowHandle());
+            devTools.send(new Command<>("Network.enable", Collections.emptyMap()));
+
+            NetworkTracker tracker = new NetworkTracker();
+            devTools.addListener(requestEvent("Network.requestWillBeSent"), tracker::started);
+            devTools.addListener(requestEvent("Network.loadingFinished"), tracker::finished);
+            devTools.addListener(requestEvent("Network.loadingFailed"), tracker::finished);
+            return tracker;
+        } catch (Exception e) {
+            LOG.warn("Network tracking unavailable, using DOM readiness only: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Version-independent CDP event that only extracts the requestId
+    private static Event<String> requestEvent(String method) {
+        return new Event<>(method, (JsonInput input) -> {
+            Map<String, Object> params = input.read(Json.MAP_TYPE);
+            Object requestId = params.get("requestId");
+            return requestId != null ? requestId.toString() : null;
+        });
+    }
+}
@@ -0,0 +1,436 @@
+package com.example.pages;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import com.example.utils.FrameworkLogger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebDriverPool keeps a bounded set of live browsers and lends them to tests, so a
+ * new test only pays for a reset instead of a full browser cold start.
+ *
+ * Sessions are health-checked before being lent, reset (cookies, storage, extra tabs,
+ * about:blank) when handed back, and retired after a maximum number of uses or when
+ * they have been idle for too long.
+ *
+ * Reset clears storage of every origin the session visited through BasePage
+ * (navigateToUrl, getCurrentUrl, and the page open at release). Chromium browsers clear
+ * each origin's cookies, local storage, IndexedDB, cache storage and service workers
+ * plus the HTTP cache over DevTools; other browsers briefly open each origin to clear
+ * it from the page. Origins a test passed through without BasePage seeing the URL can
+ * keep their storage. Session storage is always dropped, since every test starts in a
+ * fresh tab.
+ *
+ * Configuration (system properties):
+ * - browser.pool.size            maximum live browsers, 0 disables pooling (default 4)
+ * - browser.pool.maxUses         uses before a session is retired (default 20)
+ * - browser.pool.maxIdleSeconds  idle time before a session is retired (default 300)
+ * - browser.pool.acquireTimeoutSeconds  how long to wait for a free slot (default 120)
+ */
+public class WebDriverPool {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(WebDriverPool.class);
+    private static final int MAX_SESSIONS = Integer.getInteger("browser.pool.size", 4);
+    private static final int MAX_USES = Integer.getInteger("browser.pool.maxUses", 20);
+    private static final long MAX_IDLE_MS = Long.getLong("browser.pool.maxIdleSeconds", 300L) * 1000L;
+    private static final long ACQUIRE_TIMEOUT_MS = Long.getLong("browser.pool.acquireTimeoutSeconds", 120L) * 1000L;
+
+    // Clears local storage, IndexedDB and cache storage of the loaded origin
+    private static final String CLEAR_ORIGIN_SCRIPT =
+            "var done = arguments[arguments.length - 1], jobs = [];" +
+            "try { window.localStorage.clear(); } catch (e) { }" +
+            "try {" +
+            "  if (window.indexedDB && indexedDB.databases) {" +
+            "    jobs.push(indexedDB.databases().then(function (dbs) {" +
+            "      dbs.forEach(function (db) { indexedDB.deleteDatabase(db.name); });" +
+            "    }));" +
+            "  }" +
+            "} catch (e) { }" +
+            "try {" +
+            "  if (window.caches) {" +
+            "    jobs.push(caches.keys().then(function (keys) {" +
+            "      return Promise.all(keys.map(function (key) { return caches.delete(key); }));" +
+            "    }));" +
+            "  }" +
+            "} catch (e) { }" +
+            "Promise.all(jobs).then(function () { done(true); }, function () { done(false); });";
+
+    private static final Object lock = new Object();
+    private static final Map<BasePage.BrowserType, Deque<DriverSession>> idleSessions =
+            new EnumMap<>(BasePage.BrowserType.class);
+    private static int liveSessions = 0;
+
+    // Statistics
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong retired = new AtomicLong();
+    private static final AtomicLong evicted = new AtomicLong();
+    private static final AtomicLong coldStartMillis = new AtomicLong();
+    private static final AtomicLong resetMillis = new AtomicLong();
+    private static final AtomicLong resets = new AtomicLong();
+
+    static {
+        for (BasePage.BrowserType type : BasePage.BrowserType.values()) {
+            idleSessions.put(type, new ArrayDeque<>());
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(WebDriverPool::shutdown, "webdriver-pool-shutdown"));
+    }
+
+    private WebDriverPool() {
+    }
+
+    /**
+     * Check whether pooling is enabled
+     * @return true if browser.pool.size is greater than zero
+     */
+    public static boolean isEnabled() {
+        return MAX_SESSIONS > 0;
+    }
+
+    /**
+     * Borrow a healthy session of the given browser type, starting a new browser
+     * only if no warm one is available
+     * @param browserType Browser type
+     * @param profile Launch options; warm sessions started with another profile are retired
+     * @return DriverSession owned by the caller until {@link #release(DriverSession)}
+     */
+    public static DriverSession acquire(BasePage.BrowserType browserType, LaunchProfile profile) {
+        long deadline = System.currentTimeMillis() + ACQUIRE_TIMEOUT_MS;
+        retireIdleSessions();
+
+        while (true) {
+            DriverSession candidate = null;
+            DriverSession displaced = null;
+
+            synchronized (lock) {
+                while (true) {
+                    candidate = idleSessions.get(browserType).pollFirst();
+                    if (candidate != null) {
+                        break;
+                    }
+                    if (liveSessions < MAX_SESSIONS) {
+                        liveSessions++;
+                        break;
+                    }
+                    // Make room by dropping an idle browser of another type
+                    displaced = pollAnyIdle();
+                    if (displaced != null) {
+                        break;
+                    }
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("No browser session available within "
+                                + (ACQUIRE_TIMEOUT_MS / 1000) + "s (pool size " + MAX_SESSIONS + ")");
+                    }
+                    try {
+                        lock.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+                    }
+                }
+            }
+
+            if (candidate != null) {
+                if (candidate.getIdleMillis() > MAX_IDLE_MS) {
+                    retire(candidate, "idle timeout");
+                    continue;
+                }
+                if (!candidate.getLaunchProfile().equals(profile.getName())) {
+                    retire(candidate, "launch profile changed to " + profile.getName());
+                    continue;
+                }
+                if (!isHealthy(candidate)) {
+                    evict(candidate);
+                    continue;
+                }
+                hits.incrementAndGet();
+                candidate.markBorrowed();
+                LOG.info("Reusing warm " + browserType + " session (age "
+                        + (candidate.getAgeMillis() / 1000) + "s, use "
+                        + candidate.getUseCount() + "/" + MAX_USES + ")");
+                return candidate;
+            }
+
+            if (displaced != null) {
+                // The displaced browser's slot is handed straight to the new session
+                quietlyQuit(displaced);
+                retired.incrementAndGet();
+            }
+            return startSession(browserType, profile);
+        }
+    }
+
+    /**
+     * Hand a session back to the pool. The session is reset for the next test, or
+     * retired/evicted if it has reached its use limit or fails to reset.
+     * @param session Session previously returned by {@link #acquire(BasePage.BrowserType, LaunchProfile)}
+     */
+    public static void release(DriverSession session) {
+        if (session == null) {
+            return;
+        }
+        if (session.getUseCount() >= MAX_USES) {
+            retire(session, "max uses reached");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        if (!reset(session)) {
+            evict(session);
+            return;
+        }
+        resetMillis.addAndGet(System.currentTimeMillis() - start);
+        resets.incrementAndGet();
+
+        session.markReleased();
+        synchronized (lock) {
+            // Most recently used first: warm sessions are reused before they go stale
+            idleSessions.get(session.getBrowserType()).addFirst(session);
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Quit every idle browser and print pool statistics
+     */
+    public static void shutdown() {
+        List<DriverSession> toQuit = new ArrayList<>();
+        synchronized (lock) {
+            for (Deque<DriverSession> queue : idleSessions.values()) {
+                toQuit.addAll(queue);
+                queue.clear();
+            }
+            liveSessions -= toQuit.size();
+            lock.notifyAll();
+        }
+        for (DriverSession session : toQuit) {
+            quietlyQuit(session);
+        }
+        if (hits.get() + misses.get() > 0) {
+            LOG.info(getStatsSummary());
+        }
+    }
+
+    /**
+     * Get the number of acquisitions served by a warm session
+     * @return Pool hits
+     */
+    public static long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of acquisitions that required a cold start
+     * @return Pool misses
+     */
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Get the fraction of acquisitions served by a warm session
+     * @return Hit rate between 0 and 1
+     */
+    public static double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    /**
+     * Get the average browser cold start time observed by the pool
+     * @return Average cold start in milliseconds
+     */
+    public static long getAverageColdStartMillis() {
+        long starts = misses.get();
+        return starts == 0 ? 0 : coldStartMillis.get() / starts;
+    }
+
+    /**
+     * Get the average time spent resetting a session between tests
+     * @return Average reset in milliseconds
+     */
+    public static long getAverageResetMillis() {
+        long count = resets.get();
+        return count == 0 ? 0 : resetMillis.get() / count;
+    }
+
+    /**
+     * Estimate startup time saved by reusing sessions instead of cold-starting them
+     * @return Saved time in milliseconds
+     */
+    public static long getEstimatedSavedMillis() {
+        return Math.max(0, hits.get() * (getAverageColdStartMillis() - getAverageResetMillis()));
+    }
+
+    /**
+     * Get ages of the sessions currently idle in the pool
+     * @return Session ages in milliseconds
+     */
+    public static List<Long> getIdleSessionAges() {
+        List<Long> ages = new ArrayList<>();
+        synchronized (lock) {
+            for (Deque<DriverSession> queue : idleSessions.values()) {
+                for (DriverSession session : queue) {
+                    ages.add(session.getAgeMillis());
+                }
+            }
+        }
+        return Collections.unmodifiableList(ages);
+    }
+
+    /**
+     * Get a one-line summary of pool statistics
+     * @return Statistics summary
+     */
+    public static String getStatsSummary() {
+        return String.format("Browser pool: hits=%d, misses=%d, hit rate=%.0f%%, retired=%d, evicted=%d, "
+                        + "avg cold start=%dms, avg reset=%dms, est. startup time saved=%ds",
+                hits.get(), misses.get(), getHitRate() * 100, retired.get(), evicted.get(),
+                getAverageColdStartMillis(), getAverageResetMillis(), getEstimatedSavedMillis() / 1000);
+    }
+
+    // Internal helpers
+
+    private static DriverSession startSession(BasePage.BrowserType browserType, LaunchProfile profile) {
+        long start = System.currentTimeMillis();
+        try {
+            DriverSession session = BasePage.createSession(browserType, profile);
+            coldStartMillis.addAndGet(System.currentTimeMillis() - start);
+            misses.incrementAndGet();
+            session.markBorrowed();
+            return session;
+        } catch (RuntimeException e) {
+            releaseSlot();
+            throw e;
+        }
+    }
+
+    private static DriverSession pollAnyIdle() {
+        for (Deque<DriverSession> queue : idleSessions.values()) {
+            DriverSession session = queue.pollLast(); // Least recently used
+            if (session != null) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    private static void retireIdleSessions() {
+        List<DriverSession> expired = new ArrayList<>();
+        synchronized (lock) {
+            for (Deque<DriverSession> queue : idleSessions.values()) {
+                Iterator<DriverSession> it = queue.iterator();
+                while (it.hasNext()) {
+                    DriverSession session = it.next();
+                    if (session.getIdleMillis() > MAX_IDLE_MS) {
+                        it.remove();
+                        expired.add(session);
+                    }
+                }
+            }
+        }
+        for (DriverSession session : expired) {
+            retire(session, "idle timeout");
+        }
+    }
+
+    private static boolean isHealthy(DriverSession session) {
+        try {
+            session.getDriver().getWindowHandle();
+            return Boolean.TRUE.equals(session.getJsExecutor().executeScript("return true;"));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean reset(DriverSession session) {
+        WebDriver driver = session.getDriver();
+        try {
+            session.recordOrigin(driver.getCurrentUrl());
+
+            // Move to a fresh tab and close the rest: session storage of every origin goes with them
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            driver.switchTo().newWindow(WindowType.TAB);
+            String fresh = driver.getWindowHandle();
+            PageReadiness.detachTracker(session); // It listens to a tab about to be closed
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+            driver.switchTo().window(fresh);
+
+            Set<String> origins = session.drainOrigins();
+            if (driver instanceof ChromiumDriver) {
+                ChromiumDriver chromium = (ChromiumDriver) driver;
+                for (String origin : origins) {
+                    chromium.executeCdpCommand("Storage.clearDataForOrigin",
+                            Map.of("origin", origin, "storageTypes", "all"));
+                }
+                // Cookies of every domain, including third parties the origins embedded
+                chromium.executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+                chromium.executeCdpCommand("Network.clearBrowserCache", Collections.emptyMap());
+            } else {
+                for (String origin : origins) {
+                    clearOriginInPage(session, origin);
+                }
+                driver.get("about:blank");
+            }
+            return true;
+        } catch (Exception e) {
+            LOG.warn("Browser session failed to reset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Without DevTools, storage can only be cleared from a page of the same origin
+    private static void clearOriginInPage(DriverSession session, String origin) {
+        WebDriver driver = session.getDriver();
+        try {
+            driver.get(origin + "/robots.txt"); // Small, same-origin page
+            session.getJsExecutor().executeAsyncScript(CLEAR_ORIGIN_SCRIPT);
+            driver.manage().deleteAllCookies();
+        } catch (Exception e) {
+            LOG.warn("Could not clear storage of " + origin + ": " + e.getMessage());
+        }
+    }
+
+    private static void retire(DriverSession session, String reason) {
+        LOG.info("Retiring " + session.getBrowserType() + " session (" + reason + ", age "
+                + (session.getAgeMillis() / 1000) + "s, " + session.getUseCount() + " uses)");
+        retired.incrementAndGet();
+        quietlyQuit(session);
+        releaseSlot();
+    }
+
+    private static void evict(DriverSession session) {
+        LOG.warn("Evicting unhealthy " + session.getBrowserType() + " session");
+        evicted.incrementAndGet();
+        quietlyQuit(session);
+        releaseSlot();
+    }
+
+    private static void releaseSlot() {
+        synchronized (lock) {
+            liveSessions--;
+            lock.notifyAll();
+        }
+    }
+
+    private static void quietlyQuit(DriverSession session) {
+        try {
+            session.quit();
+        } catch (Exception e) {
+            // Browser is already gone
+        }
+    }
+}
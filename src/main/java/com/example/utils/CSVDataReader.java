@@ -1,9 +1,7 @@
 package com.example.utils;
 
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvException;
-import java.io.FileReader;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 public class CSVDataReader {
@@ -14,26 +12,7 @@ public class CSVDataReader {
      * @return Object[][] containing test data
      */
     public static Object[][] readCSVData(String filePath) {
-        try (CSVReader reader = new CSVReader(new FileReader(filePath))) {
-            List<String[]> records = reader.readAll();
-            
-            // Remove header row if present
-            if (!records.isEmpty()) {
-                records.remove(0);
-            }
-            
-            // Convert to Object[][]
-            Object[][] data = new Object[records.size()][];
-            for (int i = 0; i < records.size(); i++) {
-                data[i] = records.get(i);
-            }
-            
-            return data;
-            
-        } catch (IOException | CsvException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to read CSV file: " + filePath, e);
-        }
+        return collect(new CsvRowIterator(filePath));
     }
     
     /**
@@ -43,34 +22,74 @@ public class CSVDataReader {
      * @return Object[][] containing selected columns
      */
     public static Object[][] readCSVDataWithColumns(String filePath, int... columnIndices) {
-        try (CSVReader reader = new CSVReader(new FileReader(filePath))) {
-            List<String[]> records = reader.readAll();
-            
-            // Remove header row if present
-            if (!records.isEmpty()) {
-                records.remove(0);
-            }
-            
-            // Extract specific columns
-            Object[][] data = new Object[records.size()][];
-            for (int i = 0; i < records.size(); i++) {
-                Object[] row = new Object[columnIndices.length];
-                for (int j = 0; j < columnIndices.length; j++) {
-                    if (columnIndices[j] < records.get(i).length) {
-                        row[j] = records.get(i)[columnIndices[j]];
-                    } else {
-                        row[j] = "";
-                    }
-                }
-                data[i] = row;
+        return collect(new CsvRowIterator(filePath, columnIndices));
+    }
+    
+    /**
+     * Streams CSV rows lazily for a DataProvider returning Iterator&lt;Object[]&gt;.
+     * Rows are parsed as TestNG asks for them, so the first test starts immediately
+     * and memory does not grow with the file.
+     * @param filePath Path to the CSV file
+     * @param columnIndices Indices of columns to extract (0-based); none = all columns
+     * @return Iterator over data rows (header skipped)
+     */
+    public static Iterator<Object[]> streamCSVData(String filePath, int... columnIndices) {
+        return new CsvRowIterator(filePath, columnIndices);
+    }
+    
+    /**
+     * Streams selected CSV columns lazily, by header name
+     * @param filePath Path to the CSV file
+     * @param columnNames Header names of columns to extract, in parameter order
+     * @return Iterator over data rows (header skipped)
+     */
+    public static Iterator<Object[]> streamCSVColumns(String filePath, String... columnNames) {
+        return CsvRowIterator.ofColumns(filePath, columnNames);
+    }
+    
+    /**
+     * Reads CSV columns converted to the types declared in a schema, e.g. an Integer
+     * index instead of a String. Results come from {@link CsvSnapshotCache}, so the
+     * file is only parsed once per content change, not once per test class or JVM.
+     * @param filePath Path to the CSV file
+     * @param schema Columns to extract and their types
+     * @return Object[][] containing typed rows
+     */
+    public static Object[][] readTypedData(String filePath, CsvSchema schema) {
+        return CsvSnapshotCache.load(filePath, schema);
+    }
+    
+    /**
+     * Typed rows for a DataProvider returning Iterator&lt;Object[]&gt;, read record by
+     * record from the snapshot (or the CSV) so memory does not grow with the file
+     * @param filePath Path to the CSV file
+     * @param schema Columns to extract and their types
+     * @return Iterator over typed rows
+     */
+    public static Iterator<Object[]> streamTypedData(String filePath, CsvSchema schema) {
+        return CsvSnapshotCache.stream(filePath, schema);
+    }
+    
+    /**
+     * Starts a filtered, projected query over a CSV file
+     * @param filePath Path to the CSV file
+     * @return Query returning every row until filters are added
+     */
+    public static CsvQuery query(String filePath) {
+        return CsvQuery.from(filePath);
+    }
+    
+    private static Object[][] collect(CsvRowIterator rows) {
+        List<Object[]> data = new ArrayList<>();
+        try (rows) {
+            while (rows.hasNext()) {
+                data.add(rows.next());
             }
-            
-            return data;
-            
-        } catch (IOException | CsvException e) {
+        } catch (RuntimeException e) {
             e.printStackTrace();
-            throw new RuntimeException("Failed to read CSV file: " + filePath, e);
+            throw e;
         }
+        return data.toArray(new Object[0][]);
     }
     
     /**
@@ -0,0 +1,325 @@
+package com.example.utils;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CsvColumnIndex maps each value of one CSV column to the rows holding it, together with
+ * the byte offset where each row starts. An equality query then reads and parses only the
+ * matching rows, with positional reads, instead of scanning the whole file. The index is
+ * built in one streaming pass; the file is never held in memory.
+ *
+ * Indexes are built on first use and kept per file and column for the life of the JVM.
+ * An index is rebuilt when the file's size or modification time changes.
+ */
+public class CsvColumnIndex {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(CsvColumnIndex.class);
+    private static final Map<String, CsvColumnIndex> indexes = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final long size;
+    private final long modified;
+    private final String[] header;
+    private final int column;
+    private final long[] rowStarts;      // byte offset of each data row, plus end of file
+    private final Map<String, int[]> rowsByValue;
+
+    private CsvColumnIndex(Path file, long size, long modified, String[] header, int column,
+                           long[] rowStarts, Map<String, int[]> rowsByValue) {
+        this.file = file;
+        this.size = size;
+        this.modified = modified;
+        this.header = header;
+        this.column = column;
+        this.rowStarts = rowStarts;
+        this.rowsByValue = rowsByValue;
+    }
+
+    /**
+     * Get the index for a column, building it if it is missing or stale
+     * @param filePath Path to the CSV file
+     * @param columnName Header name of the indexed column
+     * @return Column index
+     */
+    public static CsvColumnIndex forColumn(String filePath, String columnName) {
+        Path file = Paths.get(filePath).toAbsolutePath().normalize();
+        String key = file + "#" + columnName;
+        CsvColumnIndex index = indexes.get(key);
+        if (index == null || index.isStale()) {
+            index = build(file, columnName);
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    public String[] getHeader() {
+        return header.clone();
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the number of data rows holding a value
+     * @param value Column value
+     * @return Matching row count
+     */
+    public int count(String value) {
+        return rowsByValue.getOrDefault(value, new int[0]).length;
+    }
+
+    /**
+     * Parse only the rows whose indexed column equals a value, in file order. Each row is
+     * read on its own from its byte range; the file is closed once the last row is read,
+     * or when the iterator is closed.
+     * @param value Column value
+     * @return Iterator over the full (unprojected) rows
+     */
+    public Rows rows(String value) {
+        return new Rows(rowsByValue.getOrDefault(value, new int[0]));
+    }
+
+    /**
+     * Rows matching one value, read from the file as they are asked for
+     */
+    public class Rows implements Iterator<String[]>, Closeable {
+        private final int[] matches;
+        private FileChannel channel;
+        private int next = 0;
+
+        Rows(int[] matches) {
+            this.matches = matches;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < matches.length;
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (channel == null) {
+                channel = open(file);
+            }
+            int row = matches[next++];
+            try {
+                return parseRow(readRange(channel, rowStarts[row], rowStarts[row + 1]), rowStarts[row]);
+            } finally {
+                if (next == matches.length) {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            next = matches.length;
+            if (channel != null) {
+                closeQuietly(channel);
+                channel = null;
+            }
+        }
+    }
+
+    private boolean isStale() {
+        try {
+            return Files.size(file) != size || Files.getLastModifiedTime(file).toMillis() != modified;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static CsvColumnIndex build(Path file, String columnName) {
+        try {
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            long size = Files.size(file);
+
+            // Records the byte offset of every physical line as the parser pulls bytes through,
+            // so rows spanning lines still map correctly
+            LineOffsets lines = new LineOffsets(new BufferedInputStream(Files.newInputStream(file)));
+            try (CSVReader reader = new CSVReader(new InputStreamReader(lines, StandardCharsets.UTF_8))) {
+                String[] header = reader.readNext();
+                if (header == null) {
+                    header = new String[0];
+                }
+                int column = Arrays.asList(header).indexOf(columnName);
+                if (column < 0) {
+                    throw new IllegalArgumentException("Column '" + columnName + "' not found in " + file
+                            + " (columns: " + String.join(", ", header) + ")");
+                }
+
+                LongList starts = new LongList();
+                Map<String, List<Integer>> rows = new HashMap<>();
+                long linesBefore = reader.getLinesRead();
+                String[] row;
+                while ((row = reader.readNext()) != null) {
+                    int rowNumber = starts.size();
+                    starts.add(lines.startOf(linesBefore));
+                    String value = column < row.length ? row[column] : "";
+                    rows.computeIfAbsent(value, v -> new ArrayList<>()).add(rowNumber);
+                    linesBefore = reader.getLinesRead();
+                }
+                starts.add(size);
+
+                Map<String, int[]> rowsByValue = new HashMap<>();
+                rows.forEach((value, list) -> rowsByValue.put(value, list.stream().mapToInt(Integer::intValue).toArray()));
+                LOG.debug(() -> "Indexed " + file.getFileName() + " on " + columnName + ": "
+                        + (starts.size() - 1) + " rows, " + rowsByValue.size() + " distinct values");
+                return new CsvColumnIndex(file, size, modified, header, column, starts.toArray(), rowsByValue);
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new RuntimeException("Failed to index CSV file: " + file, e);
+        }
+    }
+
+    private static String[] parseRow(byte[] bytes, long start) {
+        try (CSVReader reader = new CSVReader(new InputStreamReader(
+                new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+            String[] row = reader.readNext();
+            return row != null ? row : new String[0];
+        } catch (IOException | CsvValidationException e) {
+            throw new RuntimeException("Failed to read indexed CSV row at byte " + start, e);
+        }
+    }
+
+    private static byte[] readRange(FileChannel channel, long start, long end) {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break; // File shrank since it was indexed
+                }
+            }
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new RuntimeException("Failed to read indexed CSV row at byte " + start, e);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static FileChannel open(Path file) {
+        try {
+            return FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file: " + file, e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Only read from
+        }
+    }
+
+    // Passes bytes through unchanged, remembering where each physical line starts
+    private static class LineOffsets extends FilterInputStream {
+        private final LongList starts = new LongList();
+        private long position;
+        private long dropped; // lines whose offsets are no longer needed
+
+        LineOffsets(InputStream in) {
+            super(in);
+            starts.add(0);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                position++;
+                if (b == '\n') {
+                    starts.add(position);
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int n = super.read(bytes, offset, length);
+            for (int i = 0; i < n; i++) {
+                if (bytes[offset + i] == '\n') {
+                    starts.add(position + i + 1);
+                }
+            }
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+
+        // Offset of a line the parser has consumed; earlier lines are forgotten
+        long startOf(long line) {
+            int at = (int) Math.min(line - dropped, starts.size() - 1);
+            long start = starts.get(at);
+            starts.removeFirst(at);
+            dropped += at;
+            return start;
+        }
+    }
+
+    // Growable array of longs, without boxing every offset
+    private static class LongList {
+        private long[] values = new long[1024];
+        private int first;
+        private int end;
+
+        void add(long value) {
+            if (end == values.length) {
+                if (first > values.length / 2) {
+                    System.arraycopy(values, first, values, 0, end - first);
+                } else {
+                    values = Arrays.copyOf(values, values.length * 2);
+                    System.arraycopy(values, first, values, 0, end - first);
+                }
+                end -= first;
+                first = 0;
+            }
+            values[end++] = value;
+        }
+
+        long get(int index) {
+            return values[first + index];
+        }
+
+        void removeFirst(int count) {
+            first += count;
+        }
+
+        int size() {
+            return end - first;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOfRange(values, first, end);
+        }
+    }
+}
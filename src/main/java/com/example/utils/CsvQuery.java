@@ -0,0 +1,313 @@
+package com.example.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * CsvQuery selects rows and columns from a CSV file for a DataProvider, so subsets of
+ * test data ("only ResultIndex 0", "only these search terms") come from one file instead
+ * of separate CSV copies.
+ *
+ * Filters are applied to each raw row while the file is scanned, before any projection or
+ * type conversion, and only matching rows are kept. The first equality filter is answered
+ * from a {@link CsvColumnIndex}, so repeated selective queries parse only matching rows.
+ *
+ * Example:
+ *   Iterator&lt;Object[]&gt; rows = CSVDataReader.query("src/test/resources/testdata.csv")
+ *           .whereEquals("ResultIndex", "0")
+ *           .select(schema)
+ *           .iterator();
+ *
+ * Filter expressions ({@link #where(String)}), e.g. from -Ddata.where:
+ *   "ResultIndex=0"                     equality
+ *   "SearchTerm=iphone|laptop"          any of several values
+ *   "ResultIndex!=0"                    inequality
+ *   "ResultIndex=0;SearchTerm!=book"    all conditions
+ */
+public class CsvQuery {
+    private final String filePath;
+    private final List<Condition> conditions = new ArrayList<>();
+    private String[] columns = new String[0];
+    private CsvSchema schema;
+    private boolean useIndex = true;
+    private long limit = Long.MAX_VALUE;
+
+    private static class Condition {
+        final String column;
+        final Predicate<String> test;
+        final String equals; // non-null when the condition can use an index
+
+        Condition(String column, Predicate<String> test, String equals) {
+            this.column = column;
+            this.test = test;
+            this.equals = equals;
+        }
+    }
+
+    private CsvQuery(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Start a query over a CSV file
+     * @param filePath Path to the CSV file
+     * @return New query returning every row and column
+     */
+    public static CsvQuery from(String filePath) {
+        return new CsvQuery(filePath);
+    }
+
+    /**
+     * Keep rows whose column equals a value
+     * @param column Header name
+     * @param value Expected cell text
+     * @return This query
+     */
+    public CsvQuery whereEquals(String column, String value) {
+        conditions.add(new Condition(column, value::equals, value));
+        return this;
+    }
+
+    /**
+     * Keep rows whose column matches a predicate on the raw cell text
+     * @param column Header name
+     * @param test Predicate on the cell
+     * @return This query
+     */
+    public CsvQuery where(String column, Predicate<String> test) {
+        conditions.add(new Condition(column, test, null));
+        return this;
+    }
+
+    /**
+     * Add conditions from a filter expression (see class docs). Null or blank adds none.
+     * @param expression Filter expression
+     * @return This query
+     */
+    public CsvQuery where(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return this;
+        }
+        for (String part : expression.split(";")) {
+            String clause = part.trim();
+            if (clause.isEmpty()) {
+                continue;
+            }
+            boolean negate = clause.contains("!=");
+            int split = clause.indexOf(negate ? "!=" : "=");
+            if (split <= 0) {
+                throw new IllegalArgumentException("Bad filter '" + clause + "', expected Column=value or Column!=value");
+            }
+            String column = clause.substring(0, split).trim();
+            List<String> values = Arrays.asList(clause.substring(split + (negate ? 2 : 1)).trim().split("\\|"));
+            if (negate) {
+                where(column, cell -> !values.contains(cell));
+            } else if (values.size() == 1) {
+                whereEquals(column, values.get(0));
+            } else {
+                where(column, values::contains);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Return only these columns, in this order, as Strings
+     * @param columnNames Header names
+     * @return This query
+     */
+    public CsvQuery select(String... columnNames) {
+        this.columns = columnNames.clone();
+        this.schema = null;
+        return this;
+    }
+
+    /**
+     * Return the schema's columns, converted to the schema's types
+     * @param typedColumns Columns and their types
+     * @return This query
+     */
+    public CsvQuery select(CsvSchema typedColumns) {
+        this.columns = typedColumns.getNames().toArray(new String[0]);
+        this.schema = typedColumns;
+        return this;
+    }
+
+    /**
+     * Stop after this many matching rows
+     * @param maxRows Maximum rows
+     * @return This query
+     */
+    public CsvQuery limit(long maxRows) {
+        this.limit = maxRows;
+        return this;
+    }
+
+    /**
+     * Always scan the file instead of using a column index
+     * @return This query
+     */
+    public CsvQuery withoutIndex() {
+        this.useIndex = false;
+        return this;
+    }
+
+    /**
+     * Run the query lazily, for a DataProvider returning Iterator&lt;Object[]&gt;
+     * @return Iterator over matching, projected rows
+     */
+    public Iterator<Object[]> iterator() {
+        // Nothing to filter: typed rows can come straight from the snapshot cache
+        if (conditions.isEmpty() && schema != null && limit == Long.MAX_VALUE) {
+            return CsvSnapshotCache.stream(filePath, schema);
+        }
+
+        Condition indexed = useIndex
+                ? conditions.stream().filter(c -> c.equals != null).findFirst().orElse(null)
+                : null;
+        String[] header;
+        Iterator<String[]> source;
+        Closeable scan;
+        if (indexed != null) {
+            CsvColumnIndex index = CsvColumnIndex.forColumn(filePath, indexed.column);
+            header = index.getHeader();
+            CsvColumnIndex.Rows matches = index.rows(indexed.equals);
+            source = matches;
+            scan = matches;
+        } else {
+            CsvRowIterator rows = new CsvRowIterator(filePath);
+            header = rows.getHeader();
+            source = new Iterator<String[]>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public String[] next() {
+                    return (String[]) rows.next();
+                }
+            };
+            scan = rows;
+        }
+        return new Matches(source, scan, resolve(header, conditions), project(header));
+    }
+
+    /**
+     * Run the query and collect the results
+     * @return Object[][] of matching, projected rows
+     */
+    public Object[][] toArray() {
+        List<Object[]> rows = new ArrayList<>();
+        iterator().forEachRemaining(rows::add);
+        return rows.toArray(new Object[0][]);
+    }
+
+    private int[] resolve(String[] header, List<Condition> conditionList) {
+        int[] indices = new int[conditionList.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = indexOf(header, conditionList.get(i).column);
+        }
+        return indices;
+    }
+
+    private int[] project(String[] header) {
+        if (columns.length == 0) {
+            return null;
+        }
+        int[] indices = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indices[i] = indexOf(header, columns[i]);
+        }
+        return indices;
+    }
+
+    private int indexOf(String[] header, String column) {
+        int index = Arrays.asList(header).indexOf(column);
+        if (index < 0) {
+            throw new IllegalArgumentException("Column '" + column + "' not found in " + filePath
+                    + " (columns: " + String.join(", ", header) + ")");
+        }
+        return index;
+    }
+
+    private class Matches implements Iterator<Object[]> {
+        private final Iterator<String[]> source;
+        private final Closeable scan; // file being read, closed when the limit is reached
+        private final int[] conditionColumns;
+        private final int[] projection;
+        private Object[] next;
+        private long returned = 0;
+
+        Matches(Iterator<String[]> source, Closeable scan, int[] conditionColumns, int[] projection) {
+            this.source = source;
+            this.scan = scan;
+            this.conditionColumns = conditionColumns;
+            this.projection = projection;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Object[] next() {
+            if (next == null) {
+                throw new NoSuchElementException("No more matching rows in " + filePath);
+            }
+            Object[] row = next;
+            returned++;
+            advance();
+            return row;
+        }
+
+        private void advance() {
+            next = null;
+            if (returned >= limit) {
+                try {
+                    scan.close(); // Stop early without reading the rest of the file
+                } catch (IOException ignored) {
+                    // Nothing more to read
+                }
+                return;
+            }
+            while (source.hasNext()) {
+                String[] row = source.next();
+                if (matches(row)) {
+                    next = convert(row);
+                    return;
+                }
+            }
+        }
+
+        private boolean matches(String[] row) {
+            for (int i = 0; i < conditionColumns.length; i++) {
+                String cell = conditionColumns[i] < row.length ? row[conditionColumns[i]] : "";
+                if (!conditions.get(i).test.test(cell)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Object[] convert(String[] row) {
+            if (projection == null) {
+                return row;
+            }
+            Object[] projected = new Object[projection.length];
+            for (int j = 0; j < projection.length; j++) {
+                String cell = projection[j] < row.length ? row[projection[j]] : "";
+                projected[j] = schema != null ? schema.getTypes().get(j).parse(cell) : cell;
+            }
+            return projected;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.utils;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * CsvRowIterator reads a CSV file one row at a time, so a lazy TestNG DataProvider can
+ * hand the first row to a test before the rest of the file has been read. Memory use
+ * does not grow with the file.
+ *
+ * - The first row is the header; columns can be projected by name or index, and only
+ *   the projected values are copied into each row
+ * - Files are read through a read-only memory mapping when possible (disable with
+ *   -Dcsv.mmap=false), otherwise through a buffered stream
+ * - The file is closed when the last row has been returned, or by {@link #close()}
+ */
+public class CsvRowIterator implements Iterator<Object[]>, Closeable {
+    private static final boolean USE_MMAP = Boolean.parseBoolean(System.getProperty("csv.mmap", "true"));
+
+    private final String filePath;
+    private final CSVReader reader;
+    private final String[] header;
+    private final int[] columns;      // null = all columns
+    private String[] next;
+    private long rowNumber = 0;
+
+    /**
+     * Open a CSV file and project the given columns
+     * @param filePath Path to the CSV file
+     * @param columnIndices Indices of columns to return (0-based); none = all columns
+     */
+    public CsvRowIterator(String filePath, int... columnIndices) {
+        this.filePath = filePath;
+        this.reader = open(filePath);
+        this.header = readRow();
+        this.columns = columnIndices.length > 0 ? columnIndices.clone() : null;
+        this.next = readRow();
+    }
+
+    /**
+     * Open a CSV file and project the named columns
+     * @param filePath Path to the CSV file
+     * @param columnNames Header names of columns to return, in the order wanted
+     * @return Iterator over the projected rows
+     */
+    public static CsvRowIterator ofColumns(String filePath, String... columnNames) {
+        CsvRowIterator all = new CsvRowIterator(filePath);
+        if (columnNames.length == 0) {
+            return all;
+        }
+        int[] indices = all.indicesOf(columnNames);
+        all.close();
+        return new CsvRowIterator(filePath, indices);
+    }
+
+    /**
+     * Get the header row
+     * @return Column names, or an empty array for an empty file
+     */
+    public String[] getHeader() {
+        return header != null ? header.clone() : new String[0];
+    }
+
+    /**
+     * Resolve header names to column indices
+     * @param columnNames Header names
+     * @return Column indices
+     */
+    public int[] indicesOf(String... columnNames) {
+        String[] names = getHeader();
+        int[] indices = new int[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            indices[i] = Arrays.asList(names).indexOf(columnNames[i]);
+            if (indices[i] < 0) {
+                throw new IllegalArgumentException("Column '" + columnNames[i] + "' not found in " + filePath
+                        + " (columns: " + String.join(", ", names) + ")");
+            }
+        }
+        return indices;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Object[] next() {
+        if (next == null) {
+            throw new NoSuchElementException("No more rows in " + filePath);
+        }
+        String[] row = next;
+        next = readRow();
+        return project(row);
+    }
+
+    /**
+     * Get the number of data rows returned so far
+     * @return Row count
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() {
+        next = null;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // Nothing left to read; ignore
+        }
+    }
+
+    private Object[] project(String[] row) {
+        rowNumber++;
+        if (columns == null) {
+            return row;
+        }
+        Object[] projected = new Object[columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            projected[j] = columns[j] < row.length ? row[columns[j]] : "";
+        }
+        return projected;
+    }
+
+    private String[] readRow() {
+        try {
+            String[] row = reader.readNext();
+            if (row == null) {
+                reader.close();
+            }
+            return row;
+        } catch (IOException | CsvValidationException e) {
+            close();
+            throw new RuntimeException("Failed to read CSV file: " + filePath, e);
+        }
+    }
+
+    private static CSVReader open(String filePath) {
+        try {
+            Path path = Paths.get(filePath);
+            InputStream in;
+            long size = Files.size(path);
+            if (USE_MMAP && size > 0 && size <= Integer.MAX_VALUE) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    // The mapping stays valid after the channel is closed
+                    in = new MappedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+                }
+            } else {
+                in = new BufferedInputStream(Files.newInputStream(path));
+            }
+            return new CSVReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file: " + filePath, e);
+        }
+    }
+
+    private static class MappedInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
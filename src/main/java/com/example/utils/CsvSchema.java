@@ -0,0 +1,104 @@
+package com.example.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CsvSchema declares which CSV columns a DataProvider needs and what type each one has,
+ * so rows reach the test method already converted (e.g. an int result index instead of
+ * a String that every invocation parses).
+ *
+ * Example:
+ *   CsvSchema schema = new CsvSchema()
+ *           .column("SearchTerm", CsvSchema.Type.STRING)
+ *           .column("ResultIndex", CsvSchema.Type.INT);
+ */
+public class CsvSchema {
+
+    /**
+     * Supported column types. The tag identifies the type in binary snapshots and must
+     * never change for an existing constant.
+     */
+    public enum Type {
+        STRING('S'), INT('I'), LONG('J'), DOUBLE('D'), BOOLEAN('Z');
+
+        private final char tag;
+
+        Type(char tag) {
+            this.tag = tag;
+        }
+
+        public char getTag() {
+            return tag;
+        }
+
+        /**
+         * Convert a CSV cell to this type. Blank numeric cells become 0 / false.
+         * @param value Cell text
+         * @return Typed value
+         */
+        public Object parse(String value) {
+            String text = value == null ? "" : value.trim();
+            switch (this) {
+                case INT:
+                    return text.isEmpty() ? 0 : Integer.parseInt(text);
+                case LONG:
+                    return text.isEmpty() ? 0L : Long.parseLong(text);
+                case DOUBLE:
+                    return text.isEmpty() ? 0.0 : Double.parseDouble(text);
+                case BOOLEAN:
+                    return Boolean.parseBoolean(text);
+                default:
+                    return value == null ? "" : value;
+            }
+        }
+    }
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Type> types = new ArrayList<>();
+
+    /**
+     * Add a column; columns are returned in the order they are added
+     * @param name Header name in the CSV file
+     * @param type Column type
+     * @return This schema
+     */
+    public CsvSchema column(String name, Type type) {
+        names.add(name);
+        types.add(type);
+        return this;
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    public List<Type> getTypes() {
+        return Collections.unmodifiableList(types);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Get a stable text form of the schema, used as part of the snapshot key
+     * @return e.g. "SearchTerm:S,ResultIndex:I"
+     */
+    public String signature() {
+        StringBuilder signature = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(names.get(i)).append(':').append(types.get(i).getTag());
+        }
+        return signature.toString();
+    }
+
+    @Override
+    public String toString() {
+        return signature();
+    }
+}
@@ -0,0 +1,381 @@
+package com.example.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CsvSnapshotCache turns a CSV file plus a {@link CsvSchema} into typed rows and keeps
+ * the result as a compact binary snapshot, so later test classes and later JVMs load the
+ * rows directly instead of parsing and converting the CSV again.
+ *
+ * - Snapshots are keyed by the SHA-256 of the CSV content and the schema signature, so
+ *   editing the file or the schema simply produces a new snapshot. The hash is computed
+ *   while streaming the file, never holding it in memory
+ * - {@link #stream} reads the snapshot (or parses the CSV while writing the snapshot)
+ *   one record at a time, so memory does not grow with the file
+ * - Within one JVM the rows returned by {@link #load} are also kept in memory
+ * - A damaged or unreadable snapshot is ignored and rebuilt from the CSV
+ *
+ * Configuration (system properties):
+ * - csv.cache.dir       snapshot directory (default .cache/csv)
+ * - csv.cache.enabled   set to false to always parse the CSV (default true)
+ */
+public class CsvSnapshotCache {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(CsvSnapshotCache.class);
+    private static final Path CACHE_DIR = Paths.get(System.getProperty("csv.cache.dir", ".cache/csv"));
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("csv.cache.enabled", "true"));
+    private static final int MAGIC = 0x43535632; // "CSV2": rows are flagged one by one, no count up front
+
+    private static final Map<String, Object[][]> memory = new ConcurrentHashMap<>();
+    private static final AtomicInteger memoryHits = new AtomicInteger();
+    private static final AtomicInteger snapshotHits = new AtomicInteger();
+    private static final AtomicInteger parses = new AtomicInteger();
+
+    private CsvSnapshotCache() {
+    }
+
+    /**
+     * Load typed rows for a CSV file. Row arrays are shared between callers and must
+     * not be modified.
+     * @param filePath Path to the CSV file
+     * @param schema Columns to load and their types
+     * @return Typed rows, header excluded
+     */
+    public static Object[][] load(String filePath, CsvSchema schema) {
+        String key = ENABLED ? key(Paths.get(filePath), schema) : null;
+        Object[][] rows = key != null ? memory.get(key) : null;
+        if (rows != null) {
+            memoryHits.incrementAndGet();
+            return rows.clone();
+        }
+
+        List<Object[]> collected = new ArrayList<>();
+        try (TypedRows typed = open(filePath, schema, key)) {
+            while (typed.hasNext()) {
+                collected.add(typed.next());
+            }
+        }
+        rows = collected.toArray(new Object[0][]);
+        if (key != null) {
+            memory.put(key, rows);
+        }
+        return rows.clone();
+    }
+
+    /**
+     * Iterate typed rows of a CSV file one record at a time, for a DataProvider
+     * returning Iterator&lt;Object[]&gt;. Rows come from the snapshot on disk, or from the
+     * CSV while the snapshot is written alongside. Rows already loaded into memory by
+     * {@link #load} are served from there.
+     * @param filePath Path to the CSV file
+     * @param schema Columns to load and their types
+     * @return Iterator over typed rows, header excluded; closed when exhausted
+     */
+    public static Iterator<Object[]> stream(String filePath, CsvSchema schema) {
+        String key = ENABLED ? key(Paths.get(filePath), schema) : null;
+        Object[][] rows = key != null ? memory.get(key) : null;
+        if (rows != null) {
+            memoryHits.incrementAndGet();
+            return Arrays.asList(rows).iterator();
+        }
+        return open(filePath, schema, key);
+    }
+
+    /**
+     * Get a one-line summary of cache statistics
+     * @return Statistics summary
+     */
+    public static String getStatsSummary() {
+        return String.format("CSV cache: %d memory hits, %d snapshot loads, %d parses",
+                memoryHits.get(), snapshotHits.get(), parses.get());
+    }
+
+    // Read the snapshot if there is a valid one, otherwise parse the CSV and write it
+    private static TypedRows open(String filePath, CsvSchema schema, String key) {
+        if (key == null) {
+            parses.incrementAndGet();
+            return new TypedRows(filePath, schema, null, null);
+        }
+        Path snapshot = CACHE_DIR.resolve(baseName(Paths.get(filePath)) + "-" + key + ".bin");
+        DataInputStream in = openSnapshot(snapshot, schema);
+        if (in != null) {
+            snapshotHits.incrementAndGet();
+        } else {
+            parses.incrementAndGet();
+        }
+        return new TypedRows(filePath, schema, in, snapshot);
+    }
+
+    private static DataInputStream openSnapshot(Path snapshot, CsvSchema schema) {
+        if (!Files.exists(snapshot)) {
+            return null;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)));
+            if (in.readInt() == MAGIC && schema.signature().equals(in.readUTF())) {
+                return in;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("⚠️ Ignoring unreadable CSV snapshot " + snapshot.getFileName() + ": " + e);
+        }
+        closeQuietly(in);
+        return null;
+    }
+
+    /**
+     * Typed rows read from a snapshot record by record, or parsed from the CSV while the
+     * snapshot is written. If the snapshot turns out to be damaged part way, the rest
+     * of the rows comes from the CSV and the snapshot is rebuilt.
+     */
+    private static class TypedRows implements Iterator<Object[]>, AutoCloseable {
+        private final String filePath;
+        private final CsvSchema schema;
+        private final List<CsvSchema.Type> types;
+        private final Path snapshot;
+        private DataInputStream in;
+        private CsvRowIterator cells;
+        private DataOutputStream out;
+        private Path temp;
+        private long served;
+        private Object[] next;
+        private boolean finished;
+
+        TypedRows(String filePath, CsvSchema schema, DataInputStream in, Path snapshot) {
+            this.filePath = filePath;
+            this.schema = schema;
+            this.types = schema.getTypes();
+            this.in = in;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !finished) {
+                try {
+                    next = readNext();
+                    if (next == null) {
+                        finished = true;
+                        complete();
+                    }
+                } catch (IOException e) {
+                    close();
+                    throw new UncheckedIOException("Failed to write CSV snapshot for " + filePath, e);
+                } catch (RuntimeException e) {
+                    close();
+                    throw e;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more rows in " + filePath);
+            }
+            Object[] row = next;
+            next = null;
+            served++;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(in);
+            in = null;
+            if (cells != null) {
+                cells.close();
+            }
+            if (out != null) {
+                // Abandoned part way: never leave a partial snapshot behind
+                closeQuietly(out);
+                out = null;
+                deleteQuietly(temp);
+            }
+        }
+
+        private Object[] readNext() throws IOException {
+            if (in != null) {
+                try {
+                    return in.readBoolean() ? readRow() : null;
+                } catch (IOException | RuntimeException e) {
+                    LOG.warn("⚠️ Ignoring damaged CSV snapshot " + snapshot.getFileName() + ": " + e);
+                    closeQuietly(in);
+                    in = null;
+                    startParsing(served);
+                }
+            } else if (cells == null) {
+                startParsing(0);
+            }
+            return parseRow();
+        }
+
+        private Object[] readRow() throws IOException {
+            Object[] row = new Object[types.size()];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = readValue(in, types.get(j));
+            }
+            return row;
+        }
+
+        // Parse from the CSV, skipping rows already served, and write the snapshot as we go
+        private void startParsing(long skip) throws IOException {
+            cells = CsvRowIterator.ofColumns(filePath, schema.getNames().toArray(new String[0]));
+            if (snapshot != null) {
+                Files.createDirectories(CACHE_DIR);
+                temp = Files.createTempFile(CACHE_DIR, "snapshot", ".tmp");
+                out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)));
+                out.writeInt(MAGIC);
+                out.writeUTF(schema.signature());
+            }
+            for (long i = 0; i < skip && parseRow() != null; i++) {
+                // Already served from the snapshot
+            }
+        }
+
+        private Object[] parseRow() throws IOException {
+            if (!cells.hasNext()) {
+                return null;
+            }
+            Object[] row = cells.next();
+            for (int j = 0; j < row.length; j++) {
+                try {
+                    row[j] = types.get(j).parse((String) row[j]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Bad " + types.get(j) + " value '" + row[j] + "' in column "
+                            + schema.getNames().get(j) + ", row " + cells.getRowNumber() + " of " + filePath, e);
+                }
+            }
+            if (out != null) {
+                out.writeBoolean(true);
+                for (int j = 0; j < row.length; j++) {
+                    writeValue(out, types.get(j), row[j]);
+                }
+            }
+            return row;
+        }
+
+        private void complete() throws IOException {
+            closeQuietly(in);
+            in = null;
+            if (cells != null) {
+                cells.close();
+            }
+            if (out != null) {
+                out.writeBoolean(false);
+                out.close();
+                out = null;
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+    }
+
+    private static Object readValue(DataInputStream in, CsvSchema.Type type) throws IOException {
+        switch (type) {
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            default:
+                byte[] utf8 = new byte[in.readInt()];
+                in.readFully(utf8);
+                return new String(utf8, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, CsvSchema.Type type, Object value) throws IOException {
+        switch (type) {
+            case INT:
+                out.writeInt((Integer) value);
+                break;
+            case LONG:
+                out.writeLong((Long) value);
+                break;
+            case DOUBLE:
+                out.writeDouble((Double) value);
+                break;
+            case BOOLEAN:
+                out.writeBoolean((Boolean) value);
+                break;
+            default:
+                // Length-prefixed rather than writeUTF, which is limited to 64 KB
+                byte[] utf8 = ((String) value).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+        }
+    }
+
+    private static String key(Path csv, CsvSchema schema) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(csv), digest)) {
+                byte[] buffer = new byte[64 * 1024];
+                while (in.read(buffer) != -1) {
+                    // Digested as it is read
+                }
+            }
+            digest.update(schema.signature().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.substring(0, 32);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file: " + csv, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (Exception ignored) {
+                // Nothing left to read or write
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException ignored) {
+            // A stray temp file is harmless
+        }
+    }
+
+    private static String baseName(Path csv) {
+        String name = csv.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
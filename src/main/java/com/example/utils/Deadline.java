@@ -0,0 +1,209 @@
+package com.example.utils;
+
+import java.time.Duration;
+
+/**
+ * Deadline is the time budget of the test running on the current thread. Every wait,
+ * navigation and HTTP probe asks it how long it may take ({@link #cap}), so timeouts no
+ * longer stack: a test that is out of time stops at the next wait instead of sitting
+ * out a fresh 20 s for each.
+ *
+ * Budgets nest. {@link DeadlineListener} opens a test budget around each test method;
+ * {@link TestSteps} opens a step budget around each step, which ends at whichever comes
+ * first, the step's own budget or the end of the test.
+ *
+ * Example:
+ *   try (Deadline.Scope step = Deadline.forStep("Search", Duration.ofSeconds(30))) {
+ *       getWait().until(...);  // waits at most what the step has left
+ *   }
+ *
+ * A wait that was cut short by the budget and then timed out is rethrown through
+ * {@link #explain}, so it fails as {@link ExceededException} rather than as a timeout
+ * that {@link FailureClassifier} would retry.
+ *
+ * Without an open budget (e.g. in @BeforeClass) every request is granted as asked.
+ */
+public class Deadline {
+    private static final ThreadLocal<Scope> current = new ThreadLocal<>();
+    // Browser-side timers (page load) may fire a little before our clock reaches the end
+    private static final long CLOCK_SLACK_MILLIS = 50;
+
+    /**
+     * An open budget; closing it restores the enclosing one
+     */
+    public static class Scope implements AutoCloseable {
+        private final String name;
+        private final long budgetMillis;
+        private final long endsAt;
+        private final long stepBudgetMillis;
+        private final Scope parent;
+        private boolean closed;
+
+        Scope(String name, long budgetMillis, long endsAt, long stepBudgetMillis, Scope parent) {
+            this.name = name;
+            this.budgetMillis = budgetMillis;
+            this.endsAt = endsAt;
+            this.stepBudgetMillis = stepBudgetMillis;
+            this.parent = parent;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getRemainingMillis() {
+            return endsAt - System.currentTimeMillis();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                if (parent != null) {
+                    current.set(parent);
+                } else {
+                    current.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Thrown when a test or step has used up its time budget
+     */
+    public static class ExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public ExceededException(String message) {
+            super(message);
+        }
+    }
+
+    private Deadline() {
+    }
+
+    /**
+     * Open the budget of a test on the current thread, replacing any budget left open
+     * @param name Test name (for messages)
+     * @param budget Time the whole test may take
+     * @param stepBudget Default budget of each step in the test
+     * @return Scope to close when the test ends
+     */
+    public static Scope forTest(String name, Duration budget, Duration stepBudget) {
+        long now = System.currentTimeMillis();
+        Scope scope = new Scope(name, budget.toMillis(), now + budget.toMillis(), stepBudget.toMillis(), null);
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * Open a step budget: the smaller of the step's own budget and what is left
+     * @param name Step name (for messages)
+     * @param budget Time the step may take
+     * @return Scope to close when the step ends
+     * @throws ExceededException if the enclosing budget is already used up
+     */
+    public static Scope forStep(String name, Duration budget) {
+        Scope parent = current.get();
+        long now = System.currentTimeMillis();
+        long endsAt = now + budget.toMillis();
+        if (parent != null) {
+            if (parent.endsAt <= now) {
+                throw exceeded(parent, "before step '" + name + "'");
+            }
+            endsAt = Math.min(endsAt, parent.endsAt);
+        }
+        Scope scope = new Scope(name, budget.toMillis(), endsAt,
+                parent != null ? parent.stepBudgetMillis : budget.toMillis(), parent);
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * Open a step budget using the test's default step budget
+     * @param name Step name
+     * @return Scope to close when the step ends
+     */
+    public static Scope forStep(String name) {
+        Scope parent = current.get();
+        return forStep(name, Duration.ofMillis(parent != null ? parent.stepBudgetMillis : Long.MAX_VALUE / 4));
+    }
+
+    /**
+     * Drop every budget open on the current thread
+     */
+    public static void clear() {
+        current.remove();
+    }
+
+    /**
+     * Limit a timeout to the time the current budget has left
+     * @param requested Timeout the caller would use on its own
+     * @return The smaller of requested and the time left
+     * @throws ExceededException if the budget is already used up
+     */
+    public static Duration cap(Duration requested) {
+        return Duration.ofMillis(capMillis(requested.toMillis()));
+    }
+
+    /**
+     * Limit a timeout in milliseconds to the time the current budget has left
+     * @param requestedMillis Timeout the caller would use on its own
+     * @return The smaller of requestedMillis and the time left
+     * @throws ExceededException if the budget is already used up
+     */
+    public static long capMillis(long requestedMillis) {
+        Scope scope = current.get();
+        if (scope == null) {
+            return requestedMillis;
+        }
+        long remaining = scope.getRemainingMillis();
+        if (remaining <= 0) {
+            throw exceeded(scope, "");
+        }
+        return Math.min(requestedMillis, remaining);
+    }
+
+    /**
+     * Get the time the current budget has left
+     * @return Milliseconds, or Long.MAX_VALUE when no budget is open
+     */
+    public static long remainingMillis() {
+        Scope scope = current.get();
+        return scope != null ? Math.max(0, scope.getRemainingMillis()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Check that the current budget is not used up
+     * @throws ExceededException if it is
+     */
+    public static void check() {
+        capMillis(Long.MAX_VALUE);
+    }
+
+    /**
+     * Explain a timeout of a wait or page load that was limited with {@link #cap}: if the
+     * budget is (all but) used up, the budget is what ran out, not the page
+     * @param timeout Timeout thrown by the wait
+     * @return ExceededException caused by timeout if the budget is used up, else timeout itself
+     */
+    public static RuntimeException explain(RuntimeException timeout) {
+        Scope scope = current.get();
+        if (scope == null || scope.getRemainingMillis() > CLOCK_SLACK_MILLIS) {
+            return timeout;
+        }
+        ExceededException e = exceeded(scope, "while waiting");
+        e.initCause(timeout);
+        return e;
+    }
+
+    private static ExceededException exceeded(Scope scope, String where) {
+        // Report the innermost budget that ran out
+        Scope culprit = scope;
+        while (culprit.parent != null && culprit.parent.endsAt <= culprit.endsAt) {
+            culprit = culprit.parent;
+        }
+        return new ExceededException("Time budget of " + culprit.budgetMillis / 1000.0 + " s for '"
+                + culprit.getName() + "' used up" + (where.isEmpty() ? "" : " " + where));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.utils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+/**
+ * DeadlineListener opens a {@link Deadline} around every test method invocation (each
+ * data row and each retry gets a fresh one), so all waits, navigations and link checks
+ * in the test draw from one budget.
+ *
+ * Budgets, first match wins:
+ * - {@link TimeBudget} on the test method, then on its class
+ * - &lt;parameter name="test-timeout"&gt; (test budget) and &lt;parameter name="timeout"&gt;
+ *   (step budget) of the &lt;test&gt; or suite, in seconds
+ * - the system properties below
+ *
+ * TestNG's own @Test(timeOut) runs the test on another thread, away from the browser
+ * session and the deadline; use {@link TimeBudget} instead.
+ *
+ * Configuration (system properties):
+ * - deadline.testSeconds   budget of each test (default 300)
+ * - deadline.stepSeconds   budget of each step (default 60)
+ */
+public class DeadlineListener implements IInvokedMethodListener {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(DeadlineListener.class);
+    private static final long TEST_SECONDS = Long.getLong("deadline.testSeconds", 300L);
+    private static final long STEP_SECONDS = Long.getLong("deadline.stepSeconds", 60L);
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        ITestNGMethod testMethod = method.getTestMethod();
+        TimeBudget budget = findBudget(testMethod);
+        long testSeconds = budget != null && budget.testSeconds() > 0 ? budget.testSeconds()
+                : parameter(testResult, "test-timeout", TEST_SECONDS);
+        long stepSeconds = budget != null && budget.stepSeconds() > 0 ? budget.stepSeconds()
+                : parameter(testResult, "timeout", STEP_SECONDS);
+        Deadline.forTest(testMethod.getMethodName(), Duration.ofSeconds(testSeconds), Duration.ofSeconds(stepSeconds));
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        if (Deadline.remainingMillis() == 0) {
+            LOG.warn("⏳ " + method.getTestMethod().getMethodName() + " used up its time budget");
+        }
+        Deadline.clear();
+    }
+
+    private static TimeBudget findBudget(ITestNGMethod testMethod) {
+        Method javaMethod = testMethod.getConstructorOrMethod().getMethod();
+        TimeBudget budget = javaMethod != null ? javaMethod.getAnnotation(TimeBudget.class) : null;
+        if (budget == null) {
+            Class<?> testClass = testMethod.getRealClass();
+            budget = testClass != null ? testClass.getAnnotation(TimeBudget.class) : null;
+        }
+        return budget;
+    }
+
+    private static long parameter(ITestResult testResult, String name, long defaultSeconds) {
+        String value = testResult.getTestContext().getCurrentXmlTest().getParameter(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultSeconds;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOG.warn("⚠️ Ignoring non-numeric " + name + " parameter: " + value);
+            return defaultSeconds;
+        }
+    }
+}
@@ -5,20 +5,96 @@ import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.example.utils.FrameworkLogger.Level;
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * ExtentReportManager records test results into an Extent Spark report.
+ *
+ * Each thread has its own current test (set by createTest), so tests running in parallel
+ * never log into each other's nodes. Log calls only append an event to a lock-free queue;
+ * a single background consumer writes each event to the {@link ReportJournal} and applies
+ * it to the report model, so logging from page objects costs almost nothing on the test
+ * thread. Console output goes through {@link FrameworkLogger}.
+ *
+ * The journal (reports/journal/&lt;report name&gt;.jsonl) is flushed after every batch, so a
+ * killed run can still be rendered with {@link ReportRebuilder}.
+ *
+ * Configuration (system properties):
+ * - report.render         "end" keeps nothing in memory and re-renders the HTML from the
+ *                         journal; "live" keeps every test's report model in memory, so
+ *                         memory grows with the suite, and exposes it as ExtentTest
+ *                         (default end)
+ * - report.renderSeconds  re-render interval while tests run, 0 = only on flush (default 30)
+ * - report.journal.dir    journal directory (default reports/journal)
+ */
 public class ExtentReportManager {
-    private static ExtentReports extent;
-    private static ExtentTest test;
-    private static String reportPath;
+    private static final boolean LIVE = !"end".equalsIgnoreCase(System.getProperty("report.render", "end"));
+    private static final long RENDER_INTERVAL_MILLIS = Long.getLong("report.renderSeconds", 30L) * 1000;
+    private static final String JOURNAL_DIR = System.getProperty("report.journal.dir", "reports/journal");
+    private static final long CONSUMER_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final FrameworkLogger LOG = FrameworkLogger.get(ExtentReportManager.class);
+    
+    private static volatile ExtentReports extent;      // null when rendering from the journal only
+    private static volatile ReportJournal journal;
+    private static volatile String reportPath;
+    private static final ThreadLocal<TestHandle> currentTest = new ThreadLocal<>();
+    private static final AtomicInteger nextTestId = new AtomicInteger();
+    
+    // Extent's model is not thread-safe: every mutation goes through this lock
+    private static final Object modelLock = new Object();
+    private static final Map<Integer, ExtentTest> liveTests = new ConcurrentHashMap<>();
+    private static final Queue<Map<String, Object>> pending = new ConcurrentLinkedQueue<>();
+    private static final ReentrantLock drainLock = new ReentrantLock();
+    private static volatile boolean renderNeeded = false;
+    private static long lastRender = System.currentTimeMillis(); // consumer thread only
+    
+    // Statistics
+    private static final AtomicLong recorded = new AtomicLong();
+    private static final AtomicLong applied = new AtomicLong();
+    private static final AtomicLong maxBacklog = new AtomicLong();
+    private static final AtomicLong renders = new AtomicLong();
+    
+    static {
+        Thread consumer = new Thread(ExtentReportManager::consume, "report-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+        // Keep whatever was logged if the JVM is stopped before the report is flushed
+        Runtime.getRuntime().addShutdownHook(new Thread(ExtentReportManager::drain, "report-journal-flush"));
+    }
+    
+    private static class TestHandle {
+        final int id;
+        final ExtentTest test;
+        
+        TestHandle(int id, ExtentTest test) {
+            this.id = id;
+            this.test = test;
+        }
+    }
     
     /**
      * Initialize Extent Reports with configuration
      */
-    public static void initReports() {
-        if (extent == null) {
+    public static synchronized void initReports() {
+        if (reportPath == null) {
             // Create reports directory if it doesn't exist
             File reportsDir = new File("reports");
             if (!reportsDir.exists()) {
@@ -33,59 +109,152 @@ public class ExtentReportManager {
             
             // Generate timestamp for report name
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-            reportPath = "reports/AutomationReport_" + timestamp + ".html";
-            
-            // Initialize Spark Reporter
-            ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
-            
-            // Configure Spark Reporter
-            sparkReporter.config().setDocumentTitle("Amazon Automation Test Report");
-            sparkReporter.config().setReportName("Amazon Automation Results");
-            sparkReporter.config().setTheme(Theme.STANDARD);
-            sparkReporter.config().setTimeStampFormat("MMM dd, yyyy HH:mm:ss");
+            String reportName = "AutomationReport_" + timestamp
+                    + (TestSharder.isEnabled() ? "_shard-" + TestSharder.getIndex() + "of" + TestSharder.getTotal() : "");
             
-            // Initialize Extent Reports
-            extent = new ExtentReports();
-            extent.attachReporter(sparkReporter);
+            try {
+                journal = new ReportJournal(Paths.get(JOURNAL_DIR, reportName + ".jsonl"));
+            } catch (IOException e) {
+                LOG.warn("⚠️ Report journal unavailable, keeping the report in memory: " + e.getMessage());
+            }
+            if (LIVE || journal == null) {
+                extent = newReport("reports/" + reportName + ".html");
+            }
+            reportPath = "reports/" + reportName + ".html";
             
             // Add system information
-            extent.setSystemInfo("OS", System.getProperty("os.name"));
-            extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-            extent.setSystemInfo("User", System.getProperty("user.name"));
-            extent.setSystemInfo("Browser", "Chrome"); // Default browser
-            extent.setSystemInfo("Environment", "Test");
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("OS", System.getProperty("os.name"));
+            info.put("Java Version", System.getProperty("java.version"));
+            info.put("User", System.getProperty("user.name"));
+            info.put("Browser", "Chrome"); // Default browser
+            info.put("Environment", "Test");
+            if (TestSharder.isEnabled()) {
+                info.put("Shard", TestSharder.getIndex() + "/" + TestSharder.getTotal());
+            }
+            enqueue(ReportJournal.record("run", "info", info));
             
-            System.out.println("✅ Extent Reports initialized: " + reportPath);
+            LOG.info("✅ Extent Reports initialized: " + reportPath);
+            if (journal != null) {
+                LOG.info("📝 Report journal: " + journal.getFile());
+            }
         }
     }
     
     /**
-     * Create a new test in the report
+     * Create an Extent report with the project's Spark configuration
+     * @param path HTML output path
+     * @return Report with the Spark reporter attached
+     */
+    static ExtentReports newReport(String path) {
+        // Initialize Spark Reporter
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(path);
+        
+        // Configure Spark Reporter
+        sparkReporter.config().setDocumentTitle("Amazon Automation Test Report");
+        sparkReporter.config().setReportName("Amazon Automation Results");
+        sparkReporter.config().setTheme(Theme.STANDARD);
+        sparkReporter.config().setTimeStampFormat("MMM dd, yyyy HH:mm:ss");
+        
+        // Initialize Extent Reports
+        ExtentReports report = new ExtentReports();
+        report.attachReporter(sparkReporter);
+        return report;
+    }
+    
+    /**
+     * Start a new test in the report and make it the current test of the calling thread
+     * @param testName Name of the test
+     * @param description Description of the test
+     */
+    public static void startTest(String testName, String description) {
+        createTest(testName, description);
+    }
+    
+    /**
+     * Start a new test in the report and make it the current test of the calling thread
+     * @param testName Name of the test
+     */
+    public static void startTest(String testName) {
+        createTest(testName, null);
+    }
+    
+    /**
+     * Create a new test in the report and make it the current test of the calling thread
      * @param testName Name of the test
      * @param description Description of the test
-     * @return ExtentTest instance
+     * @return ExtentTest instance, or null with -Dreport.render=end
+     * @deprecated Returns null with -Dreport.render=end, the default; use
+     *             {@link #startTest(String, String)} and the log methods
      */
+    @Deprecated
     public static ExtentTest createTest(String testName, String description) {
-        test = extent.createTest(testName, description);
-        return test;
+        ExtentTest created = null;
+        int id;
+        ExtentReports report = extent;
+        if (report != null) {
+            synchronized (modelLock) {
+                created = description != null ? report.createTest(testName, description) : report.createTest(testName);
+            }
+            id = created.getModel().getId();
+            liveTests.put(id, created);
+        } else {
+            id = nextTestId.incrementAndGet();
+        }
+        currentTest.set(new TestHandle(id, created));
+        enqueue(ReportJournal.record("test", "id", id, "name", testName, "desc", description));
+        FrameworkLogger.putContext("test", testName);
+        return created;
     }
     
     /**
-     * Create a new test in the report
+     * Create a new test in the report and make it the current test of the calling thread
      * @param testName Name of the test
-     * @return ExtentTest instance
+     * @return ExtentTest instance, or null with -Dreport.render=end
+     * @deprecated Returns null with -Dreport.render=end, the default; use
+     *             {@link #startTest(String)} and the log methods
      */
+    @Deprecated
     public static ExtentTest createTest(String testName) {
-        test = extent.createTest(testName);
-        return test;
+        return createTest(testName, null);
     }
     
     /**
-     * Get current test instance
-     * @return Current ExtentTest instance
+     * Get the current test of the calling thread
+     * @return Current ExtentTest instance, or null if this thread has not created one
+     * @deprecated Always null with -Dreport.render=end, the default; log through the
+     *             log methods instead
      */
+    @Deprecated
     public static ExtentTest getTest() {
-        return test;
+        TestHandle handle = currentTest.get();
+        return handle != null ? handle.test : null;
+    }
+    
+    /**
+     * Make an existing test the current test of the calling thread, e.g. when a test
+     * continues on a worker thread
+     * @param extentTest Test to log to, or null to detach
+     * @deprecated Needs an ExtentTest, which only exists with -Dreport.render=live
+     */
+    @Deprecated
+    public static void setTest(ExtentTest extentTest) {
+        if (extentTest == null) {
+            currentTest.remove();
+            FrameworkLogger.removeContext("test");
+        } else {
+            currentTest.set(new TestHandle(extentTest.getModel().getId(), extentTest));
+            FrameworkLogger.putContext("test", extentTest.getModel().getName());
+        }
+    }
+    
+    /**
+     * Record a message in the current test's report node without logging it to the console
+     * @param status Log status
+     * @param message Message to log
+     */
+    public static void log(Status status, String message) {
+        enqueueForTest("log", "status", status.name(), "msg", message);
     }
     
     /**
@@ -93,10 +262,8 @@ public class ExtentReportManager {
      * @param message Message to log
      */
     public static void logInfo(String message) {
-        if (test != null) {
-            test.log(Status.INFO, message);
-        }
-        System.out.println("ℹ️ " + message);
+        LOG.log(Level.INFO, "ℹ️ " + message, null);
+        enqueueForTest("log", "status", Status.INFO.name(), "msg", message);
     }
     
     /**
@@ -104,10 +271,8 @@ public class ExtentReportManager {
      * @param message Message to log
      */
     public static void logPass(String message) {
-        if (test != null) {
-            test.log(Status.PASS, message);
-        }
-        System.out.println("✅ " + message);
+        LOG.log(Level.INFO, "✅ " + message, null);
+        enqueueForTest("log", "status", Status.PASS.name(), "msg", message);
     }
     
     /**
@@ -115,10 +280,8 @@ public class ExtentReportManager {
      * @param message Message to log
      */
     public static void logFail(String message) {
-        if (test != null) {
-            test.log(Status.FAIL, message);
-        }
-        System.out.println("❌ " + message);
+        LOG.log(Level.ERROR, "❌ " + message, null);
+        enqueueForTest("log", "status", Status.FAIL.name(), "msg", message);
     }
     
     /**
@@ -126,10 +289,8 @@ public class ExtentReportManager {
      * @param message Message to log
      */
     public static void logWarning(String message) {
-        if (test != null) {
-            test.log(Status.WARNING, message);
-        }
-        System.out.println("⚠️ " + message);
+        LOG.log(Level.WARN, "⚠️ " + message, null);
+        enqueueForTest("log", "status", Status.WARNING.name(), "msg", message);
     }
     
     /**
@@ -137,10 +298,8 @@ public class ExtentReportManager {
      * @param message Message to log
      */
     public static void logSkip(String message) {
-        if (test != null) {
-            test.log(Status.SKIP, message);
-        }
-        System.out.println("⏭️ " + message);
+        LOG.log(Level.INFO, "⏭️ " + message, null);
+        enqueueForTest("log", "status", Status.SKIP.name(), "msg", message);
     }
     
     /**
@@ -149,13 +308,10 @@ public class ExtentReportManager {
      * @param description Description for the screenshot
      */
     public static void addScreenshot(String screenshotPath, String description) {
-        if (test != null && screenshotPath != null) {
-            try {
-                test.addScreenCaptureFromPath(screenshotPath, description);
-                logInfo("Screenshot attached: " + description);
-            } catch (Exception e) {
-                logWarning("Failed to attach screenshot: " + e.getMessage());
-            }
+        if (screenshotPath != null) {
+            LOG.info("ℹ️ Screenshot attached: " + description);
+            enqueueForTest("shot", "status", Status.INFO.name(),
+                    "msg", description, "path", ScreenshotUtils.getRelativeScreenshotPath(screenshotPath));
         }
     }
     
@@ -165,12 +321,9 @@ public class ExtentReportManager {
      * @param message Pass message
      */
     public static void addScreenshotOnPass(String screenshotPath, String message) {
-        if (test != null && screenshotPath != null) {
-            try {
-                test.pass(message).addScreenCaptureFromPath(screenshotPath);
-            } catch (Exception e) {
-                logWarning("Failed to attach screenshot on pass: " + e.getMessage());
-            }
+        if (screenshotPath != null) {
+            enqueueForTest("shot", "status", Status.PASS.name(), "msg", message,
+                    "path", ScreenshotUtils.getRelativeScreenshotPath(screenshotPath));
         }
     }
     
@@ -180,12 +333,9 @@ public class ExtentReportManager {
      * @param message Fail message
      */
     public static void addScreenshotOnFail(String screenshotPath, String message) {
-        if (test != null && screenshotPath != null) {
-            try {
-                test.fail(message).addScreenCaptureFromPath(screenshotPath);
-            } catch (Exception e) {
-                logWarning("Failed to attach screenshot on fail: " + e.getMessage());
-            }
+        if (screenshotPath != null) {
+            enqueueForTest("shot", "status", Status.FAIL.name(), "msg", message,
+                    "path", ScreenshotUtils.getRelativeScreenshotPath(screenshotPath));
         }
     }
     
@@ -194,9 +344,6 @@ public class ExtentReportManager {
      * @param message Pass message
      */
     public static void markTestPassed(String message) {
-        if (test != null) {
-            test.pass(message);
-        }
         logPass(message);
     }
     
@@ -205,9 +352,6 @@ public class ExtentReportManager {
      * @param message Fail message
      */
     public static void markTestFailed(String message) {
-        if (test != null) {
-            test.fail(message);
-        }
         logFail(message);
     }
     
@@ -216,19 +360,30 @@ public class ExtentReportManager {
      * @param exception Exception to log
      */
     public static void markTestFailed(Exception exception) {
-        if (test != null) {
-            test.fail(exception);
-        }
-        logFail("Test failed with exception: " + exception.getMessage());
+        String message = "Test failed with exception: " + exception.getMessage();
+        StringWriter stack = new StringWriter();
+        exception.printStackTrace(new PrintWriter(stack));
+        LOG.error("❌ " + message);
+        enqueueForTest("error", "msg", message, "stack", stack.toString());
     }
     
     /**
-     * Flush the reports (write to disk)
+     * Flush the reports (write to disk). Pending report events and screenshot writes are
+     * completed first so the report never links to a file that is not there yet.
      */
     public static void flushReports() {
-        if (extent != null) {
-            extent.flush();
-            System.out.println("📊 Reports generated: " + reportPath);
+        if (reportPath != null) {
+            addSystemInfo("Retries", RetryPolicy.getStatsSummary());
+            drain();
+            ScreenshotWriter.flush();
+            ScreenshotStore.saveIndex();
+            LOG.info("📸 " + ScreenshotWriter.getStatsSummary());
+            LOG.info("📸 " + ScreenshotStore.getStatsSummary());
+            render();
+            LOG.info("📝 " + getStatsSummary());
+            LOG.info("📝 " + FrameworkLogger.getStatsSummary());
+            LOG.info("📊 Reports generated: " + reportPath);
+            FrameworkLogger.flush(5000);
         }
     }
     
@@ -240,15 +395,34 @@ public class ExtentReportManager {
         return reportPath;
     }
     
+    /**
+     * Get the journal backing the current report
+     * @return Journal file path, or null if there is none
+     */
+    public static String getJournalPath() {
+        ReportJournal current = journal;
+        return current != null ? current.getFile().toString() : null;
+    }
+    
     /**
      * Close reports and cleanup
      */
-    public static void closeReports() {
-        if (extent != null) {
-            extent.flush();
+    public static synchronized void closeReports() {
+        if (reportPath != null) {
+            drain();
+            ScreenshotWriter.flush();
+            ScreenshotStore.saveIndex();
+            render();
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
             extent = null;
-            test = null;
-            System.out.println("📊 Extent Reports closed");
+            reportPath = null;
+            liveTests.clear();
+            currentTest.remove();
+            LOG.info("📊 Extent Reports closed");
+            FrameworkLogger.flush(5000);
         }
     }
     
@@ -257,9 +431,7 @@ public class ExtentReportManager {
      * @param category Category name
      */
     public static void addCategory(String category) {
-        if (test != null) {
-            test.assignCategory(category);
-        }
+        enqueueForTest("category", "value", category);
     }
     
     /**
@@ -267,9 +439,7 @@ public class ExtentReportManager {
      * @param author Author name
      */
     public static void addAuthor(String author) {
-        if (test != null) {
-            test.assignAuthor(author);
-        }
+        enqueueForTest("author", "value", author);
     }
     
     /**
@@ -277,8 +447,126 @@ public class ExtentReportManager {
      * @param device Device name
      */
     public static void addDevice(String device) {
-        if (test != null) {
-            test.assignDevice(device);
+        enqueueForTest("device", "value", device);
+    }
+    
+    /**
+     * Add or update a system information entry on the report dashboard
+     * @param key Entry name
+     * @param value Entry value
+     */
+    public static void addSystemInfo(String key, String value) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put(key, value);
+        enqueue(ReportJournal.record("run", "info", info));
+    }
+    
+    /**
+     * Get a one-line summary of report event statistics
+     * @return Statistics summary
+     */
+    public static String getStatsSummary() {
+        ReportJournal current = journal;
+        return String.format("Report events: %d recorded, %d pending, max backlog %d, %d journaled, %d renders (%s)",
+                recorded.get(), pending.size(), maxBacklog.get(),
+                current != null ? current.getRecordCount() : 0, renders.get(), LIVE ? "live" : "from journal");
+    }
+    
+    // Report events are recorded by any thread and applied by a single consumer
+    
+    private static void enqueueForTest(String type, Object... fields) {
+        TestHandle handle = currentTest.get();
+        if (handle != null) {
+            Map<String, Object> record = ReportJournal.record(type, fields);
+            record.put("id", handle.id);
+            enqueue(record);
+        }
+    }
+    
+    private static void enqueue(Map<String, Object> record) {
+        pending.offer(record);
+        maxBacklog.accumulateAndGet(recorded.incrementAndGet() - applied.get(), Math::max);
+    }
+    
+    private static void consume() {
+        while (true) {
+            if (pending.isEmpty()) {
+                LockSupport.parkNanos(CONSUMER_IDLE_NANOS);
+            }
+            drain();
+            if (RENDER_INTERVAL_MILLIS > 0 && renderNeeded
+                    && System.currentTimeMillis() - lastRender >= RENDER_INTERVAL_MILLIS) {
+                render();
+                lastRender = System.currentTimeMillis();
+            }
+        }
+    }
+    
+    /**
+     * Apply every pending event, then push the journal to disk. Only one thread drains at
+     * a time, so events reach the journal and each test in the order they were recorded.
+     */
+    private static void drain() {
+        drainLock.lock();
+        try {
+            Map<String, Object> record;
+            boolean wrote = false;
+            while ((record = pending.poll()) != null) {
+                apply(record);
+                applied.incrementAndGet();
+                wrote = true;
+            }
+            ReportJournal current = journal;
+            if (wrote && current != null) {
+                current.flush();
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+    
+    private static void apply(Map<String, Object> record) {
+        ReportJournal current = journal;
+        if (current != null) {
+            current.append(record);
+            renderNeeded = true;
+        }
+        ExtentReports report = extent;
+        if (report != null) {
+            synchronized (modelLock) {
+                try {
+                    ReportJournal.apply(record, liveTests, report);
+                } catch (Exception e) {
+                    LOG.warn("⚠️ Failed to record report event (" + record.get("e") + "): " + e.getMessage());
+                }
+            }
+            renderNeeded = true;
+        }
+    }
+    
+    private static void render() {
+        ExtentReports report = extent;
+        ReportJournal current = journal;
+        String path = reportPath;
+        if (path == null) {
+            return; // Closed meanwhile
+        }
+        if (report != null) {
+            synchronized (modelLock) {
+                report.flush();
+            }
+            renderNeeded = false;
+            renders.incrementAndGet();
+        } else if (current != null) {
+            try {
+                renderNeeded = false;
+                synchronized (modelLock) { // The consumer and flushReports may render at once
+                    ReportRebuilder.render(List.of(current.getFile()), path);
+                }
+                renders.incrementAndGet();
+            } catch (IOException e) {
+                LOG.error("❌ Failed to render report from journal: " + e.getMessage());
+            }
         }
     }
 }
@@ -0,0 +1,134 @@
+package com.example.utils;
+
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+/**
+ * FailureClassifier decides whether a test failure is worth retrying. Transient failures
+ * (timeouts, stale elements, lost browser sessions, network errors, HTTP 5xx) may pass on
+ * a second attempt; everything else, assertion failures in particular, fails the same way
+ * every time and is not retried. A browser that cannot be started at all
+ * (SessionNotCreatedException, usually a driver/browser version mismatch) is deterministic
+ * whatever it wraps, and so is a {@link TestSteps} step that already used its own retries
+ * or a test that used up its time budget ({@link Deadline.ExceededException}).
+ *
+ * The whole cause chain is inspected, so a transient error wrapped in a RuntimeException
+ * is still recognised.
+ *
+ * Configuration (system properties):
+ * - retry.transient   extra exception class names (simple or fully qualified, comma
+ *                     separated) to treat as transient
+ */
+public class FailureClassifier {
+
+    public enum Kind {
+        TRANSIENT, DETERMINISTIC
+    }
+
+    private static final List<Class<? extends Throwable>> TRANSIENT_TYPES = Arrays.asList(
+            TimeoutException.class,
+            StaleElementReferenceException.class,
+            ElementClickInterceptedException.class,
+            NoSuchSessionException.class,
+            UnreachableBrowserException.class,
+            java.util.concurrent.TimeoutException.class,
+            SocketTimeoutException.class,
+            HttpTimeoutException.class,
+            ConnectException.class,
+            SocketException.class,
+            UnknownHostException.class);
+
+    // Failures that never pass on a retry, even when caused by a transient-looking error
+    private static final List<Class<? extends Throwable>> DETERMINISTIC_TYPES = Arrays.asList(
+            SessionNotCreatedException.class,
+            TestSteps.StepFailedException.class,
+            Deadline.ExceededException.class);
+
+    // Messages from WebDriver and HTTP clients that mean "try again". Timeouts must be
+    // phrased as something having timed out, so e.g. "expected timeout of 30" is not one.
+    private static final Pattern TRANSIENT_MESSAGE = Pattern.compile(
+            "\\btimed out (after|waiting|receiving|while)\\b"
+                    + "|\\b(read|connect|connection|operation|request|socket) timed out\\b"
+                    + "|\\btimeout (waiting|exceeded|expired)\\b"
+                    + "|chrome not reachable|disconnected: |connection reset|connection refused"
+                    + "|session deleted|invalid session id|target frame detached|(status|http|code)[ :=]*5\\d\\d\\b");
+
+    private static final List<String> EXTRA_TRANSIENT = parseList(System.getProperty("retry.transient", ""));
+
+    private FailureClassifier() {
+    }
+
+    /**
+     * Classify a failure
+     * @param failure Exception thrown by the test (may be null)
+     * @return TRANSIENT if a retry may succeed, otherwise DETERMINISTIC
+     */
+    public static Kind classify(Throwable failure) {
+        return describeTransient(failure) != null ? Kind.TRANSIENT : Kind.DETERMINISTIC;
+    }
+
+    /**
+     * Name the part of the cause chain that makes a failure transient
+     * @param failure Exception thrown by the test (may be null)
+     * @return Short reason, e.g. "TimeoutException", or null if the failure is deterministic
+     */
+    public static String describeTransient(Throwable failure) {
+        if (failure instanceof AssertionError) {
+            return null; // A failed check fails again; never retry it
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            for (Class<? extends Throwable> type : DETERMINISTIC_TYPES) {
+                if (type.isInstance(cause)) {
+                    return null;
+                }
+            }
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            String name = cause.getClass().getSimpleName();
+            for (Class<? extends Throwable> type : TRANSIENT_TYPES) {
+                if (type.isInstance(cause)) {
+                    return name;
+                }
+            }
+            if (EXTRA_TRANSIENT.contains(name) || EXTRA_TRANSIENT.contains(cause.getClass().getName())) {
+                return name;
+            }
+            String message = cause.getMessage();
+            if (message != null && TRANSIENT_MESSAGE.matcher(firstLine(message).toLowerCase(Locale.ROOT)).find()) {
+                return name + " (" + firstLine(message) + ")";
+            }
+        }
+        return null;
+    }
+
+    private static String firstLine(String message) {
+        int newline = message.indexOf('\n');
+        String line = newline >= 0 ? message.substring(0, newline) : message;
+        return line.length() > 120 ? line.substring(0, 120) + "..." : line;
+    }
+
+    private static List<String> parseList(String value) {
+        if (value.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * FrameworkLogger is the logging facade for pages and utilities. Log calls only copy the
+ * message and the caller's context into a lock-free ring buffer; one background thread
+ * formats and writes the lines, so logging never blocks a test thread. When the buffer
+ * is full, new lines are dropped and counted instead of blocking.
+ *
+ * Per-thread context (MDC) is attached to every line: the current test name is set by
+ * {@link ExtentReportManager#createTest}, and callers can add fields such as the data row
+ * or attempt with {@link #putContext(String, String)}.
+ *
+ * Configuration (system properties):
+ * - log.level          DEBUG, INFO, WARN, ERROR or OFF (default INFO)
+ * - log.level.&lt;Name&gt;   level for one logger, e.g. -Dlog.level.BasePage=DEBUG
+ * - log.format         "text" (human readable) or "json" (one JSON object per line) (default text)
+ * - log.file           write to this file instead of stdout
+ * - log.bufferSize     ring buffer capacity, rounded up to a power of two (default 8192)
+ */
+public class FrameworkLogger {
+
+    /**
+     * Log levels, lowest first; OFF disables a logger
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    private static final Level ROOT_LEVEL = parseLevel(System.getProperty("log.level"), Level.INFO);
+    private static final boolean JSON = "json".equalsIgnoreCase(System.getProperty("log.format", "text"));
+    private static final int CAPACITY = Integer.highestOneBit(Math.max(2, Integer.getInteger("log.bufferSize", 8192) - 1)) << 1;
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    // Multi-producer, single-consumer ring: producers claim a sequence with CAS and
+    // publish by setting the slot; the consumer clears the slot and advances the tail
+    private static final AtomicReferenceArray<Entry> ring = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong head = new AtomicLong();
+    private static volatile long tail = 0;
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+    private static volatile boolean consumerParked = false;
+    private static long cachedSecond = -1;          // consumer thread only
+    private static String cachedSecondText = "";    // consumer thread only
+    private static final Thread consumer = new Thread(FrameworkLogger::consume, "log-writer");
+
+    private static final ThreadLocal<Map<String, String>> context = ThreadLocal.withInitial(LinkedHashMap::new);
+    private static final Map<String, FrameworkLogger> loggers = new ConcurrentHashMap<>();
+    private static final Writer out = openOutput();
+
+    private final String name;
+    private final Level level;
+
+    static {
+        consumer.setDaemon(true);
+        consumer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(2000), "log-flush"));
+    }
+
+    private static class Entry {
+        final long time;
+        final Level level;
+        final String logger;
+        final String thread;
+        final String message;
+        final Map<String, String> context;
+        final Throwable error;
+
+        Entry(Level level, String logger, String message, Map<String, String> context, Throwable error) {
+            this.time = System.currentTimeMillis();
+            this.level = level;
+            this.logger = logger;
+            this.thread = Thread.currentThread().getName();
+            this.message = message;
+            this.context = context;
+            this.error = error;
+        }
+    }
+
+    private FrameworkLogger(String name) {
+        this.name = name;
+        this.level = parseLevel(System.getProperty("log.level." + name), ROOT_LEVEL);
+    }
+
+    /**
+     * Get the logger for a class
+     * @param type Class that logs
+     * @return Logger named after the class
+     */
+    public static FrameworkLogger get(Class<?> type) {
+        return loggers.computeIfAbsent(type.getSimpleName(), FrameworkLogger::new);
+    }
+
+    /**
+     * Check whether DEBUG lines from this logger are written
+     * @return true if DEBUG is enabled
+     */
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    /**
+     * Check whether lines of a level from this logger are written
+     * @param candidate Level to check
+     * @return true if the level is at or above this logger's threshold
+     */
+    public boolean isEnabled(Level candidate) {
+        return candidate != Level.OFF && candidate.compareTo(level) >= 0;
+    }
+
+    /**
+     * Log at DEBUG
+     * @param message Message
+     */
+    public void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    /**
+     * Log at DEBUG, building the message only if DEBUG is enabled
+     * @param message Message supplier
+     */
+    public void debug(Supplier<String> message) {
+        if (isDebugEnabled()) {
+            log(Level.DEBUG, message.get(), null);
+        }
+    }
+
+    /**
+     * Log at INFO
+     * @param message Message
+     */
+    public void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    /**
+     * Log at WARN
+     * @param message Message
+     */
+    public void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    /**
+     * Log at ERROR
+     * @param message Message
+     */
+    public void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    /**
+     * Log at ERROR with the stack trace of an exception
+     * @param message Message
+     * @param error Exception
+     */
+    public void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    /**
+     * Log a message. Never blocks: if the buffer is full the line is dropped and counted.
+     * @param lineLevel Level of the line
+     * @param message Message
+     * @param error Optional exception
+     */
+    public void log(Level lineLevel, String message, Throwable error) {
+        if (!isEnabled(lineLevel)) {
+            return;
+        }
+        Map<String, String> mdc = context.get();
+        Entry entry = new Entry(lineLevel, name, message,
+                mdc.isEmpty() ? Collections.emptyMap() : new LinkedHashMap<>(mdc), error);
+
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+        ring.set((int) (sequence & MASK), entry);
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    // Per-thread context
+
+    /**
+     * Attach a field to every line logged by the calling thread
+     * @param key Field name, e.g. "test", "row", "attempt"
+     * @param value Field value, or null to remove it
+     */
+    public static void putContext(String key, String value) {
+        if (value == null) {
+            context.get().remove(key);
+        } else {
+            context.get().put(key, value);
+        }
+    }
+
+    /**
+     * Stop attaching a field to the calling thread's lines
+     * @param key Field name
+     */
+    public static void removeContext(String key) {
+        context.get().remove(key);
+    }
+
+    /**
+     * Remove every context field of the calling thread, e.g. when a pooled thread
+     * finishes a test
+     */
+    public static void clearContext() {
+        context.remove();
+    }
+
+    /**
+     * Get a copy of the calling thread's context, e.g. to hand it to a worker thread
+     * @return Context fields
+     */
+    public static Map<String, String> getContext() {
+        return new LinkedHashMap<>(context.get());
+    }
+
+    /**
+     * Wait until every line logged before this call has been written out
+     * @param timeoutMillis Maximum time to wait
+     * @return true if everything was written in time
+     */
+    public static boolean flush(long timeoutMillis) {
+        long target = head.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (tail < target) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+        flushOutput(); // Writer methods are synchronized, safe alongside the consumer
+        return true;
+    }
+
+    /**
+     * Get a one-line summary of logger statistics
+     * @return Statistics summary
+     */
+    public static String getStatsSummary() {
+        return String.format("Logger: %d lines written, %d dropped (buffer %d, %s format)",
+                written.get(), dropped.get(), CAPACITY, JSON ? "json" : "text");
+    }
+
+    // Consumer
+
+    private static void consume() {
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            Entry entry = ring.get((int) (tail & MASK));
+            if (entry == null) {
+                if (head.get() > tail) {
+                    Thread.onSpinWait(); // Claimed but not yet published; only takes a moment
+                } else {
+                    flushOutput();
+                    consumerParked = true;
+                    if (head.get() == tail) {
+                        LockSupport.parkNanos(IDLE_NANOS);
+                    }
+                    consumerParked = false;
+                }
+                continue;
+            }
+            ring.set((int) (tail & MASK), null);
+            line.setLength(0);
+            if (JSON) {
+                formatJson(entry, line);
+            } else {
+                formatText(entry, line);
+            }
+            try {
+                out.write(line.append(System.lineSeparator()).toString());
+                written.incrementAndGet();
+            } catch (IOException e) {
+                dropped.incrementAndGet();
+            }
+            tail = tail + 1; // Single writer
+        }
+    }
+
+    private static void formatText(Entry entry, StringBuilder line) {
+        long second = entry.time / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedSecondText = TIME_FORMAT.format(Instant.ofEpochSecond(second));
+        }
+        long millis = entry.time % 1000;
+        line.append(cachedSecondText).append('.')
+                .append(millis < 100 ? (millis < 10 ? "00" : "0") : "").append(millis).append(' ')
+                .append(entry.level).append(entry.level.name().length() == 4 ? "  " : " ")
+                .append('[').append(entry.thread).append("] ")
+                .append(entry.logger).append(" - ")
+                .append(entry.message);
+        if (!entry.context.isEmpty()) {
+            line.append(' ').append(entry.context);
+        }
+        if (entry.error != null) {
+            line.append(System.lineSeparator()).append(stackTrace(entry.error));
+        }
+    }
+
+    private static void formatJson(Entry entry, StringBuilder line) {
+        line.append("{\"ts\":").append(entry.time);
+        appendField(line, "level", entry.level.name());
+        appendField(line, "thread", entry.thread);
+        appendField(line, "logger", entry.logger);
+        appendField(line, "msg", entry.message);
+        for (Map.Entry<String, String> field : entry.context.entrySet()) {
+            appendField(line, field.getKey(), field.getValue());
+        }
+        if (entry.error != null) {
+            appendField(line, "error", stackTrace(entry.error));
+        }
+        line.append('}');
+    }
+
+    private static void appendField(StringBuilder line, String key, String value) {
+        line.append(",\"");
+        escape(line, key);
+        line.append("\":\"");
+        escape(line, value != null ? value : "null");
+        line.append('"');
+    }
+
+    private static void escape(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+    }
+
+    private static String stackTrace(Throwable error) {
+        StringWriter trace = new StringWriter();
+        error.printStackTrace(new PrintWriter(trace));
+        return trace.toString().trim();
+    }
+
+    private static void flushOutput() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            // Nothing sensible to report to
+        }
+    }
+
+    private static Writer openOutput() {
+        String file = System.getProperty("log.file");
+        if (file != null && !file.isEmpty()) {
+            try {
+                Path path = Paths.get(file);
+                Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                return Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.out.println("⚠️ Cannot open log file " + file + ", logging to stdout: " + e.getMessage());
+            }
+        }
+        return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 16384);
+    }
+
+    private static Level parseLevel(String value, Level fallback) {
+        if (value == null || value.isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
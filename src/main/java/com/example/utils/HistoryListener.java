@@ -0,0 +1,190 @@
+package com.example.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+
+/**
+ * HistoryListener records every test outcome in {@link TestHistory} and uses that
+ * history to run the tests most likely to fail first, so a broken build shows up early.
+ *
+ * Ordering: tests are sorted by failure score per second of expected run time, so
+ * likely failures and quick tests come first. Tests without history get a neutral prior
+ * and therefore run early too (we learn about them). The order replaces the static
+ * priority attributes unless ordering is disabled. When a &lt;test&gt; runs methods in
+ * parallel (and fail-fast is off) the order is left to {@link TestScheduler}, which
+ * balances threads by duration instead.
+ *
+ * Sharding: with -Dshard.total set, only this shard's methods and data rows run (see
+ * {@link TestSharder}).
+ *
+ * Fail-fast: after a number of confirmed failures (final failures, not attempts that
+ * were retried) the remaining tests of the suite are skipped.
+ *
+ * Configuration (system properties):
+ * - history.order           order tests by history (default true)
+ * - history.prior           failure score assumed for tests without history (default 0.3)
+ * - failfast.maxFailures    skip the rest of the suite after this many failures, 0 = off (default 0)
+ */
+public class HistoryListener implements IMethodInterceptor, IDataProviderInterceptor, ITestListener,
+        IInvokedMethodListener, ISuiteListener {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(HistoryListener.class);
+    private static final boolean ORDER = Boolean.parseBoolean(System.getProperty("history.order", "true"));
+    private static final double PRIOR = Double.parseDouble(System.getProperty("history.prior", "0.3"));
+    private static final int MAX_FAILURES = Integer.getInteger("failfast.maxFailures", 0);
+    private static final double UNKNOWN_MILLIS = 30_000;
+
+    private static final AtomicInteger confirmedFailures = new AtomicInteger();
+    private static final AtomicBoolean failFastTripped = new AtomicBoolean();
+    private static final Map<String, AtomicInteger> retriesInFlight = new ConcurrentHashMap<>();
+
+    // Ordering
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        methods = TestSharder.filterMethods(methods, context);
+        if (!ORDER || methods.size() < 2) {
+            return methods;
+        }
+        if (MAX_FAILURES == 0) {
+            List<IMethodInstance> balanced = TestScheduler.longestFirst(methods, context);
+            if (balanced != methods) {
+                return balanced;
+            }
+        }
+        TestHistory history = TestHistory.shared();
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        Map<ITestNGMethod, Double> scores = new ConcurrentHashMap<>();
+        for (IMethodInstance instance : ordered) {
+            scores.computeIfAbsent(instance.getMethod(), method -> score(history, method));
+        }
+        // Stable sort: methods with equal scores keep TestNG's order
+        ordered.sort(Comparator.comparingDouble((IMethodInstance m) -> scores.get(m.getMethod())).reversed());
+
+        StringBuilder order = new StringBuilder();
+        for (IMethodInstance instance : ordered) {
+            order.append(order.length() > 0 ? ", " : "").append(instance.getMethod().getMethodName());
+        }
+        LOG.info("📈 " + context.getName() + " ordered by failure history: " + order);
+        return ordered;
+    }
+
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> rows, IDataProviderMethod dataProviderMethod,
+                                        ITestNGMethod method, ITestContext context) {
+        return TestSharder.filterRows(rows, method, context);
+    }
+
+    /**
+     * Score a method: probability that any of its rows fails, per second of run time
+     * @param history Test history
+     * @param method Test method
+     * @return Higher runs earlier
+     */
+    static double score(TestHistory history, ITestNGMethod method) {
+        List<TestHistory.Entry> entries = history.forMethod(method.getQualifiedName());
+        if (entries.isEmpty()) {
+            return PRIOR / (UNKNOWN_MILLIS / 1000.0);
+        }
+        double allPass = 1.0;
+        double millis = 0;
+        for (TestHistory.Entry entry : entries) {
+            allPass *= 1.0 - entry.getFailureScore();
+            millis += entry.getAvgMillis();
+        }
+        return (1.0 - allPass + 0.001) / Math.max(millis / 1000.0, 0.1);
+    }
+
+    // Fail-fast
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() && failFastTripped.get()) {
+            throw new SkipException("Fail-fast: skipped after " + confirmedFailures.get() + " failed tests");
+        }
+    }
+
+    // Recording
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        int retries = takeRetries(result);
+        record(result, retries > 0 ? TestHistory.Outcome.FLAKY : TestHistory.Outcome.PASS, retries);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, TestHistory.Outcome.FAIL, takeRetries(result));
+        int failures = confirmedFailures.incrementAndGet();
+        if (MAX_FAILURES > 0 && failures >= MAX_FAILURES && failFastTripped.compareAndSet(false, true)) {
+            LOG.warn("🛑 Fail-fast: " + failures + " tests failed, skipping the remaining tests");
+        }
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            // A failed attempt that will run again; count it towards the final outcome
+            retriesInFlight.computeIfAbsent(keyOf(result), k -> new AtomicInteger()).incrementAndGet();
+        } else if (!failFastTripped.get()) {
+            record(result, TestHistory.Outcome.SKIP, takeRetries(result));
+        } else {
+            TestSharder.recordRun(result); // Skipped by fail-fast, but this shard did deal with it
+        }
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        TestScheduler.reportMakespan(context);
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        TestSharder.plan(suite);
+        confirmedFailures.set(0);
+        failFastTripped.set(false);
+        retriesInFlight.clear();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        TestHistory history = TestHistory.shared();
+        history.save();
+        LOG.info("📈 Test history: " + history.size() + " tests and rows known, "
+                + confirmedFailures.get() + " failed in " + suite.getName()
+                + (failFastTripped.get() ? " (stopped by fail-fast)" : ""));
+    }
+
+    private void record(ITestResult result, TestHistory.Outcome outcome, int retries) {
+        TestHistory.shared().record(keyOf(result), outcome,
+                Math.max(0, result.getEndMillis() - result.getStartMillis()), retries);
+        TestSharder.recordRun(result);
+    }
+
+    private int takeRetries(ITestResult result) {
+        AtomicInteger retries = retriesInFlight.remove(keyOf(result));
+        return retries != null ? retries.get() : 0;
+    }
+
+    private static String keyOf(ITestResult result) {
+        return TestHistory.keyOf(result.getMethod().getQualifiedName(), result.getParameters());
+    }
+}
@@ -0,0 +1,426 @@
+package com.example.utils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LinkChecker probes many links concurrently on a shared, non-blocking HttpClient.
+ *
+ * - Global and per-host concurrency limits keep us polite to a single server
+ * - Connections are kept alive and reused by the shared client
+ * - HEAD is tried first; servers that reject HEAD are retried with GET
+ * - A time budget bounds the whole check instead of a fixed link count; it never
+ *   outlasts the calling test's {@link Deadline}
+ *
+ * Configuration (system properties):
+ * - links.maxConcurrency   requests in flight overall (default 32)
+ * - links.maxPerHost       requests in flight per host (default 6)
+ * - links.timeoutSeconds   per-request timeout (default 5)
+ * - links.budgetSeconds    wall-clock budget for one page (default 30)
+ *
+ * The HTTP client is shared JVM-wide. Each checkAll() call keeps its own dispatch state,
+ * so requests still in flight from an earlier batch that ran out of time cannot disturb
+ * the next one.
+ */
+public class LinkChecker {
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/119.0 Safari/537.36";
+
+    // One client for the whole JVM so keep-alive connections are shared between checks
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final int maxConcurrency;
+    private final int maxPerHost;
+    private final Duration requestTimeout;
+    private volatile LinkVerdictCache cache;
+
+    /**
+     * Result of checking a single link
+     */
+    public static class Result {
+        private final String url;
+        private final int statusCode;
+        private final String method;
+        private final String finalUrl;
+        private final long elapsedMillis;
+        private final String error;
+        private final boolean cached;
+
+        Result(String url, int statusCode, String method, String finalUrl, long elapsedMillis, String error) {
+            this(url, statusCode, method, finalUrl, elapsedMillis, error, false);
+        }
+
+        Result(String url, int statusCode, String method, String finalUrl, long elapsedMillis, String error,
+               boolean cached) {
+            this.url = url;
+            this.statusCode = statusCode;
+            this.method = method;
+            this.finalUrl = finalUrl;
+            this.elapsedMillis = elapsedMillis;
+            this.error = error;
+            this.cached = cached;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * @return HTTP status code, or -1 if no response was received
+         */
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * @return HTTP method that produced the verdict (HEAD or GET)
+         */
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * @return URL after redirects, or null if the link did not redirect
+         */
+        public String getFinalUrl() {
+            return finalUrl;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * @return Error message if the request failed, otherwise null
+         */
+        public String getError() {
+            return error;
+        }
+
+        public boolean isBroken() {
+            return error != null || statusCode >= 400 || statusCode < 0;
+        }
+
+        /**
+         * @return true if the verdict came from {@link LinkVerdictCache} instead of a live probe
+         */
+        public boolean isCached() {
+            return cached;
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return url + " - " + error;
+            }
+            return url + " (Response Code: " + statusCode + ", "
+                    + (cached ? "cached" : method + ", " + elapsedMillis + "ms") + ")";
+        }
+    }
+
+    /**
+     * Outcome of a {@link #checkAll(Collection, Duration)} call
+     */
+    public static class Report {
+        private final List<Result> results;
+        private final List<String> unchecked;
+        private final long elapsedMillis;
+
+        Report(List<Result> results, List<String> unchecked, long elapsedMillis) {
+            this.results = Collections.unmodifiableList(results);
+            this.unchecked = Collections.unmodifiableList(unchecked);
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<Result> getResults() {
+            return results;
+        }
+
+        /**
+         * @return Links that were not probed because the time budget ran out
+         */
+        public List<String> getUnchecked() {
+            return unchecked;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * @return Number of results answered from the verdict cache
+         */
+        public long getCachedCount() {
+            return results.stream().filter(Result::isCached).count();
+        }
+    }
+
+    // Dispatch state of one checkAll() call, guarded by the batch itself. Callbacks capture
+    // their batch, so a late answer from a batch that ran out of time only touches that batch.
+    private static class Batch {
+        final Map<String, Deque<Probe>> pendingByHost = new LinkedHashMap<>();
+        final Map<String, Integer> activeByHost = new HashMap<>();
+        final long deadline;
+        final long requestMillis;
+        CountDownLatch done;
+        int active;
+        boolean closed; // checkAll() has returned; late callbacks are ignored
+
+        Batch(long deadline, long requestMillis) {
+            this.deadline = deadline;
+            this.requestMillis = requestMillis;
+        }
+    }
+
+    private static class Probe {
+        final String url;
+        final URI uri;
+        final String host;
+        long startedAt;
+        Result result;
+
+        Probe(String url, URI uri) {
+            this.url = url;
+            this.uri = uri;
+            this.host = uri.getHost() != null ? uri.getHost().toLowerCase() : "";
+        }
+    }
+
+    /**
+     * Create a checker with limits taken from system properties
+     */
+    public LinkChecker() {
+        this(Integer.getInteger("links.maxConcurrency", 32),
+             Integer.getInteger("links.maxPerHost", 6),
+             Duration.ofSeconds(Long.getLong("links.timeoutSeconds", 5L)));
+    }
+
+    /**
+     * Create a checker with explicit limits
+     * @param maxConcurrency Maximum requests in flight overall
+     * @param maxPerHost Maximum requests in flight per host
+     * @param requestTimeout Timeout for a single request
+     */
+    public LinkChecker(int maxConcurrency, int maxPerHost, Duration requestTimeout) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxPerHost = Math.max(1, maxPerHost);
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Answer links from a verdict cache when it holds a fresh verdict, and record the
+     * outcome of every live probe into it
+     * @param cache Verdict cache, or null to always probe
+     * @return This checker
+     */
+    public LinkChecker useCache(LinkVerdictCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Get the default time budget for checking one page
+     * @return Budget from links.budgetSeconds
+     */
+    public static Duration defaultBudget() {
+        return Duration.ofSeconds(Long.getLong("links.budgetSeconds", 30L));
+    }
+
+    /**
+     * Check every link concurrently within the given time budget. Duplicate URLs are
+     * checked once. Links that cannot be started before the budget runs out are
+     * reported as unchecked rather than broken.
+     * @param urls Links to check
+     * @param budget Wall-clock budget for the whole batch
+     * @return Report with one result per checked link
+     */
+    public Report checkAll(Collection<String> urls, Duration budget) {
+        long start = System.currentTimeMillis();
+        List<Probe> probes = new ArrayList<>();
+        List<Result> results = new ArrayList<>();
+        LinkVerdictCache cache = this.cache;
+        // The batch, including the grace period for in-flight requests, fits what the test has left
+        long allowed = Deadline.capMillis(budget.toMillis() + requestTimeout.toMillis());
+        long requestMillis = Math.min(requestTimeout.toMillis(), allowed / 2);
+        Batch batch = new Batch(start + allowed - requestMillis, requestMillis);
+
+        synchronized (batch) {
+            for (String url : new LinkedHashSet<>(urls)) {
+                LinkVerdictCache.Verdict verdict = cache != null ? cache.lookupFresh(url) : null;
+                if (verdict != null) {
+                    results.add(new Result(url, verdict.getStatusCode(), "NONE", verdict.getFinalUrl(), 0, null, true));
+                    continue;
+                }
+                try {
+                    Probe probe = new Probe(url, URI.create(url));
+                    probes.add(probe);
+                    batch.pendingByHost.computeIfAbsent(probe.host, h -> new ArrayDeque<>()).add(probe);
+                } catch (IllegalArgumentException e) {
+                    results.add(new Result(url, -1, "NONE", null, 0, "Malformed URL: " + e.getMessage()));
+                }
+            }
+            batch.done = new CountDownLatch(probes.size());
+        }
+        dispatch(batch);
+
+        try {
+            // Give in-flight requests one request timeout past the budget to finish
+            batch.done.await(allowed, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<String> unchecked = new ArrayList<>();
+        synchronized (batch) {
+            batch.closed = true;
+            for (Probe probe : probes) {
+                if (probe.result != null) {
+                    results.add(probe.result);
+                    if (cache != null) {
+                        cache.record(probe.url, probe.result.getStatusCode(), probe.result.getFinalUrl());
+                    }
+                } else {
+                    unchecked.add(probe.url);
+                }
+            }
+            batch.pendingByHost.clear();
+        }
+        if (cache != null) {
+            cache.save();
+        }
+        return new Report(results, unchecked, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Check a single link synchronously
+     * @param url Link to check
+     * @return Result of the check
+     */
+    public Result check(String url) {
+        Report report = checkAll(Collections.singletonList(url), requestTimeout.multipliedBy(2));
+        return report.getResults().isEmpty()
+                ? new Result(url, -1, "NONE", null, 0, "Not checked within budget")
+                : report.getResults().get(0);
+    }
+
+    // Start as many pending probes as the global and per-host limits allow
+    private void dispatch(Batch batch) {
+        List<Probe> toStart = new ArrayList<>();
+        synchronized (batch) {
+            if (batch.closed) {
+                return;
+            }
+            if (System.currentTimeMillis() >= batch.deadline) {
+                // Budget exhausted: leave the rest unchecked and stop waiting for them
+                for (Deque<Probe> pending : batch.pendingByHost.values()) {
+                    for (int i = pending.size(); i > 0; i--) {
+                        batch.done.countDown();
+                    }
+                    pending.clear();
+                }
+                return;
+            }
+            boolean progress = true;
+            while (batch.active < maxConcurrency && progress) {
+                progress = false;
+                for (Map.Entry<String, Deque<Probe>> entry : batch.pendingByHost.entrySet()) {
+                    if (batch.active >= maxConcurrency) {
+                        break;
+                    }
+                    int hostActive = batch.activeByHost.getOrDefault(entry.getKey(), 0);
+                    Probe probe = hostActive < maxPerHost ? entry.getValue().poll() : null;
+                    if (probe != null) {
+                        probe.startedAt = System.currentTimeMillis();
+                        batch.activeByHost.put(entry.getKey(), hostActive + 1);
+                        batch.active++;
+                        toStart.add(probe);
+                        progress = true;
+                    }
+                }
+            }
+        }
+        for (Probe probe : toStart) {
+            send(batch, probe, "HEAD").whenComplete((result, error) -> {
+                synchronized (batch) {
+                    if (batch.closed) {
+                        return; // Reported as unchecked already
+                    }
+                    probe.result = result;
+                    batch.active--;
+                    batch.activeByHost.merge(probe.host, -1, Integer::sum);
+                    batch.done.countDown();
+                }
+                dispatch(batch);
+            });
+        }
+    }
+
+    private CompletableFuture<Result> send(Batch batch, Probe probe, String method) {
+        long remaining = Math.max(1, batch.deadline + batch.requestMillis - System.currentTimeMillis());
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(probe.uri)
+                    .method(method, HttpRequest.BodyPublishers.noBody())
+                    .timeout(Duration.ofMillis(Math.min(batch.requestMillis, remaining)))
+                    .header("User-Agent", USER_AGENT);
+            if ("GET".equals(method)) {
+                builder.header("Range", "bytes=0-0"); // One byte is enough to know the link works
+            }
+            request = builder.build();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(
+                    new Result(probe.url, -1, method, null, 0, "Invalid request: " + e.getMessage()));
+        }
+
+        // Close the body as soon as the headers arrive, for servers that ignore Range
+        return CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenCompose(response -> {
+                    try {
+                        response.body().close();
+                    } catch (IOException ignored) {
+                        // Connection is dropped either way
+                    }
+                    int status = response.statusCode();
+                    if ("HEAD".equals(method) && rejectsHead(status)) {
+                        return send(batch, probe, "GET");
+                    }
+                    if ("GET".equals(method) && status == 416) {
+                        status = 200; // Range not satisfiable: the resource exists but is empty
+                    }
+                    String finalUrl = response.uri().toString().equals(probe.url) ? null : response.uri().toString();
+                    return CompletableFuture.completedFuture(new Result(probe.url, status, method, finalUrl,
+                            System.currentTimeMillis() - probe.startedAt, null));
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    return new Result(probe.url, -1, method, null,
+                            System.currentTimeMillis() - probe.startedAt,
+                            cause.getClass().getSimpleName() + ": " + cause.getMessage());
+                });
+    }
+
+    // Many servers answer HEAD with 403/405/501 while GET works; 404 and 410 are real
+    private static boolean rejectsHead(int status) {
+        return status >= 400 && status != 404 && status != 410;
+    }
+}
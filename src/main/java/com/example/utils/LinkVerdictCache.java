@@ -0,0 +1,249 @@
+package com.example.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LinkVerdictCache remembers link-check verdicts on disk so repeat runs only re-probe
+ * links that are stale or were failing last time.
+ *
+ * Entries are keyed by normalized URL and hold the status code, redirect target and
+ * check time. The file is rewritten atomically under a file lock, so parallel threads
+ * and forked JVMs can share it; concurrent saves are merged, newest verdict wins.
+ *
+ * Configuration (system properties):
+ * - links.cache.file           cache location (default .cache/link-verdicts.tsv)
+ * - links.cache.goodTtlHours   how long a working link is trusted (default 24)
+ * - links.cache.badTtlMinutes  how long a broken link is trusted (default 0, always re-probe)
+ */
+public class LinkVerdictCache {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(LinkVerdictCache.class);
+    private static final String DEFAULT_FILE = ".cache/link-verdicts.tsv";
+    private static volatile LinkVerdictCache shared;
+
+    private final Path file;
+    private final Duration goodTtl;
+    private final Duration badTtl;
+    private final Map<String, Verdict> verdicts = new ConcurrentHashMap<>();
+    private final Map<String, Verdict> dirty = new ConcurrentHashMap<>();
+
+    /**
+     * A cached link-check outcome
+     */
+    public static class Verdict {
+        private final int statusCode;
+        private final String finalUrl;
+        private final long checkedAt;
+
+        Verdict(int statusCode, String finalUrl, long checkedAt) {
+            this.statusCode = statusCode;
+            this.finalUrl = finalUrl;
+            this.checkedAt = checkedAt;
+        }
+
+        /**
+         * @return HTTP status code, or -1 if the link could not be reached
+         */
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * @return Redirect target, or null if the link did not redirect
+         */
+        public String getFinalUrl() {
+            return finalUrl;
+        }
+
+        /**
+         * @return Time of the check in epoch milliseconds
+         */
+        public long getCheckedAt() {
+            return checkedAt;
+        }
+
+        public boolean isGood() {
+            return statusCode > 0 && statusCode < 400;
+        }
+    }
+
+    /**
+     * Create a cache backed by the given file
+     * @param file Cache file (created on first save)
+     * @param goodTtl How long a working verdict stays fresh
+     * @param badTtl How long a broken verdict stays fresh
+     */
+    public LinkVerdictCache(Path file, Duration goodTtl, Duration badTtl) {
+        this.file = file;
+        this.goodTtl = goodTtl;
+        this.badTtl = badTtl;
+        verdicts.putAll(readFile());
+    }
+
+    /**
+     * Get the JVM-wide cache configured from system properties
+     * @return Shared cache instance
+     */
+    public static LinkVerdictCache shared() {
+        if (shared == null) {
+            synchronized (LinkVerdictCache.class) {
+                if (shared == null) {
+                    shared = new LinkVerdictCache(
+                            Paths.get(System.getProperty("links.cache.file", DEFAULT_FILE)),
+                            Duration.ofHours(Long.getLong("links.cache.goodTtlHours", 24L)),
+                            Duration.ofMinutes(Long.getLong("links.cache.badTtlMinutes", 0L)));
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Look up a verdict that is still within its TTL
+     * @param url Link URL
+     * @return Fresh verdict, or null if the link must be re-probed
+     */
+    public Verdict lookupFresh(String url) {
+        Verdict verdict = verdicts.get(normalize(url));
+        if (verdict == null) {
+            return null;
+        }
+        Duration ttl = verdict.isGood() ? goodTtl : badTtl;
+        return System.currentTimeMillis() - verdict.getCheckedAt() < ttl.toMillis() ? verdict : null;
+    }
+
+    /**
+     * Record the outcome of a check
+     * @param url Link URL
+     * @param statusCode HTTP status code, or -1 if unreachable
+     * @param finalUrl Redirect target, or null
+     */
+    public void record(String url, int statusCode, String finalUrl) {
+        String key = normalize(url);
+        Verdict verdict = new Verdict(statusCode, finalUrl, System.currentTimeMillis());
+        verdicts.put(key, verdict);
+        dirty.put(key, verdict);
+    }
+
+    /**
+     * Merge recorded verdicts into the cache file. Safe to call from several threads
+     * or processes at once.
+     */
+    public void save() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path lockFile = parent.resolve(file.getFileName() + ".lock");
+
+            synchronized (this) {
+                try (FileChannel channel = FileChannel.open(lockFile,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    channel.lock(); // Released when the channel closes
+
+                    // Verdicts recorded while this save runs stay dirty for the next one
+                    Map<String, Verdict> written = new HashMap<>(dirty);
+
+                    // Re-read under the lock so verdicts saved by other workers are kept
+                    Map<String, Verdict> merged = readFile();
+                    for (Map.Entry<String, Verdict> entry : written.entrySet()) {
+                        merged.merge(entry.getKey(), entry.getValue(), LinkVerdictCache::newer);
+                    }
+
+                    Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+                    try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                        for (Map.Entry<String, Verdict> entry : merged.entrySet()) {
+                            Verdict v = entry.getValue();
+                            writer.write(entry.getKey() + "\t" + v.getStatusCode() + "\t"
+                                    + (v.getFinalUrl() != null ? v.getFinalUrl() : "-") + "\t" + v.getCheckedAt());
+                            writer.newLine();
+                        }
+                    }
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                    for (Map.Entry<String, Verdict> entry : merged.entrySet()) {
+                        verdicts.merge(entry.getKey(), entry.getValue(), LinkVerdictCache::newer);
+                    }
+                    written.forEach(dirty::remove);
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not save link verdict cache: " + e.getMessage());
+        }
+    }
+
+    private static Verdict newer(Verdict a, Verdict b) {
+        return b.getCheckedAt() >= a.getCheckedAt() ? b : a;
+    }
+
+    /**
+     * Get the number of verdicts currently known
+     * @return Cache size
+     */
+    public int size() {
+        return verdicts.size();
+    }
+
+    /**
+     * Normalize a URL for use as a cache key: lower-case scheme and host, no default
+     * port, no fragment and "/" for an empty path
+     * @param url URL to normalize
+     * @return Normalized URL, or the input unchanged if it cannot be parsed
+     */
+    public static String normalize(String url) {
+        try {
+            URI uri = URI.create(url.trim());
+            String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : "http";
+            String host = uri.getHost() != null ? uri.getHost().toLowerCase() : "";
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                    || ("http".equals(scheme) && port == 80)
+                    || ("https".equals(scheme) && port == 443);
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            String query = uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "";
+            return scheme + "://" + host + (defaultPort ? "" : ":" + port) + path + query;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private Map<String, Verdict> readFile() {
+        Map<String, Verdict> loaded = new ConcurrentHashMap<>();
+        if (!Files.exists(file)) {
+            return loaded;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length != 4) {
+                    continue; // Skip damaged lines rather than failing the run
+                }
+                try {
+                    loaded.put(parts[0], new Verdict(Integer.parseInt(parts[1]),
+                            "-".equals(parts[2]) ? null : parts[2], Long.parseLong(parts[3])));
+                } catch (NumberFormatException ignored) {
+                    // Skip damaged line
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not read link verdict cache: " + e.getMessage());
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.model.Log;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.openqa.selenium.json.JsonOutput;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReportJournal is an append-only JSON-lines log of report events. Every event is on
+ * disk as soon as the batch it belongs to has been written, so a crashed or killed run
+ * still leaves everything needed to rebuild the HTML report (see {@link ReportRebuilder}).
+ *
+ * Record types ("e" field), all with "t" (epoch ms):
+ * - run       system information: "info" map
+ * - test      a new test node: "id", "name", "desc"
+ * - log       a log entry: "id", "status", "msg"
+ * - shot      a screenshot: "id", "status", "msg", "path" (relative to reports/)
+ * - error     an exception: "id", "msg", "stack"
+ * - category / author / device: "id", "value"
+ *
+ * The same {@link #apply} is used for the live report and for rebuilding it, so both
+ * always render the same content.
+ */
+public class ReportJournal implements AutoCloseable {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(ReportJournal.class);
+    private static final Json JSON = new Json();
+
+    private final Path file;
+    private final BufferedWriter writer;
+    private long records = 0;
+
+    /**
+     * Open a journal for appending, creating it if needed
+     * @param file Journal file
+     * @throws IOException if the file cannot be opened
+     */
+    public ReportJournal(Path file) throws IOException {
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Append one record. Records are buffered until {@link #flush()}.
+     * @param record Record fields
+     */
+    public synchronized void append(Map<String, Object> record) {
+        try {
+            // One record per line: the encoder escapes newlines inside strings
+            StringBuilder line = new StringBuilder();
+            try (JsonOutput out = JSON.newOutput(line)) {
+                out.setPrettyPrint(false).write(record);
+            }
+            writer.write(line.toString());
+            writer.newLine();
+            records++;
+        } catch (IOException e) {
+            LOG.error("❌ Failed to write report journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Push buffered records to the file
+     */
+    public synchronized void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            LOG.error("❌ Failed to flush report journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the journal file
+     * @return Journal path
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the number of records appended by this instance
+     * @return Record count
+     */
+    public synchronized long getRecordCount() {
+        return records;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOG.error("❌ Failed to close report journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Build a record
+     * @param type Record type
+     * @param fields Alternating field names and values
+     * @return Record map
+     */
+    public static Map<String, Object> record(String type, Object... fields) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("t", System.currentTimeMillis());
+        record.put("e", type);
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            if (fields[i + 1] != null) {
+                record.put((String) fields[i], fields[i + 1]);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Stream a journal into a report model, one line at a time. A truncated last line
+     * (from a crash mid-write) is skipped.
+     * @param journal Journal file
+     * @param extent Report to populate
+     * @return Number of records applied
+     * @throws IOException if the journal cannot be read
+     */
+    public static long replay(Path journal, ExtentReports extent) throws IOException {
+        return replay(journal, extent, null);
+    }
+
+    /**
+     * Stream a journal into a report model, collecting system information instead of
+     * applying it, so the caller can combine it across journals
+     * @param journal Journal file
+     * @param extent Report to populate
+     * @param systemInfo Receives system information (latest value per key), or null to apply it
+     * @return Number of records applied
+     * @throws IOException if the journal cannot be read
+     */
+    public static long replay(Path journal, ExtentReports extent, Map<String, String> systemInfo) throws IOException {
+        Map<Integer, ExtentTest> tests = new HashMap<>();
+        long applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    Map<String, Object> record = JSON.toType(line, Json.MAP_TYPE);
+                    if (systemInfo != null && "run".equals(record.get("e")) && record.get("info") instanceof Map) {
+                        ((Map<?, ?>) record.get("info")).forEach((k, v) -> systemInfo.put(String.valueOf(k), String.valueOf(v)));
+                    } else {
+                        apply(record, tests, extent);
+                    }
+                    applied++;
+                } catch (JsonException | ClassCastException | NullPointerException | IllegalArgumentException e) {
+                    LOG.warn("⚠️ Skipping damaged journal line in " + journal.getFileName());
+                }
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Apply one record to a report model
+     * @param record Journal record
+     * @param tests Test nodes created so far, by journal id
+     * @param extent Report model
+     */
+    static void apply(Map<String, Object> record, Map<Integer, ExtentTest> tests, ExtentReports extent) {
+        String type = (String) record.get("e");
+        Date time = new Date(((Number) record.get("t")).longValue());
+
+        if ("run".equals(type)) {
+            Object info = record.get("info");
+            if (info instanceof Map) {
+                ((Map<?, ?>) info).forEach((k, v) -> extent.setSystemInfo(String.valueOf(k), String.valueOf(v)));
+            }
+            return;
+        }
+
+        int id = ((Number) record.get("id")).intValue();
+        if ("test".equals(type)) {
+            tests.computeIfAbsent(id, key -> {
+                String desc = (String) record.get("desc");
+                ExtentTest created = desc != null
+                        ? extent.createTest((String) record.get("name"), desc)
+                        : extent.createTest((String) record.get("name"));
+                created.getModel().setStartTime(time);
+                created.getModel().setEndTime(time);
+                return created;
+            });
+            return;
+        }
+
+        ExtentTest test = tests.get(id);
+        if (test == null) {
+            return; // Test record was lost; nothing to attach to
+        }
+        String message = (String) record.get("msg");
+        switch (type) {
+            case "log":
+                test.log(Status.valueOf((String) record.get("status")), message);
+                stampLastLog(test, time);
+                break;
+            case "shot":
+                Status status = Status.valueOf((String) record.get("status"));
+                String path = (String) record.get("path");
+                if (status == Status.INFO) {
+                    test.addScreenCaptureFromPath(path, message);
+                    test.log(Status.INFO, "Screenshot attached: " + message);
+                } else {
+                    test.log(status, message).addScreenCaptureFromPath(path);
+                }
+                stampLastLog(test, time);
+                break;
+            case "error":
+                test.log(Status.FAIL, message);
+                test.log(Status.FAIL, MarkupHelper.createCodeBlock((String) record.get("stack")));
+                stampLastLog(test, time);
+                break;
+            case "category":
+                test.assignCategory((String) record.get("value"));
+                break;
+            case "author":
+                test.assignAuthor((String) record.get("value"));
+                break;
+            case "device":
+                test.assignDevice((String) record.get("value"));
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Logs get the time the event happened, not the time it was applied
+    private static void stampLastLog(ExtentTest test, Date time) {
+        List<Log> logs = test.getModel().getLogs();
+        if (!logs.isEmpty()) {
+            logs.get(logs.size() - 1).setTimestamp(time);
+        }
+        if (test.getModel().getEndTime() == null || test.getModel().getEndTime().before(time)) {
+            test.getModel().setEndTime(time);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.Status;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ReportRebuilder renders an Extent HTML report from report journals alone, e.g. after a
+ * run was killed before it could flush, or to render a run recorded with
+ * -Dreport.render=end.
+ *
+ * Usage:
+ *   mvn -q exec:java -Dexec.mainClass=com.example.utils.ReportRebuilder \
+ *       -Dexec.args="reports/RebuiltReport.html reports/journal"
+ *
+ * Arguments: output HTML file, then one or more journal files or directories (every
+ * *.jsonl in a directory is included, in name order).
+ */
+public class ReportRebuilder {
+
+    private ReportRebuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ReportRebuilder <output.html> <journal.jsonl|journal dir>...");
+            System.exit(2);
+        }
+        List<Path> journals = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            journals.addAll(expand(Paths.get(args[i])));
+        }
+        if (journals.isEmpty()) {
+            System.out.println("❌ No journals found");
+            System.exit(1);
+        }
+        render(journals, args[0]);
+    }
+
+    /**
+     * Render journals into one HTML report. Test ids are scoped to each journal, so
+     * journals from separate JVMs can be combined.
+     * @param journals Journal files
+     * @param outputPath HTML report to write
+     * @return Number of records applied
+     * @throws IOException if a journal cannot be read
+     */
+    public static long render(List<Path> journals, String outputPath) throws IOException {
+        ExtentReports extent = ExtentReportManager.newReport(outputPath);
+        long applied = 0;
+        // System information is shown once per key: the latest value of each journal,
+        // with differing values from several journals (e.g. shards) listed together
+        Map<String, Set<String>> systemInfo = new LinkedHashMap<>();
+        for (Path journal : journals) {
+            Map<String, String> journalInfo = new LinkedHashMap<>();
+            applied += ReportJournal.replay(journal, extent, journalInfo);
+            journalInfo.forEach((key, value) -> systemInfo.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(value));
+        }
+        systemInfo.forEach((key, values) -> extent.setSystemInfo(key, String.join(" | ", values)));
+        extent.flush();
+        Map<Status, Long> totals = extent.getStats().getParent();
+        System.out.println("📊 Report rebuilt from " + journals.size() + " journal(s), "
+                + applied + " records: " + outputPath);
+        System.out.println("📊 Tests: " + totals.values().stream().mapToLong(Long::longValue).sum()
+                + " (" + totals.getOrDefault(Status.PASS, 0L) + " passed, " + totals.getOrDefault(Status.FAIL, 0L)
+                + " failed, " + totals.getOrDefault(Status.SKIP, 0L) + " skipped)");
+        checkShards(systemInfo.get("Shard"));
+        return applied;
+    }
+
+    // Journals of a sharded run carry "Shard: i/N"; warn if the combined report is missing some
+    private static void checkShards(Set<String> shards) {
+        if (shards == null || shards.isEmpty()) {
+            return;
+        }
+        String first = shards.iterator().next();
+        int total = Integer.parseInt(first.substring(first.indexOf('/') + 1));
+        if (shards.size() < total) {
+            System.out.println("⚠️ Only " + shards.size() + " of " + total + " shards in the report: " + shards);
+        }
+    }
+
+    private static List<Path> expand(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return Files.exists(path) ? List.of(path) : List.of();
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".jsonl"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
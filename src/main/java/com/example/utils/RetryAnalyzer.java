@@ -1,16 +1,17 @@
 package com.example.utils;
 
+import com.aventstack.extentreports.Status;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 
 /**
  * RetryAnalyzer implements IRetryAnalyzer to handle flaky tests
- * by automatically retrying failed test cases up to a maximum number of attempts.
+ * by retrying failures that look transient (timeouts, stale elements, lost sessions,
+ * HTTP 5xx). Deterministic failures such as assertion errors are not retried.
+ * The decision, backoff and suite-wide retry budget are shared in {@link RetryPolicy}.
  */
 public class RetryAnalyzer implements IRetryAnalyzer {
-    
-    private int retryCount = 0;
-    private static final int MAX_RETRY_COUNT = 2; // Maximum number of retries
+    private static final FrameworkLogger LOG = FrameworkLogger.get(RetryAnalyzer.class);
     
     /**
      * Determines whether a test should be retried based on the test result
@@ -20,46 +21,35 @@ public class RetryAnalyzer implements IRetryAnalyzer {
      */
     @Override
     public boolean retry(ITestResult result) {
-        // Only retry if the test failed and we haven't exceeded max retry count
-        if (!result.isSuccess() && retryCount < MAX_RETRY_COUNT) {
-            retryCount++;
-            
+        RetryPolicy.Decision decision = RetryPolicy.decide(result);
+        
+        if (decision.isRetry()) {
             // Log the retry attempt
-            System.out.println("Retrying test: " + result.getMethod().getMethodName() 
-                             + " | Attempt: " + retryCount + "/" + MAX_RETRY_COUNT);
+            LOG.warn("Retrying test: " + result.getMethod().getMethodName()
+                   + " | Attempt: " + decision.getAttempt() + "/" + RetryPolicy.getMaxRetries()
+                   + " | " + decision.getReason());
             
-            // Take screenshot for failed attempt if ExtentReportManager is available
             try {
-                if (ExtentReportManager.getTest() != null) {
-                    ExtentReportManager.getTest().info("Test failed - Retry attempt " + retryCount);
-                }
+                ExtentReportManager.log(Status.INFO, "Test failed - Retry attempt " + decision.getAttempt()
+                        + " (" + decision.getReason() + ")");
             } catch (Exception e) {
-                System.out.println("Could not log retry attempt to Extent Report: " + e.getMessage());
+                LOG.warn("Could not log retry attempt to Extent Report: " + e.getMessage());
             }
-            
             return true; // Retry the test
         }
         
-        // Reset retry count for next test
-        retryCount = 0;
+        if (!result.isSuccess()) {
+            LOG.info("Not retrying test: " + result.getMethod().getMethodName() + " | " + decision.getReason());
+        }
         return false; // Don't retry
     }
     
-    /**
-     * Gets the current retry count
-     * 
-     * @return Current retry count
-     */
-    public int getRetryCount() {
-        return retryCount;
-    }
-    
     /**
      * Gets the maximum retry count
      * 
      * @return Maximum retry count
      */
     public static int getMaxRetryCount() {
-        return MAX_RETRY_COUNT;
+        return RetryPolicy.getMaxRetries();
     }
 }
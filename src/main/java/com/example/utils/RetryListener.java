@@ -1,15 +1,24 @@
 package com.example.utils;
 
 import org.testng.IAnnotationTransformer;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
 import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 
 /**
  * RetryListener implements IAnnotationTransformer to automatically apply
  * RetryAnalyzer to all test methods without manually adding it to each @Test annotation.
+ * As a suite listener it also starts each suite with a fresh retry budget and logs how
+ * much time went to retries when the suite finishes; as a test listener it forgets the
+ * retries of a test that passed after being retried.
  */
-public class RetryListener implements IAnnotationTransformer {
+public class RetryListener implements IAnnotationTransformer, ISuiteListener, ITestListener {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(RetryListener.class);
     
     /**
      * Transforms test annotations to automatically add RetryAnalyzer
@@ -23,9 +32,25 @@ public class RetryListener implements IAnnotationTransformer {
     public void transform(ITestAnnotation annotation, Class testClass, 
                          Constructor testConstructor, Method testMethod) {
         
-        // Apply RetryAnalyzer to all test methods
-        if (annotation.getRetryAnalyzer() == null) {
+        // Apply RetryAnalyzer to all test methods (TestNG marks "none" with DisabledRetryAnalyzer)
+        Class<?> current = annotation.getRetryAnalyzerClass();
+        if (current == null || current == DisabledRetryAnalyzer.class) {
             annotation.setRetryAnalyzer(RetryAnalyzer.class);
         }
     }
+    
+    @Override
+    public void onStart(ISuite suite) {
+        RetryPolicy.reset();
+    }
+    
+    @Override
+    public void onFinish(ISuite suite) {
+        LOG.info("🔄 " + suite.getName() + " - " + RetryPolicy.getStatsSummary());
+    }
+    
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        RetryPolicy.clearAttempts(result);
+    }
 }
@@ -0,0 +1,271 @@
+package com.example.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.ITestResult;
+
+/**
+ * RetryPolicy is the shared retry decision for {@link RetryAnalyzer} and
+ * {@link RetryTransformer}, and the budget and backoff behind step retries in
+ * {@link TestSteps}:
+ *
+ * - Only failures classified as transient by {@link FailureClassifier} are retried
+ * - Each test invocation (method + data row) gets at most retry.max retries; attempts
+ *   are counted per invocation, so rows running in parallel don't share a counter
+ * - All retries in a suite run draw from one budget (retry.budget), so a broken
+ *   environment can't double the run time; {@link RetryListener} resets it per suite
+ * - Before a retry the test thread waits an exponentially growing, jittered backoff
+ *
+ * Time spent on retries (the failed attempts that were retried plus backoff waits) is
+ * recorded and reported by {@link #getStatsSummary()}.
+ *
+ * Configuration (system properties):
+ * - retry.max            retries per test invocation (default 2)
+ * - retry.budget         retries per suite run, -1 = unlimited (default 10)
+ * - retry.backoffMs      backoff before the first retry (default 500)
+ * - retry.maxBackoffMs   cap on a single backoff (default 8000)
+ */
+public class RetryPolicy {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(RetryPolicy.class);
+    private static final int MAX_RETRIES = Integer.getInteger("retry.max", 2);
+    private static final int BUDGET = Integer.getInteger("retry.budget", 10);
+    private static final long BACKOFF_MS = Long.getLong("retry.backoffMs", 500L);
+    private static final long MAX_BACKOFF_MS = Long.getLong("retry.maxBackoffMs", 8000L);
+
+    /** {@link #retryStep} result: the suite retry budget is used up */
+    public static final long NO_BUDGET = -1;
+    /** {@link #retryStep} result: the step has no time left for the backoff */
+    public static final long NO_TIME = -2;
+
+    private static final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+    private static final AtomicInteger budgetUsed = new AtomicInteger();
+    private static final AtomicInteger retried = new AtomicInteger();
+    private static final AtomicInteger skippedDeterministic = new AtomicInteger();
+    private static final AtomicInteger skippedBudget = new AtomicInteger();
+    private static final AtomicInteger exhausted = new AtomicInteger();
+    private static final AtomicLong retriedAttemptMillis = new AtomicLong();
+    private static final AtomicLong backoffMillis = new AtomicLong();
+
+    /**
+     * Outcome of a retry decision
+     */
+    public static class Decision {
+        private final boolean retry;
+        private final int attempt;
+        private final long backoffMillis;
+        private final String reason;
+
+        Decision(boolean retry, int attempt, long backoffMillis, String reason) {
+            this.retry = retry;
+            this.attempt = attempt;
+            this.backoffMillis = backoffMillis;
+            this.reason = reason;
+        }
+
+        public boolean isRetry() {
+            return retry;
+        }
+
+        /**
+         * @return Retry number (1-based) if retrying, otherwise retries already used
+         */
+        public int getAttempt() {
+            return attempt;
+        }
+
+        public long getBackoffMillis() {
+            return backoffMillis;
+        }
+
+        /**
+         * @return Why the test is or isn't retried, for logs and the report
+         */
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    private RetryPolicy() {
+    }
+
+    /**
+     * Decide whether a failed result should be retried, and if so wait out the backoff
+     * on the calling (test) thread before returning
+     * @param result Failed test result
+     * @return Decision
+     */
+    public static Decision decide(ITestResult result) {
+        String key = keyOf(result);
+        if (result.isSuccess()) {
+            attempts.remove(key);
+            return new Decision(false, 0, 0, "passed");
+        }
+
+        int used = attempts.getOrDefault(key, 0);
+        String transientCause = FailureClassifier.describeTransient(result.getThrowable());
+        if (transientCause == null) {
+            attempts.remove(key);
+            skippedDeterministic.incrementAndGet();
+            return new Decision(false, used, 0, "deterministic failure: " + describe(result.getThrowable()));
+        }
+        if (used >= MAX_RETRIES) {
+            attempts.remove(key);
+            exhausted.incrementAndGet();
+            return new Decision(false, used, 0, "retries exhausted (" + MAX_RETRIES + "), last failure: " + transientCause);
+        }
+        if (!takeFromBudget()) {
+            attempts.remove(key);
+            skippedBudget.incrementAndGet();
+            return new Decision(false, used, 0, "suite retry budget of " + BUDGET + " used up");
+        }
+
+        int attempt = used + 1;
+        attempts.put(key, attempt);
+        retried.incrementAndGet();
+        if (result.getEndMillis() >= result.getStartMillis()) {
+            retriedAttemptMillis.addAndGet(result.getEndMillis() - result.getStartMillis());
+        }
+        long backoff = backoffFor(attempt);
+        sleep(backoff);
+        return new Decision(true, attempt, backoff,
+                "transient failure: " + transientCause + ", retry " + attempt + "/" + MAX_RETRIES + " after " + backoff + " ms");
+    }
+
+    /**
+     * Retry a step inside a test (see {@link TestSteps}): plan the backoff, and only if the
+     * step has time left for it take one retry from the suite budget and wait it out
+     * @param attempt Retry number of the step (1-based)
+     * @param failedMillis Duration of the failed step attempt
+     * @param remainingMillis Time left in the step's budget
+     * @return Backoff waited in milliseconds, {@link #NO_TIME} if the backoff would use up
+     *         the step's time (nothing taken, no wait), or {@link #NO_BUDGET} if the suite
+     *         budget is used up
+     */
+    public static long retryStep(int attempt, long failedMillis, long remainingMillis) {
+        long backoff = backoffFor(attempt);
+        if (backoff >= remainingMillis) {
+            return NO_TIME;
+        }
+        if (!takeFromBudget()) {
+            skippedBudget.incrementAndGet();
+            return NO_BUDGET;
+        }
+        retried.incrementAndGet();
+        retriedAttemptMillis.addAndGet(Math.max(0, failedMillis));
+        sleep(backoff);
+        return backoff;
+    }
+
+    /**
+     * Forget the retries used by a test invocation once it has passed, so the key does
+     * not outlive it (see {@link RetryListener})
+     * @param result Passed test result
+     */
+    public static void clearAttempts(ITestResult result) {
+        attempts.remove(keyOf(result));
+    }
+
+    /**
+     * Reset the suite budget and counters, e.g. at the start of a suite
+     */
+    public static void reset() {
+        attempts.clear();
+        budgetUsed.set(0);
+        retried.set(0);
+        skippedDeterministic.set(0);
+        skippedBudget.set(0);
+        exhausted.set(0);
+        retriedAttemptMillis.set(0);
+        backoffMillis.set(0);
+    }
+
+    public static int getMaxRetries() {
+        return MAX_RETRIES;
+    }
+
+    /**
+     * Get total time spent on retries: failed attempts that were retried plus backoff
+     * @return Milliseconds
+     */
+    public static long getRetryMillis() {
+        return retriedAttemptMillis.get() + backoffMillis.get();
+    }
+
+    /**
+     * Get a one-line summary of retry statistics
+     * @return Statistics summary
+     */
+    public static String getStatsSummary() {
+        return String.format("Retries: %d retried (budget %s), %d not retried as deterministic, %d exhausted, "
+                        + "%d refused by budget, %d ms spent on retries (%d ms backoff)",
+                retried.get(), BUDGET < 0 ? "unlimited" : budgetUsed.get() + "/" + BUDGET,
+                skippedDeterministic.get(), exhausted.get(), skippedBudget.get(),
+                getRetryMillis(), backoffMillis.get());
+    }
+
+    // Package-private for unit tests
+    static int getBudget() {
+        return BUDGET;
+    }
+
+    static boolean takeFromBudget() {
+        if (BUDGET < 0) {
+            budgetUsed.incrementAndGet();
+            return true;
+        }
+        int used;
+        do {
+            used = budgetUsed.get();
+            if (used >= BUDGET) {
+                return false;
+            }
+        } while (!budgetUsed.compareAndSet(used, used + 1));
+        return true;
+    }
+
+    private static long backoffFor(int attempt) {
+        return backoffFor(attempt, BACKOFF_MS, MAX_BACKOFF_MS);
+    }
+
+    // "Equal jitter": half the exponential delay is fixed, the other half random, so
+    // rows that failed together don't all come back at the same moment
+    static long backoffFor(int attempt, long baseMillis, long maxMillis) {
+        long exponential = Math.min(maxMillis, baseMillis << Math.min(Math.max(attempt - 1, 0), 20));
+        long half = exponential / 2;
+        return half + (half > 0 ? ThreadLocalRandom.current().nextLong(half + 1) : 0);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Retry backoff interrupted: " + e.getMessage());
+        }
+        backoffMillis.addAndGet(System.currentTimeMillis() - start);
+    }
+
+    private static String keyOf(ITestResult result) {
+        return result.getMethod().getQualifiedName() + Arrays.deepToString(result.getParameters())
+                + "@" + System.identityHashCode(result.getInstance());
+    }
+
+    private static String describe(Throwable failure) {
+        if (failure == null) {
+            return "no exception";
+        }
+        String message = failure.getMessage();
+        if (message != null && message.length() > 120) {
+            message = message.substring(0, 120) + "...";
+        }
+        return failure.getClass().getSimpleName() + (message != null ? ": " + message : "");
+    }
+}
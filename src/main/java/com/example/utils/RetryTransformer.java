@@ -1,18 +1,18 @@
 package com.example.utils;
 
+import com.aventstack.extentreports.Status;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 import org.testng.Reporter;
 
 /**
  * Enhanced RetryTransformer that provides additional functionality
- * for handling retry logic with better reporting and logging
+ * for handling retry logic with better reporting and logging.
+ * Retry decisions (transient failures only, jittered backoff, suite budget) come from
+ * {@link RetryPolicy}.
  */
 public class RetryTransformer implements IRetryAnalyzer {
-    
-    private int retryCount = 0;
-    private static final int MAX_RETRY_COUNT = 2;
-    private String testName;
+    private static final FrameworkLogger LOG = FrameworkLogger.get(RetryTransformer.class);
     
     /**
      * Constructor to initialize with test name for better logging
@@ -23,89 +23,70 @@ public class RetryTransformer implements IRetryAnalyzer {
     
     @Override
     public boolean retry(ITestResult result) {
-        if (!result.isSuccess() && retryCount < MAX_RETRY_COUNT) {
-            retryCount++;
-            testName = result.getMethod().getMethodName();
-            
+        String testName = result.getMethod().getMethodName();
+        RetryPolicy.Decision decision = RetryPolicy.decide(result);
+        
+        if (decision.isRetry()) {
             // Enhanced logging
             String retryMessage = String.format(
-                "🔄 RETRY ATTEMPT: Test '%s' failed. Retry %d/%d", 
-                testName, retryCount, MAX_RETRY_COUNT
+                "🔄 RETRY ATTEMPT: Test '%s' failed. Retry %d/%d after %d ms backoff", 
+                testName, decision.getAttempt(), RetryPolicy.getMaxRetries(), decision.getBackoffMillis()
             );
             
-            System.out.println(retryMessage);
+            LOG.info(retryMessage);
             Reporter.log(retryMessage, true);
             
             // Log failure reason if available
             if (result.getThrowable() != null) {
                 String failureReason = "Failure reason: " + result.getThrowable().getMessage();
-                System.out.println(failureReason);
+                LOG.info(failureReason);
                 Reporter.log(failureReason, true);
             }
             
             // Add retry information to Extent Report if available
             try {
-                if (ExtentReportManager.getTest() != null) {
-                    ExtentReportManager.getTest().warning(
-                        "Test failed - Retry attempt " + retryCount + "/" + MAX_RETRY_COUNT
+                ExtentReportManager.log(Status.WARNING,
+                    "Test failed - Retry attempt " + decision.getAttempt() + "/" + RetryPolicy.getMaxRetries()
+                        + " (" + decision.getReason() + ")"
+                );
+                
+                if (result.getThrowable() != null) {
+                    ExtentReportManager.log(Status.WARNING,
+                        "Failure reason: " + result.getThrowable().getMessage()
                     );
-                    
-                    if (result.getThrowable() != null) {
-                        ExtentReportManager.getTest().warning(
-                            "Failure reason: " + result.getThrowable().getMessage()
-                        );
-                    }
                 }
             } catch (Exception e) {
-                System.out.println("Could not log to Extent Report: " + e.getMessage());
-            }
-            
-            // Small delay before retry to handle timing issues
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                System.out.println("Retry delay interrupted: " + e.getMessage());
+                LOG.warn("Could not log to Extent Report: " + e.getMessage());
             }
             
             return true;
         }
         
-        // Log final result if all retries exhausted
-        if (retryCount >= MAX_RETRY_COUNT && !result.isSuccess()) {
+        // Log final result when a failure is not retried (any more)
+        if (!result.isSuccess()) {
             String finalMessage = String.format(
-                "❌ TEST FAILED: '%s' failed after %d retry attempts", 
-                testName, MAX_RETRY_COUNT
+                "❌ TEST FAILED: '%s' failed after %d retry attempts - %s", 
+                testName, decision.getAttempt(), decision.getReason()
             );
-            System.out.println(finalMessage);
+            LOG.info(finalMessage);
             Reporter.log(finalMessage, true);
             
             try {
-                if (ExtentReportManager.getTest() != null) {
-                    ExtentReportManager.getTest().fail(
-                        "Test failed after " + MAX_RETRY_COUNT + " retry attempts"
-                    );
-                }
+                ExtentReportManager.log(Status.FAIL,
+                    "Test failed after " + decision.getAttempt() + " retry attempts - " + decision.getReason()
+                );
             } catch (Exception e) {
-                System.out.println("Could not log final failure to Extent Report: " + e.getMessage());
+                LOG.warn("Could not log final failure to Extent Report: " + e.getMessage());
             }
         }
         
-        retryCount = 0; // Reset for next test
         return false;
     }
     
-    /**
-     * Get current retry count
-     */
-    public int getCurrentRetryCount() {
-        return retryCount;
-    }
-    
     /**
      * Get maximum retry count
      */
     public static int getMaxRetryCount() {
-        return MAX_RETRY_COUNT;
+        return RetryPolicy.getMaxRetries();
     }
 }
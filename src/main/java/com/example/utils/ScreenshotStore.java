@@ -0,0 +1,518 @@
+package com.example.utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ScreenshotStore keeps screenshots content-addressed under reports/screenshots.
+ *
+ * - Files are named by the SHA-256 of the captured image and sharded as ab/cd/abcd....png,
+ *   so identical frames are stored once and names never collide
+ * - Step screenshots can be downscaled and re-encoded as JPEG; pass/fail evidence stays PNG
+ * - An index (index.tsv) tracks size and last use; when the store exceeds its quota the
+ *   least recently used screenshots are evicted without scanning the directory
+ *
+ * The index is an append-only log written under a file lock as screenshots are stored,
+ * touched and evicted, so it survives a crash and several test JVMs sharing the
+ * directory see each other's screenshots. store() only updates the index in memory;
+ * the records are appended in batches on the {@link ScreenshotWriter} thread, which also
+ * evicts over the quota, so test threads never wait on the log. Before appending, a JVM
+ * replays what others have appended since its last write. The log is compacted when the
+ * run ends.
+ * Screenshots used since this JVM started, or still waiting in {@link ScreenshotWriter},
+ * are never evicted; the quota can be exceeded for the length of a run.
+ *
+ * Configuration (system properties):
+ * - screenshots.quotaMb          total size kept on disk (default 200)
+ * - screenshots.step.format      "jpg" or "png" for step screenshots (default jpg)
+ * - screenshots.step.maxWidth    downscale step screenshots wider than this, 0 = keep (default 1280)
+ * - screenshots.step.jpegQuality JPEG quality 0.0-1.0 (default 0.8)
+ * - screenshots.runStartedAt     epoch millis the run started, shared by parallel JVMs of one run
+ *                                (default: this JVM's start time)
+ */
+public class ScreenshotStore {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(ScreenshotStore.class);
+    private static final String STORE_DIR = "reports/screenshots/";
+    private static final Path INDEX_FILE = Paths.get(STORE_DIR, "index.tsv");
+    private static final Path LOCK_FILE = Paths.get(STORE_DIR, "index.lock");
+    private static final long QUOTA_BYTES = Long.getLong("screenshots.quotaMb", 200L) * 1024 * 1024;
+    private static final String STEP_FORMAT = System.getProperty("screenshots.step.format", "jpg");
+    private static final int STEP_MAX_WIDTH = Integer.getInteger("screenshots.step.maxWidth", 1280);
+    private static final float STEP_JPEG_QUALITY =
+            Float.parseFloat(System.getProperty("screenshots.step.jpegQuality", "0.8"));
+    // Entries used since then belong to the current run and are never evicted
+    private static final long RUN_STARTED =
+            Long.getLong("screenshots.runStartedAt", ManagementFactory.getRuntimeMXBean().getStartTime());
+
+    // hash -> entry, in least-recently-used order; guarded by the class lock
+    private static final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(64, 0.75f, true);
+    private static long totalBytes = 0;
+    private static long dedupHits = 0;
+    private static boolean quotaWarned = false;
+    // Records not in the log yet; guarded by the class lock
+    private static List<String> unlogged = new ArrayList<>();
+    private static final AtomicBoolean maintenanceQueued = new AtomicBoolean();
+
+    // How far this JVM has replayed the log, and which file that offset belongs to;
+    // guarded by logLock, which test threads never take from store()
+    private static final Object logLock = new Object();
+    private static long logOffset = 0;
+    private static Object logIdentity = null;
+    private static boolean logEndsWithNewline = true;
+
+    static {
+        flushLog(); // Replays the log written by earlier runs
+        queueMaintenance(); // The quota may have been lowered since the last run
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ScreenshotWriter.flush(10000);
+            saveIndex();
+        }, "screenshot-store-index"));
+    }
+
+    private static class Entry {
+        final String path;
+        final String name;
+        long size;
+        long lastUsed;
+        boolean pending; // Queued in ScreenshotWriter, not on disk yet
+
+        Entry(String path, String name, long size, long lastUsed) {
+            this.path = path;
+            this.name = name;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+
+        String toRecord(String hash) {
+            return "A\t" + hash + "\t" + path + "\t" + size + "\t" + lastUsed + "\t" + name.replace('\t', ' ');
+        }
+    }
+
+    private ScreenshotStore() {
+    }
+
+    /**
+     * Store a captured screenshot. Identical images are stored once; new ones are
+     * written in the background by {@link ScreenshotWriter}.
+     * @param png Captured PNG bytes
+     * @param name Human readable name, kept in the index
+     * @param compress true to apply the step screenshot downscale/re-encode settings
+     * @return Path of the stored screenshot, e.g. reports/screenshots/ab/cd/abcd....png
+     */
+    public static String store(byte[] png, String name, boolean compress) {
+        boolean jpeg = compress && "jpg".equalsIgnoreCase(STEP_FORMAT);
+        boolean scale = compress && STEP_MAX_WIDTH > 0;
+        // The key includes the encoding so a PNG and a JPEG of the same frame do not clash
+        String hash = sha256(png) + (jpeg ? "j" : "") + (scale ? "s" + STEP_MAX_WIDTH : "");
+        String path = STORE_DIR + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash
+                + (jpeg ? ".jpg" : ".png");
+
+        String storedAt;
+        synchronized (ScreenshotStore.class) {
+            Entry existing = index.get(hash); // Also moves it to most recently used
+            if (existing != null) {
+                existing.lastUsed = System.currentTimeMillis();
+                dedupHits++;
+                unlogged.add(existing.toRecord(hash));
+                storedAt = existing.path;
+            } else {
+                Entry entry = new Entry(path, name, png.length, System.currentTimeMillis());
+                entry.pending = true;
+                index.put(hash, entry);
+                totalBytes += entry.size;
+                unlogged.add(entry.toRecord(hash));
+                storedAt = null;
+            }
+        }
+        if (storedAt != null) {
+            queueMaintenance();
+            return storedAt;
+        }
+
+        // Outside the lock: a full queue blocks here while the writer thread needs the lock
+        ScreenshotWriter.submit(path, png,
+                compress ? data -> encode(data, jpeg, scale) : null,
+                written -> updateSize(hash, written));
+        queueMaintenance();
+        return path;
+    }
+
+    /**
+     * Resolve a screenshot path to the form the HTML report needs (relative to reports/)
+     * @param path Path returned by {@link #store(byte[], String, boolean)} or a legacy path
+     * @return Path relative to the report directory, or the input if it is not in the store
+     */
+    public static String resolveForReport(String path) {
+        if (path == null) {
+            return null;
+        }
+        int start = path.indexOf(STORE_DIR);
+        return start >= 0 ? path.substring(start + "reports/".length()) : path;
+    }
+
+    /**
+     * Remove screenshots not used for the given number of days, using the index only.
+     * Screenshots of the current run are kept whatever their age.
+     * @param daysOld Number of days
+     * @return Number of screenshots removed
+     */
+    public static int evictOlderThan(int daysOld) {
+        long cutoff = System.currentTimeMillis() - daysOld * 24L * 60 * 60 * 1000;
+        List<Entry> removed = new ArrayList<>();
+        synchronized (ScreenshotStore.class) {
+            Iterator<Map.Entry<String, Entry>> it = index.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Entry> e = it.next();
+                Entry entry = e.getValue();
+                if (entry.lastUsed < cutoff && !isProtected(entry)) {
+                    it.remove();
+                    totalBytes -= entry.size;
+                    unlogged.add("D\t" + e.getKey());
+                    removed.add(entry);
+                }
+            }
+        }
+        removed.forEach(ScreenshotStore::delete);
+        flushLog();
+        return removed.size();
+    }
+
+    /**
+     * Compact the index log to one record per screenshot. Records appended by other
+     * JVMs are kept, and so are records this JVM has not appended yet.
+     */
+    public static void saveIndex() {
+        synchronized (logLock) {
+            try {
+                Files.createDirectories(INDEX_FILE.getParent());
+                try (FileChannel lock = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    lock.lock(); // Released when the channel closes
+                    catchUp(new ArrayList<>());
+                    StringBuilder records = new StringBuilder();
+                    synchronized (ScreenshotStore.class) {
+                        // The snapshot holds everything unlogged describes
+                        unlogged = new ArrayList<>();
+                        for (Map.Entry<String, Entry> e : index.entrySet()) {
+                            records.append(e.getValue().toRecord(e.getKey())).append('\n');
+                        }
+                    }
+                    Path temp = Files.createTempFile(INDEX_FILE.getParent(), "index", ".tmp");
+                    Files.write(temp, records.toString().getBytes(StandardCharsets.UTF_8));
+                    Files.move(temp, INDEX_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    logOffset = Files.size(INDEX_FILE);
+                    logIdentity = identityOf(INDEX_FILE);
+                    logEndsWithNewline = true;
+                }
+            } catch (IOException e) {
+                LOG.error("❌ Failed to save screenshot index: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the total size of stored screenshots according to the index
+     * @return Size in bytes
+     */
+    public static synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Get a one-line summary of the store
+     * @return Statistics summary
+     */
+    public static synchronized String getStatsSummary() {
+        return String.format("Screenshot store: %d images, %d KB of %d KB quota, %d duplicates skipped",
+                index.size(), totalBytes / 1024, QUOTA_BYTES / 1024, dedupHits);
+    }
+
+    // Internal helpers
+
+    // Runs on the writer thread once the screenshot is on disk
+    private static void updateSize(String hash, long size) {
+        synchronized (ScreenshotStore.class) {
+            Entry entry = index.get(hash);
+            if (entry != null) {
+                totalBytes += size - entry.size;
+                entry.size = size;
+                entry.pending = false;
+                unlogged.add(entry.toRecord(hash));
+            }
+        }
+        // Already on the writer thread: run the pass here unless one is queued behind us
+        if (maintenanceQueued.compareAndSet(false, true)) {
+            maintain();
+        }
+    }
+
+    private static boolean isProtected(Entry entry) {
+        return entry.pending || entry.lastUsed >= RUN_STARTED;
+    }
+
+    // Ask the writer thread to append unlogged records and enforce the quota. Captures made
+    // while a request is queued are covered by it, so the log is written in batches.
+    private static void queueMaintenance() {
+        if (maintenanceQueued.compareAndSet(false, true)) {
+            ScreenshotWriter.submitTask(ScreenshotStore::maintain);
+        }
+    }
+
+    private static void maintain() {
+        maintenanceQueued.set(false); // Records added from here on need another pass
+        flushLog();
+        enforceQuota();
+    }
+
+    private static void enforceQuota() {
+        List<Entry> removed = new ArrayList<>();
+        synchronized (ScreenshotStore.class) {
+            Iterator<Map.Entry<String, Entry>> it = index.entrySet().iterator();
+            while (totalBytes > QUOTA_BYTES && it.hasNext()) {
+                Map.Entry<String, Entry> e = it.next();
+                Entry eldest = e.getValue();
+                if (isProtected(eldest)) {
+                    continue;
+                }
+                it.remove();
+                totalBytes -= eldest.size;
+                unlogged.add("D\t" + e.getKey());
+                removed.add(eldest);
+            }
+            if (totalBytes > QUOTA_BYTES && !quotaWarned) {
+                quotaWarned = true;
+                LOG.warn("⚠️ Screenshots of this run exceed the " + QUOTA_BYTES / (1024 * 1024)
+                        + " MB quota; they will be evicted by a later run");
+            }
+        }
+        if (!removed.isEmpty()) {
+            removed.forEach(ScreenshotStore::delete);
+            flushLog();
+        }
+    }
+
+    private static void delete(Entry entry) {
+        try {
+            Files.deleteIfExists(Paths.get(entry.path));
+        } catch (IOException e) {
+            LOG.error("❌ Failed to delete screenshot " + entry.path + ": " + e.getMessage());
+        }
+    }
+
+    // Append the unlogged records under the cross-process lock, after replaying what other
+    // JVMs appended. With nothing unlogged it only replays.
+    private static void flushLog() {
+        synchronized (logLock) {
+            List<String> batch;
+            synchronized (ScreenshotStore.class) {
+                batch = unlogged;
+                unlogged = new ArrayList<>();
+            }
+            try {
+                Files.createDirectories(INDEX_FILE.getParent());
+                try (FileChannel lock = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    lock.lock(); // Released when the channel closes
+                    catchUp(batch);
+                    if (batch.isEmpty()) {
+                        return;
+                    }
+                    StringBuilder text = new StringBuilder();
+                    if (!logEndsWithNewline) {
+                        text.append('\n'); // A writer crashed mid-record; keep ours on its own line
+                    }
+                    for (String record : batch) {
+                        text.append(record).append('\n');
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+                    try (FileChannel log = FileChannel.open(INDEX_FILE,
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                        while (buffer.hasRemaining()) {
+                            log.write(buffer);
+                        }
+                        logOffset = log.size();
+                    }
+                    logIdentity = identityOf(INDEX_FILE);
+                    logEndsWithNewline = true;
+                }
+            } catch (IOException e) {
+                synchronized (ScreenshotStore.class) {
+                    batch.addAll(unlogged); // Keep the order; the next flush tries again
+                    unlogged = batch;
+                }
+                LOG.error("❌ Failed to update screenshot index: " + e.getMessage());
+            }
+        }
+    }
+
+    // Replay records appended since our last read. The file is read without the class lock;
+    // only applying the records takes it. Caller holds logLock and the file lock.
+    private static void catchUp(List<String> batch) throws IOException {
+        if (!Files.exists(INDEX_FILE)) {
+            return;
+        }
+        Object identity = identityOf(INDEX_FILE);
+        long size = Files.size(INDEX_FILE);
+        boolean compacted = !Objects.equals(identity, logIdentity) || size < logOffset;
+        if (compacted) {
+            logOffset = 0;
+            logIdentity = identity;
+        }
+        List<String> lines = new ArrayList<>();
+        if (size > logOffset) {
+            try (FileChannel log = FileChannel.open(INDEX_FILE, StandardOpenOption.READ)) {
+                log.position(logOffset);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(Channels.newInputStream(log), StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+                ByteBuffer last = ByteBuffer.allocate(1);
+                log.read(last, size - 1);
+                logEndsWithNewline = last.get(0) == '\n';
+            }
+            logOffset = size;
+        }
+        synchronized (ScreenshotStore.class) {
+            if (compacted) {
+                // Another JVM compacted: it holds everything we had logged, so start over
+                // and re-apply what we have not logged yet
+                index.clear();
+                totalBytes = 0;
+                lines.addAll(batch);
+                lines.addAll(unlogged);
+            }
+            lines.forEach(ScreenshotStore::replay);
+        }
+    }
+
+    private static void replay(String line) {
+        String[] parts = line.split("\t", 6);
+        try {
+            if (parts.length == 2 && "D".equals(parts[0])) {
+                Entry removed = index.remove(parts[1]);
+                if (removed != null) {
+                    totalBytes -= removed.size;
+                }
+            } else if (parts.length == 6 && "A".equals(parts[0])) {
+                record(parts[1], parts[2], Long.parseLong(parts[3]), Long.parseLong(parts[4]), parts[5]);
+            } else if (parts.length == 5) {
+                // Snapshot row written before the index became a log
+                record(parts[0], parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]), parts[4]);
+            }
+        } catch (NumberFormatException ignored) {
+            // Skip damaged row
+        }
+    }
+
+    private static void record(String hash, String path, long size, long lastUsed, String name) {
+        Entry entry = index.get(hash); // Replay order is use order, so this keeps the LRU order
+        if (entry == null) {
+            index.put(hash, new Entry(path, name, size, lastUsed));
+            totalBytes += size;
+        } else {
+            totalBytes += size - entry.size;
+            entry.size = size;
+            entry.lastUsed = Math.max(entry.lastUsed, lastUsed);
+        }
+    }
+
+    private static Object identityOf(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        // Compaction replaces the file, which changes its key (or creation time where there is no key)
+        return attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+    }
+
+    private static byte[] encode(byte[] png, boolean jpeg, boolean scale) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                return png;
+            }
+            if (scale && image.getWidth() > STEP_MAX_WIDTH) {
+                int height = (int) Math.round(image.getHeight() * (STEP_MAX_WIDTH / (double) image.getWidth()));
+                BufferedImage scaled = new BufferedImage(STEP_MAX_WIDTH, height, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = scaled.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(image, 0, 0, STEP_MAX_WIDTH, height, null);
+                g.dispose();
+                image = scaled;
+            }
+            if (!jpeg) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(image, "png", out);
+                return out.toByteArray();
+            }
+            return toJpeg(image);
+        } catch (IOException e) {
+            LOG.warn("⚠️ Could not re-encode screenshot, keeping PNG bytes: " + e.getMessage());
+            return png;
+        }
+    }
+
+    private static byte[] toJpeg(BufferedImage image) throws IOException {
+        // JPEG has no alpha channel
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(STEP_JPEG_QUALITY);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,16 +1,14 @@
 package com.example.utils;
 
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import java.io.File;
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 public class ScreenshotUtils {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(ScreenshotUtils.class);
     private static final String SCREENSHOT_DIR = "reports/screenshots/";
     
     /**
@@ -20,35 +18,41 @@ public class ScreenshotUtils {
         File dir = new File(SCREENSHOT_DIR);
         if (!dir.exists()) {
             dir.mkdirs();
-            System.out.println("📁 Screenshot directory created: " + SCREENSHOT_DIR);
+            LOG.info("📁 Screenshot directory created: " + SCREENSHOT_DIR);
         }
     }
     
     /**
-     * Capture full page screenshot
+     * Capture full page screenshot. The image is captured in memory and stored by
+     * {@link ScreenshotStore}: identical images are kept once and new ones are written in
+     * the background, so the file may not exist until {@link ScreenshotWriter#flush()}.
      * @param driver WebDriver instance
      * @param screenshotName Name for the screenshot
      * @return Path to the captured screenshot
      */
     public static String captureScreenshot(WebDriver driver, String screenshotName) {
+        return captureScreenshot(driver, screenshotName, false);
+    }
+    
+    /**
+     * Capture full page screenshot
+     * @param driver WebDriver instance
+     * @param screenshotName Name for the screenshot
+     * @param compress true to downscale/re-encode (step screenshots), false to keep lossless PNG
+     * @return Path to the captured screenshot
+     */
+    public static String captureScreenshot(WebDriver driver, String screenshotName, boolean compress) {
         try {
-            initScreenshotDirectory();
-            
             TakesScreenshot screenshot = (TakesScreenshot) driver;
-            File sourceFile = screenshot.getScreenshotAs(OutputType.FILE);
+            byte[] png = screenshot.getScreenshotAs(OutputType.BYTES);
             
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-            String fileName = screenshotName + "_" + timestamp + ".png";
-            String destinationPath = SCREENSHOT_DIR + fileName;
+            String destinationPath = ScreenshotStore.store(png, screenshotName, compress);
             
-            File destinationFile = new File(destinationPath);
-            FileUtils.copyFile(sourceFile, destinationFile);
-            
-            System.out.println("📸 Screenshot captured: " + fileName);
+            LOG.info("📸 Screenshot captured: " + screenshotName + " -> " + destinationPath);
             return destinationPath;
             
-        } catch (IOException e) {
-            System.out.println("❌ Failed to capture screenshot: " + e.getMessage());
+        } catch (WebDriverException e) {
+            LOG.error("❌ Failed to capture screenshot: " + e.getMessage());
             return null;
         }
     }
@@ -70,22 +74,15 @@ public class ScreenshotUtils {
      */
     public static String captureElementScreenshot(WebElement element, String screenshotName) {
         try {
-            initScreenshotDirectory();
-            
-            File sourceFile = element.getScreenshotAs(OutputType.FILE);
+            byte[] png = element.getScreenshotAs(OutputType.BYTES);
             
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-            String fileName = screenshotName + "_element_" + timestamp + ".png";
-            String destinationPath = SCREENSHOT_DIR + fileName;
+            String destinationPath = ScreenshotStore.store(png, screenshotName + "_element", false);
             
-            File destinationFile = new File(destinationPath);
-            FileUtils.copyFile(sourceFile, destinationFile);
-            
-            System.out.println("📸 Element screenshot captured: " + fileName);
+            LOG.info("📸 Element screenshot captured: " + screenshotName + " -> " + destinationPath);
             return destinationPath;
             
-        } catch (IOException e) {
-            System.out.println("❌ Failed to capture element screenshot: " + e.getMessage());
+        } catch (WebDriverException e) {
+            LOG.error("❌ Failed to capture element screenshot: " + e.getMessage());
             return null;
         }
     }
@@ -117,44 +114,27 @@ public class ScreenshotUtils {
      * @return Path to the captured screenshot
      */
     public static String captureStepScreenshot(WebDriver driver, String stepName) {
-        return captureScreenshot(driver, stepName + "_STEP");
+        return captureScreenshot(driver, stepName + "_STEP", true);
     }
     
     /**
-     * Get relative path for report (removes full system path)
+     * Get relative path for report (relative to the report HTML in reports/)
      * @param fullPath Full screenshot path
      * @return Relative path for report
      */
     public static String getRelativeScreenshotPath(String fullPath) {
-        if (fullPath != null && fullPath.contains(SCREENSHOT_DIR)) {
-            return fullPath.substring(fullPath.indexOf(SCREENSHOT_DIR));
-        }
-        return fullPath;
+        return ScreenshotStore.resolveForReport(fullPath);
     }
     
     /**
-     * Clean up old screenshots (older than specified days)
+     * Clean up screenshots not used in the specified number of days. Driven by the
+     * store index, so it does not scan the screenshot directory.
      * @param daysOld Number of days old
      */
     public static void cleanupOldScreenshots(int daysOld) {
-        try {
-            File screenshotDir = new File(SCREENSHOT_DIR);
-            if (screenshotDir.exists()) {
-                File[] files = screenshotDir.listFiles();
-                if (files != null) {
-                    long cutoffTime = System.currentTimeMillis() - (daysOld * 24 * 60 * 60 * 1000L);
-                    
-                    for (File file : files) {
-                        if (file.isFile() && file.lastModified() < cutoffTime) {
-                            if (file.delete()) {
-                                System.out.println("🗑️ Deleted old screenshot: " + file.getName());
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.out.println("❌ Error cleaning up screenshots: " + e.getMessage());
+        int removed = ScreenshotStore.evictOlderThan(daysOld);
+        if (removed > 0) {
+            LOG.info("🗑️ Deleted " + removed + " screenshots not used in " + daysOld + " days");
         }
     }
     
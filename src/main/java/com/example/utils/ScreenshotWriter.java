@@ -0,0 +1,260 @@
+package com.example.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * ScreenshotWriter persists screenshot bytes on a background thread so the test thread
+ * only pays for the capture itself.
+ *
+ * - The queue is bounded: when the disk falls behind, submit() blocks (backpressure)
+ * - Files are written through NIO FileChannels
+ * - flush() is a barrier that waits until everything submitted so far is on disk
+ * - Other disk work that must stay off the test thread (e.g. the {@link ScreenshotStore}
+ *   index) can be queued with submitTask() and runs in order with the writes
+ *
+ * Configuration (system properties):
+ * - screenshots.queueSize   pending screenshots before submit() blocks (default 32)
+ */
+public class ScreenshotWriter {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(ScreenshotWriter.class);
+    private static final int QUEUE_SIZE = Integer.getInteger("screenshots.queueSize", 32);
+
+    private static final BlockingQueue<WriteTask> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private static final Object flushLock = new Object();
+    private static long submitted = 0;   // guarded by flushLock
+    private static long completed = 0;   // guarded by flushLock
+
+    // Statistics
+    private static final AtomicLong written = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong bytesWritten = new AtomicLong();
+    private static final AtomicLong totalWriteNanos = new AtomicLong();
+    private static final AtomicLong maxWriteNanos = new AtomicLong();
+    private static final AtomicLong maxQueueDepth = new AtomicLong();
+    private static final AtomicLong blockedSubmits = new AtomicLong();
+
+    static {
+        Thread worker = new Thread(ScreenshotWriter::drain, "screenshot-writer");
+        worker.setDaemon(true);
+        worker.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(10000), "screenshot-writer-flush"));
+    }
+
+    private static class WriteTask {
+        final Path path;
+        final byte[] data;
+        final UnaryOperator<byte[]> encoder;
+        final LongConsumer onWritten;
+        final Runnable action;
+
+        WriteTask(Path path, byte[] data, UnaryOperator<byte[]> encoder, LongConsumer onWritten, Runnable action) {
+            this.path = path;
+            this.data = data;
+            this.encoder = encoder;
+            this.onWritten = onWritten;
+            this.action = action;
+        }
+    }
+
+    private ScreenshotWriter() {
+    }
+
+    /**
+     * Queue screenshot bytes to be written to the given path. Blocks only if the queue
+     * is full.
+     * @param path Destination file
+     * @param data PNG bytes
+     */
+    public static void submit(String path, byte[] data) {
+        submit(path, data, null, null);
+    }
+
+    /**
+     * Queue screenshot bytes to be re-encoded and written on the background thread
+     * @param path Destination file
+     * @param data Captured PNG bytes
+     * @param encoder Transformation applied before writing (e.g. downscale/JPEG), or null
+     * @param onWritten Called with the number of bytes written, or null
+     */
+    public static void submit(String path, byte[] data, UnaryOperator<byte[]> encoder, LongConsumer onWritten) {
+        enqueue(new WriteTask(Paths.get(path), data, encoder, onWritten, null), path);
+    }
+
+    /**
+     * Queue other work to run on the background thread, after everything submitted so far
+     * @param action Work to run; flush() also waits for it
+     */
+    public static void submitTask(Runnable action) {
+        enqueue(new WriteTask(null, null, null, null, action), "background task");
+    }
+
+    private static void enqueue(WriteTask task, String path) {
+        synchronized (flushLock) {
+            submitted++;
+        }
+        try {
+            if (!queue.offer(task)) {
+                blockedSubmits.incrementAndGet();
+                queue.put(task);
+            }
+            maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markCompleted();
+            LOG.error("❌ Screenshot write not queued (interrupted): " + path);
+        }
+    }
+
+    /**
+     * Wait until every screenshot submitted before this call has been written
+     * @param timeoutMillis Maximum time to wait
+     * @return true if all writes completed within the timeout
+     */
+    public static boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (flushLock) {
+            long target = submitted;
+            while (completed < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    LOG.warn("⚠️ Screenshot flush timed out with " + (target - completed) + " pending");
+                    return false;
+                }
+                try {
+                    flushLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Wait (up to 30 seconds) until every submitted screenshot has been written
+     * @return true if all writes completed
+     */
+    public static boolean flush() {
+        return flush(30000);
+    }
+
+    /**
+     * Get the number of screenshots waiting to be written
+     * @return Current queue depth
+     */
+    public static int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Get the deepest the queue has been
+     * @return Maximum queue depth
+     */
+    public static long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * Get the average time to write one screenshot
+     * @return Average write latency in milliseconds
+     */
+    public static double getAverageWriteMillis() {
+        long count = written.get();
+        return count == 0 ? 0 : totalWriteNanos.get() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Get the slowest screenshot write
+     * @return Maximum write latency in milliseconds
+     */
+    public static double getMaxWriteMillis() {
+        return maxWriteNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Get a one-line summary of writer statistics
+     * @return Statistics summary
+     */
+    public static String getStatsSummary() {
+        return String.format("Screenshot writer: written=%d, failed=%d, %d KB, queue depth=%d (max %d), "
+                        + "blocked submits=%d, avg write=%.1fms, max write=%.1fms",
+                written.get(), failed.get(), bytesWritten.get() / 1024, getQueueDepth(), getMaxQueueDepth(),
+                blockedSubmits.get(), getAverageWriteMillis(), getMaxWriteMillis());
+    }
+
+    private static void drain() {
+        while (true) {
+            WriteTask task;
+            try {
+                task = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == null) {
+                continue;
+            }
+            if (task.action != null) {
+                try {
+                    task.action.run();
+                } catch (RuntimeException e) {
+                    LOG.error("❌ Screenshot background task failed: " + e.getMessage());
+                } finally {
+                    markCompleted();
+                }
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                byte[] data = task.encoder != null ? task.encoder.apply(task.data) : task.data;
+                write(task.path, data);
+                long elapsed = System.nanoTime() - start;
+                written.incrementAndGet();
+                bytesWritten.addAndGet(data.length);
+                if (task.onWritten != null) {
+                    task.onWritten.accept(data.length);
+                }
+                totalWriteNanos.addAndGet(elapsed);
+                maxWriteNanos.accumulateAndGet(elapsed, Math::max);
+            } catch (IOException | RuntimeException e) {
+                failed.incrementAndGet();
+                LOG.error("❌ Failed to write screenshot " + task.path + ": " + e.getMessage());
+            } finally {
+                markCompleted();
+            }
+        }
+    }
+
+    private static void write(Path path, byte[] data) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static void markCompleted() {
+        synchronized (flushLock) {
+            completed++;
+            flushLock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ShardMerger combines the results of a sharded run (see {@link TestSharder}) into one
+ * Extent report and one test history, so the next run plans with every shard's timings.
+ *
+ * Usage:
+ *   mvn -q exec:java -Dexec.mainClass=com.example.utils.ShardMerger \
+ *       -Dexec.args="reports/CombinedReport.html shards/shard-1 shards/shard-2"
+ *
+ * Arguments: output HTML file, then one directory per shard (or one directory holding
+ * them all). Report journals (*.jsonl), history files (test-history.tsv) and shard
+ * manifests (manifest-shard-*.tsv) are found anywhere below them. Histories are merged
+ * into -Dhistory.file.
+ *
+ * The manifests are checked after the report is written: every shard must be present,
+ * all shards must have planned each unit for the same shard, and every planned unit must
+ * have run exactly once, on its own shard. Any mismatch is listed and exits with 1.
+ */
+public class ShardMerger {
+    private static final Pattern MANIFEST_NAME =
+            Pattern.compile(Pattern.quote(TestSharder.MANIFEST_PREFIX) + "(\\d+)of(\\d+)\\.tsv");
+    private static final int MAX_LISTED = 20;
+
+    private ShardMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ShardMerger <output.html> <shard dir>...");
+            System.exit(2);
+        }
+        List<Path> journals = new ArrayList<>();
+        List<Path> histories = new ArrayList<>();
+        List<Path> manifests = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            journals.addAll(find(Paths.get(args[i]), ".jsonl"));
+            histories.addAll(find(Paths.get(args[i]), "test-history.tsv"));
+            manifests.addAll(find(Paths.get(args[i]), ".tsv").stream()
+                    .filter(p -> MANIFEST_NAME.matcher(p.getFileName().toString()).matches())
+                    .collect(Collectors.toList()));
+        }
+        if (journals.isEmpty()) {
+            System.out.println("❌ No journals found");
+            System.exit(1);
+        }
+
+        ReportRebuilder.render(journals, args[0]);
+
+        TestHistory history = TestHistory.shared();
+        for (Path shardHistory : histories) {
+            int taken = history.mergeShard(shardHistory);
+            System.out.println("📈 Merged " + taken + " tests and rows from " + shardHistory);
+        }
+
+        if (manifests.isEmpty()) {
+            System.out.println("⚠️ No shard manifests found, cannot check that every test ran once");
+            return;
+        }
+        List<String> problems = verify(manifests);
+        if (!problems.isEmpty()) {
+            System.out.println("❌ Shards did not run every planned test exactly once (" + problems.size() + " problems):");
+            problems.stream().limit(MAX_LISTED).forEach(problem -> System.out.println("   " + problem));
+            if (problems.size() > MAX_LISTED) {
+                System.out.println("   ... and " + (problems.size() - MAX_LISTED) + " more");
+            }
+            System.exit(1);
+        }
+        System.out.println("✅ Every planned test ran exactly once across " + manifests.size() + " shards");
+    }
+
+    /**
+     * Check shard manifests against each other
+     * @param manifests One manifest per shard (manifest-shard-2of4.tsv)
+     * @return Problems found, empty when every shard is present, the shards agree on the
+     *         plan and every planned unit ran exactly once on its planned shard
+     */
+    static List<String> verify(List<Path> manifests) throws IOException {
+        List<String> problems = new ArrayList<>();
+        Set<Integer> shards = new TreeSet<>();
+        Set<Integer> totals = new TreeSet<>();
+        Map<String, Map<Integer, Integer>> plannedBy = new TreeMap<>(); // unit -> (shard -> owner)
+        Map<String, List<Integer>> ranOn = new HashMap<>();
+
+        for (Path manifest : manifests) {
+            Matcher name = MANIFEST_NAME.matcher(manifest.getFileName().toString());
+            if (!name.matches()) {
+                continue;
+            }
+            int shard = Integer.parseInt(name.group(1));
+            totals.add(Integer.parseInt(name.group(2)));
+            if (!shards.add(shard)) {
+                problems.add("Shard " + shard + " has more than one manifest");
+            }
+            Set<String> seen = new HashSet<>();
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length == 4 && "P".equals(fields[0])) {
+                    String unit = fields[1] + " | " + fields[2];
+                    plannedBy.computeIfAbsent(unit, u -> new TreeMap<>()).put(shard, Integer.parseInt(fields[3]));
+                } else if (fields.length == 3 && "R".equals(fields[0]) && seen.add(fields[1] + " | " + fields[2])) {
+                    // A retried test is one run; only a second shard running it is a duplicate
+                    ranOn.computeIfAbsent(fields[1] + " | " + fields[2], u -> new ArrayList<>()).add(shard);
+                }
+            }
+        }
+
+        if (totals.size() > 1) {
+            problems.add("Manifests disagree on the number of shards: " + totals);
+        }
+        int total = totals.isEmpty() ? 0 : totals.iterator().next();
+        for (int shard = 1; shard <= total; shard++) {
+            if (!shards.contains(shard)) {
+                problems.add("Shard " + shard + " of " + total + " left no manifest");
+            }
+        }
+
+        plannedBy.forEach((unit, owners) -> {
+            Set<Integer> distinct = new TreeSet<>(owners.values());
+            if (distinct.size() > 1) {
+                problems.add(unit + ": shards planned it differently " + owners);
+                return;
+            }
+            int owner = distinct.iterator().next();
+            List<Integer> ran = ranOn.getOrDefault(unit, List.of());
+            if (ran.isEmpty()) {
+                problems.add(unit + ": planned for shard " + owner + " but never ran");
+            } else if (ran.size() > 1) {
+                problems.add(unit + ": ran " + ran.size() + " times, on shards " + ran);
+            } else if (ran.get(0) != owner) {
+                problems.add(unit + ": planned for shard " + owner + " but ran on shard " + ran.get(0));
+            }
+        });
+        return problems;
+    }
+
+    private static List<Path> find(Path dir, String suffix) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.example.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+
+/**
+ * TestHistory remembers how each test method and data row behaved in earlier runs:
+ * how often it ran and failed, a recency-weighted failure score, a moving-average
+ * duration and how many retries it needed.
+ *
+ * The history is a small TSV file, rewritten atomically under a file lock. Outcomes of
+ * this run are merged into whatever is on disk at save time, so parallel workers and
+ * forked JVMs can share one file.
+ *
+ * Keys are "package.Class.method" for plain tests and "package.Class.method[args]" for
+ * data-provider rows.
+ *
+ * Configuration (system properties):
+ * - history.file    history location (default .cache/test-history.tsv)
+ */
+public class TestHistory {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(TestHistory.class);
+    private static final String DEFAULT_FILE = ".cache/test-history.tsv";
+    private static final double ALPHA = 0.3; // Weight of the newest run in moving averages
+    private static volatile TestHistory shared;
+
+    public enum Outcome {
+        PASS, FLAKY, FAIL, SKIP
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Observations not yet in the file, in the order they were recorded
+    private final Deque<Unsaved> unsaved = new ConcurrentLinkedDeque<>();
+
+    private static class Unsaved {
+        final String key;
+        final Observation observation;
+
+        Unsaved(String key, Observation observation) {
+            this.key = key;
+            this.observation = observation;
+        }
+    }
+
+    /**
+     * History of one test method or data row
+     */
+    public static class Entry {
+        private int runs;
+        private int failures;
+        private double failureScore;
+        private double avgMillis;
+        private int totalRetries;
+        private Outcome lastOutcome;
+        private long lastRunAt;
+
+        Entry() {
+        }
+
+        Entry(int runs, int failures, double failureScore, double avgMillis, int totalRetries,
+              Outcome lastOutcome, long lastRunAt) {
+            this.runs = runs;
+            this.failures = failures;
+            this.failureScore = failureScore;
+            this.avgMillis = avgMillis;
+            this.totalRetries = totalRetries;
+            this.lastOutcome = lastOutcome;
+            this.lastRunAt = lastRunAt;
+        }
+
+        void apply(Observation observation) {
+            if (observation.outcome != Outcome.SKIP) {
+                double failed = observation.outcome == Outcome.FAIL ? 1.0
+                        : observation.outcome == Outcome.FLAKY ? 0.5 : 0.0;
+                failureScore = runs == 0 ? failed : ALPHA * failed + (1 - ALPHA) * failureScore;
+                avgMillis = runs == 0 ? observation.millis : ALPHA * observation.millis + (1 - ALPHA) * avgMillis;
+                runs++;
+                if (observation.outcome == Outcome.FAIL) {
+                    failures++;
+                }
+            }
+            totalRetries += observation.retries;
+            lastOutcome = observation.outcome;
+            lastRunAt = Math.max(lastRunAt, observation.at);
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return Recency-weighted failure rate between 0 and 1 (flaky passes count half)
+         */
+        public double getFailureScore() {
+            return failureScore;
+        }
+
+        public double getAvgMillis() {
+            return avgMillis;
+        }
+
+        public int getTotalRetries() {
+            return totalRetries;
+        }
+
+        public Outcome getLastOutcome() {
+            return lastOutcome;
+        }
+    }
+
+    private static class Observation {
+        final Outcome outcome;
+        final long millis;
+        final int retries;
+        final long at;
+
+        Observation(Outcome outcome, long millis, int retries) {
+            this.outcome = outcome;
+            this.millis = millis;
+            this.retries = retries;
+            this.at = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Open a history backed by the given file
+     * @param file History file (created on first save)
+     */
+    public TestHistory(Path file) {
+        this.file = file;
+        entries.putAll(readFile());
+    }
+
+    /**
+     * Get the JVM-wide history configured from system properties
+     * @return Shared history instance
+     */
+    public static TestHistory shared() {
+        if (shared == null) {
+            synchronized (TestHistory.class) {
+                if (shared == null) {
+                    shared = new TestHistory(Paths.get(System.getProperty("history.file", DEFAULT_FILE)));
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Build the history key of a test invocation
+     * @param qualifiedMethod "package.Class.method"
+     * @param parameters Data-provider arguments, or an empty array
+     * @return History key
+     */
+    public static String keyOf(String qualifiedMethod, Object[] parameters) {
+        String key = parameters == null || parameters.length == 0
+                ? qualifiedMethod
+                : qualifiedMethod + Arrays.deepToString(parameters);
+        return key.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Record the outcome of one test invocation
+     * @param key History key
+     * @param outcome Outcome
+     * @param millis Duration of the final attempt
+     * @param retries Retries the invocation needed
+     */
+    public void record(String key, Outcome outcome, long millis, int retries) {
+        Observation observation = new Observation(outcome, millis, retries);
+        entries.compute(key, (k, entry) -> {
+            Entry updated = entry != null ? entry : new Entry();
+            updated.apply(observation);
+            // Queued under the key's lock, so a save installing this key sees it (see update)
+            unsaved.offer(new Unsaved(key, observation));
+            return updated;
+        });
+    }
+
+    /**
+     * Look up a test method or data row
+     * @param key History key
+     * @return Entry, or null if it has never run
+     */
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Get every entry of a method: the method itself and all of its data rows
+     * @param qualifiedMethod "package.Class.method"
+     * @return Entries (empty if the method has never run)
+     */
+    public List<Entry> forMethod(String qualifiedMethod) {
+        List<Entry> matches = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            String key = entry.getKey();
+            if (key.equals(qualifiedMethod) || (key.startsWith(qualifiedMethod) && key.charAt(qualifiedMethod.length()) == '[')) {
+                matches.add(entry.getValue());
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Get the average durations of every test and row that has completed a run
+     * @return Average durations in milliseconds, in no particular order
+     */
+    public double[] allAvgMillis() {
+        return entries.values().stream().filter(e -> e.runs > 0).mapToDouble(e -> e.avgMillis).toArray();
+    }
+
+    /**
+     * Copy the average duration of every test and row that has completed a run
+     * @return Average durations in milliseconds by history key
+     */
+    public Map<String, Double> snapshotAvgMillis() {
+        Map<String, Double> snapshot = new TreeMap<>();
+        entries.forEach((key, entry) -> {
+            if (entry.runs > 0) {
+                snapshot.put(key, entry.avgMillis);
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Get the number of tests and rows with history
+     * @return Entry count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Merge this run's outcomes into the history file. Safe to call from several threads
+     * or processes at once.
+     */
+    public void save() {
+        // Take exactly the observations this save writes; ones recorded meanwhile wait for the next
+        List<Unsaved> pending = new ArrayList<>();
+        Unsaved next;
+        while ((next = unsaved.poll()) != null) {
+            pending.add(next);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        boolean saved = update(merged -> {
+            // Replay our observations on top of what is on disk, so runs saved by other
+            // workers since we loaded are kept
+            for (Unsaved item : pending) {
+                merged.computeIfAbsent(item.key, k -> new Entry()).apply(item.observation);
+            }
+        });
+        if (!saved) {
+            // Put them back ahead of newer observations so they are replayed in order
+            for (int i = pending.size() - 1; i >= 0; i--) {
+                unsaved.offerFirst(pending.get(i));
+            }
+        }
+    }
+
+    /**
+     * Merge the history file of another shard of the same run into this history. Shards
+     * start from the same history and each test runs on one shard only, so for every
+     * test the most recently run entry wins.
+     * @param shardFile History file written by a shard
+     * @return Number of tests and rows taken from the shard
+     */
+    public int mergeShard(Path shardFile) {
+        Map<String, Entry> shardEntries = new TestHistory(shardFile).entries;
+        int[] taken = {0};
+        update(merged -> shardEntries.forEach((key, entry) -> {
+            Entry current = merged.get(key);
+            if (current == null || entry.lastRunAt > current.lastRunAt) {
+                merged.put(key, entry);
+                taken[0]++;
+            }
+        }));
+        return taken[0];
+    }
+
+    // Re-read the file under the lock, let the caller change it, and write it back atomically
+    private boolean update(Consumer<Map<String, Entry>> change) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path lockFile = parent.resolve(file.getFileName() + ".lock");
+
+            synchronized (this) {
+                try (FileChannel channel = FileChannel.open(lockFile,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    channel.lock(); // Released when the channel closes
+
+                    Map<String, Entry> merged = readFile();
+                    change.accept(merged);
+
+                    Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+                    try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                        for (Map.Entry<String, Entry> item : new TreeMap<>(merged).entrySet()) {
+                            Entry e = item.getValue();
+                            writer.write(item.getKey() + "\t" + e.runs + "\t" + e.failures + "\t"
+                                    + String.format(Locale.ROOT, "%.4f", e.failureScore) + "\t" + Math.round(e.avgMillis) + "\t"
+                                    + e.totalRetries + "\t" + (e.lastOutcome != null ? e.lastOutcome : "-") + "\t"
+                                    + e.lastRunAt);
+                            writer.newLine();
+                        }
+                    }
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    // Take the file's entries, re-applying observations recorded in memory
+                    // since this save drained the queue so they are not lost until the next one
+                    for (Map.Entry<String, Entry> item : merged.entrySet()) {
+                        entries.compute(item.getKey(), (key, current) -> {
+                            Entry installed = item.getValue();
+                            for (Unsaved later : unsaved) {
+                                if (later.key.equals(key)) {
+                                    installed.apply(later.observation);
+                                }
+                            }
+                            return installed;
+                        });
+                    }
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Could not save test history: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private Map<String, Entry> readFile() {
+        Map<String, Entry> loaded = new ConcurrentHashMap<>();
+        if (!Files.exists(file)) {
+            return loaded;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length != 8) {
+                    continue; // Skip damaged lines rather than failing the run
+                }
+                try {
+                    loaded.put(parts[0], new Entry(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                            Double.parseDouble(parts[3]), Double.parseDouble(parts[4]), Integer.parseInt(parts[5]),
+                            "-".equals(parts[6]) ? null : Outcome.valueOf(parts[6]), Long.parseLong(parts[7])));
+                } catch (IllegalArgumentException ignored) {
+                    // Skip damaged line
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not read test history: " + e.getMessage());
+        }
+        return loaded;
+    }
+}
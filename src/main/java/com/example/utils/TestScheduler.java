@@ -0,0 +1,218 @@
+package com.example.utils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import org.testng.IMethodInstance;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+/**
+ * TestScheduler balances parallel work using the durations recorded in
+ * {@link TestHistory}: the longest work is queued first, so no single long test (e.g. a
+ * full broken-links crawl) is left running alone at the end while other threads idle.
+ *
+ * TestNG's method and data-provider pools take work from one shared queue, so a worker
+ * that becomes idle always picks up the next waiting test - the effect work stealing
+ * gives per-worker queues. Ordering that queue longest-first is the classic LPT schedule.
+ *
+ * - Cost model: a data row's own average duration; else the average of the method's
+ *   other rows; else the method's average; else the median of all known tests
+ * - Data rows: parallel DataProviders pass their rows through {@link #longestFirst}
+ * - Methods: {@link HistoryListener} uses {@link #longestFirst(List, ITestContext)} when
+ *   a &lt;test&gt; runs methods in parallel
+ * - Makespan: the predicted makespan (list-scheduling the chosen order on the pool's
+ *   threads) is compared with the actual one when the &lt;test&gt; finishes
+ *
+ * Configuration (system properties):
+ * - scheduler.enabled     reorder rows and parallel methods by duration (default true)
+ * - scheduler.defaultMs   cost assumed when nothing is known (default 30000)
+ */
+public class TestScheduler {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(TestScheduler.class);
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("scheduler.enabled", "true"));
+    private static final double DEFAULT_MS = Double.parseDouble(System.getProperty("scheduler.defaultMs", "30000"));
+
+    // Predictions waiting for their <test> to finish, by context name then method
+    private static final Map<String, Map<String, Prediction>> predictions = new ConcurrentHashMap<>();
+
+    private static class Prediction {
+        final int tasks;
+        final int workers;
+        final long predictedMillis;
+
+        Prediction(int tasks, int workers, long predictedMillis) {
+            this.tasks = tasks;
+            this.workers = workers;
+            this.predictedMillis = predictedMillis;
+        }
+    }
+
+    private TestScheduler() {
+    }
+
+    /**
+     * Queue data-provider rows longest-first. Use from a parallel DataProvider that
+     * declares ITestContext and Method parameters. The rows are collected to sort them,
+     * which TestNG does for parallel providers anyway.
+     * @param context Test context (for the data-provider thread count)
+     * @param method Test method the rows are for
+     * @param rows Rows in file order
+     * @return Rows in scheduled order
+     */
+    public static Iterator<Object[]> longestFirst(ITestContext context, Method method, Iterator<Object[]> rows) {
+        List<Object[]> all = new ArrayList<>();
+        rows.forEachRemaining(all::add);
+        if (!ENABLED || all.size() < 2) {
+            return all.iterator();
+        }
+        String qualifiedMethod = method.getDeclaringClass().getName() + "." + method.getName();
+        TestHistory history = TestHistory.shared();
+        Map<Object[], Double> costs = new IdentityHashMap<>();
+        for (Object[] row : all) {
+            costs.put(row, estimateMillis(history, qualifiedMethod, TestHistory.keyOf(qualifiedMethod, row)));
+        }
+        // Stable sort: equal (e.g. unknown) rows keep file order
+        all.sort(Comparator.comparingDouble((Object[] row) -> costs.get(row)).reversed());
+
+        int workers = Math.max(1, context.getSuite().getXmlSuite().getDataProviderThreadCount());
+        List<Double> ordered = new ArrayList<>();
+        for (Object[] row : all) {
+            // Rows of other shards are dropped later (TestSharder); predict this shard's only
+            if (TestSharder.shardOf(context.getSuite(), TestHistory.keyOf(qualifiedMethod, row)) == TestSharder.getIndex()) {
+                ordered.add(costs.get(row));
+            }
+        }
+        predict(context, qualifiedMethod, ordered, workers);
+        return all.iterator();
+    }
+
+    /**
+     * Order method instances longest-first when the &lt;test&gt; runs methods in parallel
+     * @param methods Methods in TestNG's order
+     * @param context Test context
+     * @return Methods in scheduled order, or the input if the test is not parallel
+     */
+    public static List<IMethodInstance> longestFirst(List<IMethodInstance> methods, ITestContext context) {
+        XmlSuite.ParallelMode mode = context.getCurrentXmlTest().getParallel();
+        int workers = context.getCurrentXmlTest().getThreadCount();
+        if (!ENABLED || methods.size() < 2 || mode == null || !mode.isParallel() || workers < 2) {
+            return methods;
+        }
+        TestHistory history = TestHistory.shared();
+        Map<ITestNGMethod, Double> costs = new ConcurrentHashMap<>();
+        for (IMethodInstance instance : methods) {
+            costs.computeIfAbsent(instance.getMethod(), method -> methodMillis(history, method.getQualifiedName()));
+        }
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.comparingDouble((IMethodInstance m) -> costs.get(m.getMethod())).reversed());
+
+        List<Double> orderedCosts = new ArrayList<>();
+        ordered.forEach(m -> orderedCosts.add(costs.get(m.getMethod())));
+        predict(context, "*", orderedCosts, workers);
+        return ordered;
+    }
+
+    /**
+     * Compare predicted and actual makespan for everything scheduled in a finished
+     * &lt;test&gt;, log it and add it to the report dashboard
+     * @param context Finished test context
+     */
+    public static void reportMakespan(ITestContext context) {
+        Map<String, Prediction> scheduled = predictions.remove(context.getName());
+        if (scheduled == null) {
+            return;
+        }
+        List<ITestResult> results = new ArrayList<>();
+        results.addAll(context.getPassedTests().getAllResults());
+        results.addAll(context.getFailedTests().getAllResults());
+        results.addAll(context.getSkippedTests().getAllResults());
+
+        for (Map.Entry<String, Prediction> entry : scheduled.entrySet()) {
+            String target = entry.getKey();
+            long start = Long.MAX_VALUE;
+            long end = Long.MIN_VALUE;
+            for (ITestResult result : results) {
+                if ("*".equals(target) || result.getMethod().getQualifiedName().equals(target)) {
+                    start = Math.min(start, result.getStartMillis());
+                    end = Math.max(end, result.getEndMillis());
+                }
+            }
+            if (start == Long.MAX_VALUE) {
+                continue;
+            }
+            Prediction prediction = entry.getValue();
+            String name = "*".equals(target) ? context.getName() : target.substring(target.lastIndexOf('.') + 1);
+            String summary = String.format("%d tasks on %d threads: predicted %.1f s, actual %.1f s",
+                    prediction.tasks, prediction.workers, prediction.predictedMillis / 1000.0, (end - start) / 1000.0);
+            LOG.info("🧮 Makespan " + name + " - " + summary);
+            ExtentReportManager.addSystemInfo("Makespan (" + name + ")", summary);
+        }
+    }
+
+    /**
+     * Predict the makespan of running tasks in the given order on a pool of workers that
+     * each take the next queued task when they become idle
+     * @param costs Task durations in queue order
+     * @param workers Pool size
+     * @return Predicted makespan in milliseconds
+     */
+    public static long predictMakespan(List<Double> costs, int workers) {
+        PriorityQueue<Double> freeAt = new PriorityQueue<>(Collections.nCopies(Math.max(1, workers), 0.0));
+        double makespan = 0;
+        for (double cost : costs) {
+            double done = freeAt.poll() + cost;
+            makespan = Math.max(makespan, done);
+            freeAt.add(done);
+        }
+        return Math.round(makespan);
+    }
+
+    private static void predict(ITestContext context, String target, List<Double> costs, int workers) {
+        long predicted = predictMakespan(costs, workers);
+        predictions.computeIfAbsent(context.getName(), k -> new ConcurrentHashMap<>())
+                .put(target, new Prediction(costs.size(), workers, predicted));
+        LOG.info(String.format("🧮 Scheduled %d %s longest first on %d threads, predicted makespan %.1f s",
+                costs.size(), "*".equals(target) ? "methods" : "rows of " + target.substring(target.lastIndexOf('.') + 1),
+                workers, predicted / 1000.0));
+    }
+
+    private static double estimateMillis(TestHistory history, String qualifiedMethod, String rowKey) {
+        TestHistory.Entry row = history.get(rowKey);
+        if (row != null && row.getRuns() > 0) {
+            return row.getAvgMillis();
+        }
+        List<TestHistory.Entry> siblings = history.forMethod(qualifiedMethod);
+        if (!siblings.isEmpty()) {
+            return siblings.stream().mapToDouble(TestHistory.Entry::getAvgMillis).average().orElse(DEFAULT_MS);
+        }
+        return medianMillis(history);
+    }
+
+    private static double methodMillis(TestHistory history, String qualifiedMethod) {
+        List<TestHistory.Entry> entries = history.forMethod(qualifiedMethod);
+        if (entries.isEmpty()) {
+            return medianMillis(history);
+        }
+        return entries.stream().mapToDouble(TestHistory.Entry::getAvgMillis).sum();
+    }
+
+    private static double medianMillis(TestHistory history) {
+        double[] known = history.allAvgMillis();
+        if (known.length == 0) {
+            return DEFAULT_MS;
+        }
+        Arrays.sort(known);
+        return known[known.length / 2];
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import org.testng.IMethodInstance;
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+/**
+ * TestSharder splits a suite across several machines (shards) so each runs a part of
+ * it. Every shard computes the same plan independently, so no coordinator is needed.
+ *
+ * The plan covers the expanded suite: plain test methods and individual data rows.
+ * Units with recorded durations in {@link TestHistory} are dealt out longest-first to
+ * the least-loaded shard; units without history (new tests, new CSV rows) go to a
+ * shard chosen by a stable hash of their name. The plan only depends on the history
+ * file as it was when the JVM first planned, so shards started from the same history
+ * always agree.
+ *
+ * {@link HistoryListener} drops plain methods that belong to other shards and filters
+ * data rows as providers return them. Each shard writes its own report journal
+ * (..._shard-2of4.jsonl); {@link ShardMerger} combines shard results into one report.
+ *
+ * Each shard also writes a manifest (reports/shards/manifest-shard-2of4.tsv) listing
+ * every unit it saw with the shard it was planned for, and every unit it ran. The
+ * merger uses the manifests to check that the shards agreed on the plan and that every
+ * unit ran exactly once.
+ *
+ * Configuration (system properties):
+ * - shard.total          number of shards, 1 = sharding off (default 1)
+ * - shard.index          this shard, 1 to shard.total (default 1)
+ * - shard.manifest.dir   manifest directory (default reports/shards)
+ */
+public class TestSharder {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(TestSharder.class);
+    private static final int TOTAL = Math.max(1, Integer.getInteger("shard.total", 1));
+    private static final int INDEX = Integer.getInteger("shard.index", 1);
+    private static final Path MANIFEST_DIR = Paths.get(System.getProperty("shard.manifest.dir", "reports/shards"));
+    static final String MANIFEST_PREFIX = "manifest-shard-";
+
+    // Durations frozen at the first plan, so later suites in this JVM plan the same way
+    // on every shard even after this shard has recorded new runs
+    private static volatile Map<String, Double> durations;
+    private static final Map<String, Map<String, Integer>> plans = new ConcurrentHashMap<>();
+    private static BufferedWriter manifest; // guarded by the class lock
+
+    static {
+        if (TOTAL > 1 && (INDEX < 1 || INDEX > TOTAL)) {
+            throw new IllegalArgumentException("shard.index must be between 1 and " + TOTAL + ", was " + INDEX);
+        }
+    }
+
+    private TestSharder() {
+    }
+
+    public static boolean isEnabled() {
+        return TOTAL > 1;
+    }
+
+    public static int getIndex() {
+        return INDEX;
+    }
+
+    public static int getTotal() {
+        return TOTAL;
+    }
+
+    /**
+     * Plan a suite: assign every method and known data row to a shard
+     * @param suite Suite about to run
+     */
+    public static void plan(ISuite suite) {
+        if (isEnabled()) {
+            planFor(suite);
+        }
+    }
+
+    /**
+     * Keep the methods of a &lt;test&gt; that run on this shard. Data-driven methods are
+     * always kept; their rows are filtered by {@link #filterRows}.
+     * @param methods Methods of the test
+     * @param context Test context
+     * @return Methods for this shard
+     */
+    public static List<IMethodInstance> filterMethods(List<IMethodInstance> methods, ITestContext context) {
+        if (!isEnabled()) {
+            return methods;
+        }
+        Map<String, Integer> plan = planFor(context.getSuite());
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            if (isDataDriven(method)) {
+                kept.add(instance);
+                continue;
+            }
+            int shard = shardOf(plan, method.getQualifiedName(), TOTAL);
+            writeManifest("P", context.getName(), method.getQualifiedName(), String.valueOf(shard));
+            if (shard == INDEX) {
+                kept.add(instance);
+            }
+        }
+        LOG.info("🧩 Shard " + INDEX + "/" + TOTAL + " runs " + kept.size() + " of " + methods.size()
+                + " methods in " + context.getName());
+        return kept;
+    }
+
+    /**
+     * Keep the data rows of a method that run on this shard
+     * @param rows Rows returned by the data provider
+     * @param method Data-driven test method
+     * @param context Test context
+     * @return Rows for this shard, in their original order
+     */
+    public static Iterator<Object[]> filterRows(Iterator<Object[]> rows, ITestNGMethod method, ITestContext context) {
+        if (!isEnabled()) {
+            return rows;
+        }
+        Map<String, Integer> plan = planFor(context.getSuite());
+        List<Object[]> kept = new ArrayList<>();
+        int total = 0;
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            total++;
+            String key = TestHistory.keyOf(method.getQualifiedName(), row);
+            int shard = shardOf(plan, key, TOTAL);
+            writeManifest("P", context.getName(), key, String.valueOf(shard));
+            if (shard == INDEX) {
+                kept.add(row);
+            }
+        }
+        LOG.info("🧩 Shard " + INDEX + "/" + TOTAL + " runs " + kept.size() + " of " + total
+                + " rows of " + method.getMethodName());
+        return kept.iterator();
+    }
+
+    /**
+     * Find the shard of a method or data row
+     * @param suite Suite it belongs to
+     * @param key History key (see {@link TestHistory#keyOf})
+     * @return Shard number, 1 to shard.total
+     */
+    public static int shardOf(ISuite suite, String key) {
+        return isEnabled() ? shardOf(planFor(suite), key, TOTAL) : 1;
+    }
+
+    /**
+     * Record in the manifest that a planned unit has finished on this shard (passed,
+     * failed or skipped, after any retries)
+     * @param result Final result of the test method or data row
+     */
+    public static void recordRun(ITestResult result) {
+        if (isEnabled()) {
+            writeManifest("R", result.getTestContext().getName(),
+                    TestHistory.keyOf(result.getMethod().getQualifiedName(), result.getParameters()));
+        }
+    }
+
+    // Package-private for unit tests
+    static int shardOf(Map<String, Integer> plan, String key, int total) {
+        Integer planned = plan.get(key);
+        if (planned != null) {
+            return planned;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % total) + 1;
+    }
+
+    private static Map<String, Integer> planFor(ISuite suite) {
+        return plans.computeIfAbsent(suite.getName(), name -> {
+            List<String> plainMethods = new ArrayList<>();
+            List<String> dataDrivenMethods = new ArrayList<>();
+            for (ITestNGMethod method : suite.getAllMethods()) {
+                (isDataDriven(method) ? dataDrivenMethods : plainMethods).add(method.getQualifiedName());
+            }
+            double[] load = new double[TOTAL];
+            Map<String, Integer> plan = planFor(plainMethods, dataDrivenMethods, frozenDurations(), TOTAL, load);
+            LOG.info(String.format("🧩 Planned %s across %d shards: %d known tests and rows, shard %d has %.1f s of %.1f s",
+                    name, TOTAL, plan.size(), INDEX, load[INDEX - 1] / 1000.0,
+                    Arrays.stream(load).sum() / 1000.0));
+            return plan;
+        });
+    }
+
+    /**
+     * Deal known units out to shards, longest first to the least-loaded shard. The result
+     * depends only on the arguments' contents, not on their iteration order.
+     * @param plainMethods Qualified names of methods without a data provider
+     * @param dataDrivenMethods Qualified names of methods with a data provider
+     * @param known Average duration by history key
+     * @param total Number of shards
+     * @param load Receives the planned milliseconds per shard (length total)
+     * @return Shard (1 to total) by history key, for units with a known duration
+     */
+    static Map<String, Integer> planFor(Collection<String> plainMethods, Collection<String> dataDrivenMethods,
+                                        Map<String, Double> known, int total, double[] load) {
+        // Units in a fixed order (longest first, then by key) so every shard deals them alike
+        Map<String, Double> units = new TreeMap<>();
+        for (String qualified : dataDrivenMethods) {
+            String rowPrefix = qualified + "[";
+            known.forEach((key, millis) -> {
+                if (key.startsWith(rowPrefix)) {
+                    units.put(key, millis);
+                }
+            });
+        }
+        for (String qualified : plainMethods) {
+            if (known.containsKey(qualified)) {
+                units.put(qualified, known.get(qualified));
+            }
+        }
+        List<Map.Entry<String, Double>> ordered = new ArrayList<>(units.entrySet());
+        ordered.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+
+        Map<String, Integer> plan = new ConcurrentHashMap<>();
+        for (Map.Entry<String, Double> unit : ordered) {
+            int lightest = 0;
+            for (int shard = 1; shard < total; shard++) {
+                if (load[shard] < load[lightest]) {
+                    lightest = shard;
+                }
+            }
+            load[lightest] += unit.getValue();
+            plan.put(unit.getKey(), lightest + 1);
+        }
+        return plan;
+    }
+
+    private static synchronized void writeManifest(String... fields) {
+        try {
+            if (manifest == null) {
+                Files.createDirectories(MANIFEST_DIR);
+                manifest = Files.newBufferedWriter(
+                        MANIFEST_DIR.resolve(MANIFEST_PREFIX + INDEX + "of" + TOTAL + ".tsv"), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            }
+            manifest.write(String.join("\t", fields));
+            manifest.newLine();
+            manifest.flush(); // A shard that dies still leaves what it planned and ran
+        } catch (IOException e) {
+            LOG.warn("⚠️ Could not write shard manifest: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Double> frozenDurations() {
+        if (durations == null) {
+            synchronized (TestSharder.class) {
+                if (durations == null) {
+                    durations = TestHistory.shared().snapshotAvgMillis();
+                }
+            }
+        }
+        return durations;
+    }
+
+    // The data provider is only resolved when the method runs, so look at the annotation
+    private static boolean isDataDriven(ITestNGMethod method) {
+        Method javaMethod = method.getConstructorOrMethod().getMethod();
+        Test test = javaMethod != null ? javaMethod.getAnnotation(Test.class) : null;
+        if (test == null) {
+            Class<?> testClass = method.getRealClass();
+            test = testClass.getAnnotation(Test.class);
+        }
+        return test != null && (!test.dataProvider().isEmpty() || test.dataProviderClass() != Object.class);
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * TestSteps runs a test as named steps and retries a step on its own when it fails
+ * transiently, instead of letting the whole test (new browser, homepage, search, ...)
+ * run again.
+ *
+ * After each completed step a checkpoint is captured (e.g. the current URL). Before a
+ * failed step is retried, the page is restored from the last checkpoint, so the step
+ * starts from the state the previous step left behind.
+ *
+ * - Only failures {@link FailureClassifier} calls transient are retried; others fail
+ *   the step (and the test) immediately
+ * - A step that still fails transiently when its retries, the suite budget or its time
+ *   run out throws {@link StepFailedException}, which is not retried as a whole test
+ * - Step retries use the same jittered backoff and suite-wide budget as test retries
+ *   ({@link RetryPolicy})
+ * - Every step is logged to the report with its attempt count and duration
+ * - Each step runs under its own {@link Deadline}: the test's step budget or what the
+ *   test has left, whichever is smaller; retries share it and stop when it runs out
+ *
+ * Example:
+ *   TestSteps steps = TestSteps.withCheckpoint(BasePage::getCurrentUrl, BasePage::navigateToUrl);
+ *   steps.run("Search", () -> searchProduct(term));
+ *   steps.run("Click result", () -> clickSearchResult(index));
+ *   steps.finish();
+ *
+ * Instances belong to one test invocation and are not shared between threads.
+ *
+ * Configuration (system properties):
+ * - retry.step.max   retries per step (default: retry.max)
+ */
+public class TestSteps {
+    private static final FrameworkLogger LOG = FrameworkLogger.get(TestSteps.class);
+    private static final int MAX_STEP_RETRIES = Integer.getInteger("retry.step.max", RetryPolicy.getMaxRetries());
+
+    private final Supplier<String> capture;
+    private final Consumer<String> restore;
+    private final List<StepRecord> completed = new ArrayList<>();
+    private String checkpoint;
+
+    /**
+     * Thrown when a step still fails transiently after its own retries, or when the suite
+     * retry budget or the step's time budget leaves no room for another one. The step's
+     * last failure is the cause. The step already had its retries, so
+     * {@link FailureClassifier} treats this as deterministic and the test is not rerun.
+     */
+    public static class StepFailedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        StepFailedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * A step body; may throw checked exceptions
+     */
+    @FunctionalInterface
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    /**
+     * Outcome of one step
+     */
+    public static class StepRecord {
+        private final String name;
+        private final int attempts;
+        private final long millis;
+        private final String checkpoint;
+
+        StepRecord(String name, int attempts, long millis, String checkpoint) {
+            this.name = name;
+            this.attempts = attempts;
+            this.millis = millis;
+            this.checkpoint = checkpoint;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        /**
+         * @return Checkpoint captured after the step, or null
+         */
+        public String getCheckpoint() {
+            return checkpoint;
+        }
+    }
+
+    private TestSteps(Supplier<String> capture, Consumer<String> restore) {
+        this.capture = capture;
+        this.restore = restore;
+    }
+
+    /**
+     * Steps without checkpoints: a failed step is retried from wherever it failed
+     * @return New step runner
+     */
+    public static TestSteps begin() {
+        return new TestSteps(null, null);
+    }
+
+    /**
+     * Steps with checkpoints
+     * @param capture Captures state after a completed step, e.g. BasePage::getCurrentUrl
+     * @param restore Restores a captured state before a retry, e.g. BasePage::navigateToUrl
+     * @return New step runner
+     */
+    public static TestSteps withCheckpoint(Supplier<String> capture, Consumer<String> restore) {
+        return new TestSteps(capture, restore);
+    }
+
+    /**
+     * Run a step, retrying it on transient failures
+     * @param name Step name shown in logs and the report
+     * @param step Step body
+     * @throws StepFailedException if the step still fails transiently when it cannot be retried again
+     * @throws Exception the step's failure if it is not transient
+     */
+    public void run(String name, Step step) throws Exception {
+        FrameworkLogger.putContext("step", name);
+        long stepStart = System.currentTimeMillis();
+        int attempt = 1;
+        try (Deadline.Scope budget = Deadline.forStep(name)) {
+            while (true) {
+                long attemptStart = System.currentTimeMillis();
+                try {
+                    step.run();
+                    break;
+                } catch (Exception e) {
+                    String transientCause = FailureClassifier.describeTransient(e);
+                    if (transientCause == null) {
+                        ExtentReportManager.logFail("Step '" + name + "' failed after " + attempt + " attempt(s): "
+                                + e.getClass().getSimpleName());
+                        throw e;
+                    }
+                    if (attempt > MAX_STEP_RETRIES) {
+                        throw exhausted(name, "failed after " + attempt + " attempt(s): " + transientCause, e);
+                    }
+                    long backoff = RetryPolicy.retryStep(attempt, System.currentTimeMillis() - attemptStart,
+                            budget.getRemainingMillis());
+                    if (backoff == RetryPolicy.NO_TIME) {
+                        throw exhausted(name, "failed (" + transientCause + "); no time left in its budget for a retry", e);
+                    }
+                    if (backoff == RetryPolicy.NO_BUDGET) {
+                        throw exhausted(name, "failed (" + transientCause + "); suite retry budget used up", e);
+                    }
+                    ExtentReportManager.logWarning("Step '" + name + "' failed (" + transientCause + "), retry "
+                            + attempt + "/" + MAX_STEP_RETRIES + " after " + backoff + " ms"
+                            + (checkpoint != null ? " from checkpoint " + checkpoint : ""));
+                    restoreCheckpoint(name);
+                    attempt++;
+                }
+            }
+        } finally {
+            FrameworkLogger.removeContext("step");
+        }
+
+        long millis = System.currentTimeMillis() - stepStart;
+        checkpoint = captureCheckpoint(name);
+        completed.add(new StepRecord(name, attempt, millis, checkpoint));
+        ExtentReportManager.logPass("Step '" + name + "' completed in " + millis + " ms ("
+                + attempt + (attempt == 1 ? " attempt)" : " attempts)"));
+    }
+
+    /**
+     * Log a summary of all steps to the report
+     */
+    public void finish() {
+        StringBuilder summary = new StringBuilder("Steps: ");
+        int retries = 0;
+        for (int i = 0; i < completed.size(); i++) {
+            StepRecord record = completed.get(i);
+            summary.append(i > 0 ? ", " : "").append(record.getName())
+                    .append(" ×").append(record.getAttempts())
+                    .append(" (").append(record.getMillis()).append(" ms)");
+            retries += record.getAttempts() - 1;
+        }
+        ExtentReportManager.logInfo(summary.append(" - ").append(retries).append(" step retries").toString());
+    }
+
+    /**
+     * Get the steps completed so far, in order
+     * @return Step records
+     */
+    public List<StepRecord> getCompleted() {
+        return Collections.unmodifiableList(completed);
+    }
+
+    private String captureCheckpoint(String name) {
+        if (capture == null) {
+            return null;
+        }
+        try {
+            return capture.get();
+        } catch (RuntimeException e) {
+            LOG.warn("⚠️ Could not capture checkpoint after step '" + name + "': " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static StepFailedException exhausted(String name, String why, Exception last) {
+        String message = "Step '" + name + "' " + why;
+        ExtentReportManager.logFail(message);
+        return new StepFailedException(message, last);
+    }
+
+    private void restoreCheckpoint(String name) {
+        if (restore == null || checkpoint == null) {
+            return;
+        }
+        try {
+            restore.accept(checkpoint);
+        } catch (RuntimeException e) {
+            LOG.warn("⚠️ Could not restore checkpoint before retrying step '" + name + "': " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * TimeBudget sets the time budget of a test method (or every test in a class), overriding
+ * the suite's "test-timeout" and "timeout" parameters. Enforced by {@link DeadlineListener}
+ * through {@link Deadline}.
+ *
+ * Example:
+ *   @TimeBudget(testSeconds = 90, stepSeconds = 20)
+ *   @Test
+ *   public void testAmazonHomepageLinks() { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface TimeBudget {
+    /**
+     * @return Seconds the whole test may take, 0 = suite default
+     */
+    long testSeconds() default 0;
+
+    /**
+     * @return Seconds each step may take, 0 = suite default
+     */
+    long stepSeconds() default 0;
+}
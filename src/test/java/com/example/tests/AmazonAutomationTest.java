@@ -1,19 +1,36 @@
 package com.example.tests;
 
 import org.testng.annotations.*;
+import com.example.pages.AdaptiveWait;
 import com.example.pages.BasePage;
+import com.example.pages.LaunchProfile;
 import com.example.pages.AmazonHomePage;
 import com.example.pages.AmazonSearchResultsPage;
 import com.example.pages.AmazonProductPage;
+import com.example.pages.LocatorSet;
+import com.example.pages.PageReadiness;
+import com.example.pages.WebDriverPool;
 import com.example.utils.ExtentReportManager;
 import com.example.utils.CSVDataReader;
+import com.example.utils.CsvSchema;
+import com.example.utils.CsvSnapshotCache;
 import com.example.utils.RetryAnalyzer;
+import com.example.utils.TestScheduler;
+import com.example.utils.TestSteps;
+import org.testng.ITestContext;
+import java.lang.reflect.Method;
+import java.util.Iterator;
 
 public class AmazonAutomationTest {
-    // Page Object instances
-    private AmazonHomePage homePage;
-    private AmazonSearchResultsPage searchResultsPage;
-    private AmazonProductPage productPage;
+    // Page Object instances: they hold only locators and use the calling thread's
+    // browser session, so rows running in parallel can share them
+    private final AmazonHomePage homePage = new AmazonHomePage();
+    private final AmazonSearchResultsPage searchResultsPage = new AmazonSearchResultsPage();
+    private final AmazonProductPage productPage = new AmazonProductPage();
+    
+    private static final CsvSchema SEARCH_DATA_SCHEMA = new CsvSchema()
+            .column("SearchTerm", CsvSchema.Type.STRING)
+            .column("ResultIndex", CsvSchema.Type.INT);
     
     @BeforeClass
     public void setupClass() {
@@ -24,13 +41,9 @@ public class AmazonAutomationTest {
     
     @BeforeMethod
     public void setupTest() {
-        // Initialize browser and page objects before each test
+        // Initialize a browser for this test (or data row) on the current thread
         BasePage.initializeBrowser();
         
-        homePage = new AmazonHomePage();
-        searchResultsPage = new AmazonSearchResultsPage();
-        productPage = new AmazonProductPage();
-        
         ExtentReportManager.logInfo("Browser initialized for test");
     }
     
@@ -44,15 +57,28 @@ public class AmazonAutomationTest {
     @AfterClass
     public void tearDownClass() {
         // Generate final report after all tests
+        ExtentReportManager.addSystemInfo("Browser startup", LaunchProfile.getStartupSummary());
         ExtentReportManager.flushReports();
         System.out.println("📊 Test Suite Completed - Report: " + ExtentReportManager.getReportPath());
+        System.out.println("♻️ " + WebDriverPool.getStatsSummary());
+        System.out.println("🚀 " + LaunchProfile.getStartupSummary());
+        System.out.println("⏱️ " + PageReadiness.getSummary());
+        System.out.println("🎯 " + LocatorSet.getStatsSummary());
+        System.out.println("⏱️ " + AdaptiveWait.getStatsSummary());
+        System.out.println("🗂️ " + CsvSnapshotCache.getStatsSummary());
     }
     
-    @DataProvider(name = "amazonSearchData")
-    public Object[][] getAmazonSearchData() {
-        // Read from test resources directory
+    // Rows run concurrently, each with its own browser and report node; the suite's
+    // data-provider-thread-count sets how many at once (1 = one after another)
+    @DataProvider(name = "amazonSearchData", parallel = true)
+    public Iterator<Object[]> getAmazonSearchData(ITestContext context, Method method) {
+        // Typed rows from test resources directory; -Ddata.where="ResultIndex=0" runs a subset
         String csvFilePath = "src/test/resources/testdata.csv";
-        return CSVDataReader.readCSVData(csvFilePath);
+        // Slowest rows (by recorded duration) start first so threads finish together
+        return TestScheduler.longestFirst(context, method, CSVDataReader.query(csvFilePath)
+                .where(System.getProperty("data.where"))
+                .select(SEARCH_DATA_SCHEMA)
+                .iterator());
     }
     
     @Test(dataProvider = "amazonSearchData", 
@@ -60,22 +86,26 @@ public class AmazonAutomationTest {
           retryAnalyzer = RetryAnalyzer.class,
           priority = 2,
           groups = {"regression", "search", "e2e", "high"})
-    public void testAmazonProductSearch(String searchTerm, String resultIndex) throws InterruptedException {
-        int index = Integer.parseInt(resultIndex);
+    public void testAmazonProductSearch(String searchTerm, int index) throws Exception {
         String testName = "Amazon_Search_" + searchTerm.replace(" ", "_");
         String testDescription = "Search for '" + searchTerm + "' and click result at index " + index;
         
         // Create test in report
-        ExtentReportManager.createTest(testName, testDescription);
+        ExtentReportManager.startTest(testName, testDescription);
         ExtentReportManager.addCategory("Amazon Automation");
         ExtentReportManager.addAuthor("Test Framework");
         
+        // A transient failure retries only the failed step, starting again from the page
+        // the previous step ended on, instead of re-running the whole test
+        TestSteps steps = TestSteps.withCheckpoint(BasePage::getCurrentUrl, BasePage::navigateToUrl);
+        
         try {
             // Test Steps
-            searchProduct(searchTerm);
-            clickSearchResult(index);
-            scrollToElement("//span[@aria-label='Videos for similar products']");
-            scrollBottomAndTop();
+            steps.run("Search", () -> searchProduct(searchTerm));
+            steps.run("Click result", () -> clickSearchResult(index));
+            steps.run("Scroll to videos", () -> scrollToElement("//span[@aria-label='Videos for similar products']"));
+            steps.run("Scroll bottom and top", this::scrollBottomAndTop);
+            steps.finish();
             
             // Mark test as passed
             String passScreenshot = BasePage.takePassScreenshot(testName);
@@ -96,7 +126,7 @@ public class AmazonAutomationTest {
           priority = 1,
           groups = {"smoke", "homepage", "sanity", "critical"})
     public void testAmazonHomepage() {
-        ExtentReportManager.createTest("Amazon_Homepage_Test", "Test Amazon homepage loading and basic elements");
+        ExtentReportManager.startTest("Amazon_Homepage_Test", "Test Amazon homepage loading and basic elements");
         ExtentReportManager.addCategory("Smoke Test");
         
         try {
@@ -133,7 +163,7 @@ public class AmazonAutomationTest {
         ExtentReportManager.logPass("Successfully searched for: " + searchTerm);
     }
     
-    private void clickSearchResult(int index) throws InterruptedException {
+    private void clickSearchResult(int index) {
         ExtentReportManager.logInfo("Clicking on search result at index: " + index);
         
         String beforeClickScreenshot = BasePage.takeStepScreenshot("SearchResults_Before_Click");
@@ -149,7 +179,11 @@ public class AmazonAutomationTest {
     private void scrollToElement(String xpath) {
         ExtentReportManager.logInfo("Scrolling to element: " + xpath);
         try {
-            productPage.scrollToElement(xpath);
+            if (!productPage.scrollToElement(xpath)) {
+                // Optional section; many product pages don't have it
+                ExtentReportManager.logInfo("Element not on this page, skipped: " + xpath);
+                return;
+            }
             String screenshotPath = BasePage.takeStepScreenshot("Element_Found");
             ExtentReportManager.addScreenshot(screenshotPath, "Element found and scrolled to: " + xpath);
             ExtentReportManager.logPass("Successfully scrolled to element: " + xpath);
@@ -161,7 +195,7 @@ public class AmazonAutomationTest {
         }
     }
     
-    private void scrollBottomAndTop() throws InterruptedException {
+    private void scrollBottomAndTop() {
         ExtentReportManager.logInfo("Performing page scroll - bottom and top");
         
         productPage.scrollBottomAndTop();
@@ -2,18 +2,29 @@ package com.example.tests;
 
 import org.testng.annotations.*;
 import com.example.pages.BasePage;
+import com.example.pages.DomRow;
 import com.example.utils.ExtentReportManager;
+import com.example.utils.LinkChecker;
+import com.example.utils.LinkVerdictCache;
 import com.example.utils.RetryAnalyzer;
+import com.example.utils.TestScheduler;
+import com.example.utils.TimeBudget;
 import org.openqa.selenium.By;
-import org.openqa.selenium.WebElement;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import org.testng.ITestContext;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
 
 public class BrokenLinksTest {
-    private List<String> brokenLinks = new ArrayList<>();
-    private List<String> workingLinks = new ArrayList<>();
+    
+    // Link results of one test invocation; kept per call so URLs checked in parallel
+    // don't share lists
+    private static class LinkTally {
+        private final List<String> brokenLinks = new ArrayList<>();
+        private final List<String> workingLinks = new ArrayList<>();
+    }
     
     @BeforeClass
     public void setupClass() {
@@ -24,8 +35,6 @@ public class BrokenLinksTest {
     @BeforeMethod
     public void setupTest() {
         BasePage.initializeBrowser();
-        brokenLinks.clear();
-        workingLinks.clear();
         ExtentReportManager.logInfo("Browser initialized for broken links test");
     }
     
@@ -41,13 +50,15 @@ public class BrokenLinksTest {
         System.out.println("📊 Broken Links Test Suite Completed - Report: " + ExtentReportManager.getReportPath());
     }
     
-    @DataProvider(name = "testUrls")
-    public Object[][] getTestUrls() {
-        return new Object[][] {
+    @DataProvider(name = "testUrls", parallel = true)
+    public Iterator<Object[]> getTestUrls(ITestContext context, Method method) {
+        Object[][] urls = new Object[][] {
             {"https://www.amazon.com"},
             {"https://www.example.com"},
             // Add more URLs as needed
         };
+        // Crawl the pages that took longest last time first
+        return TestScheduler.longestFirst(context, method, Arrays.asList(urls).iterator());
     }
     
     @Test(dataProvider = "testUrls", 
@@ -55,17 +66,22 @@ public class BrokenLinksTest {
           retryAnalyzer = RetryAnalyzer.class,
           priority = 3,
           groups = {"regression", "links", "validation", "medium"})
+    @TimeBudget(testSeconds = 90) // One page load plus the link-check budget
     public void testBrokenLinks(String url) {
         String testName = "Broken_Links_Test_" + url.replace("https://", "").replace(".", "_");
-        ExtentReportManager.createTest(testName, "Check for broken links on: " + url);
+        ExtentReportManager.startTest(testName, "Check for broken links on: " + url);
         ExtentReportManager.addCategory("Link Validation");
         ExtentReportManager.addAuthor("Test Framework");
         
+        LinkTally tally = new LinkTally();
+        List<String> brokenLinks = tally.brokenLinks;
+        List<String> workingLinks = tally.workingLinks;
+        
         try {
-            checkLinksOnUrl(url);
+            checkLinksOnUrl(url, tally);
             
             // Generate summary
-            generateLinkCheckSummary();
+            generateLinkCheckSummary(tally);
             
             // Determine test status
             if (brokenLinks.size() == 0) {
@@ -98,8 +114,9 @@ public class BrokenLinksTest {
           priority = 2,
           groups = {"smoke", "links", "sanity", "high"})
     public void testAmazonHomepageLinks() {
-        ExtentReportManager.createTest("Amazon_Homepage_Links", "Validate links on Amazon homepage");
+        ExtentReportManager.startTest("Amazon_Homepage_Links", "Validate links on Amazon homepage");
         ExtentReportManager.addCategory("Smoke Test");
+        LinkTally tally = new LinkTally();
         
         try {
             BasePage.navigateToUrl("https://www.amazon.com");
@@ -108,27 +125,24 @@ public class BrokenLinksTest {
             ExtentReportManager.addScreenshot(screenshotPath, "Amazon homepage loaded");
             
             // Get first 5 links only for quick test
-            List<WebElement> links = BasePage.getDriver().findElements(By.tagName("a"));
+            List<DomRow> links = BasePage.extractRows(By.tagName("a"), "href");
             int linksToCheck = Math.min(5, links.size());
             
             ExtentReportManager.logInfo("Checking first " + linksToCheck + " links on Amazon homepage");
             
-            for (int i = 0; i < linksToCheck; i++) {
-                String href = links.get(i).getAttribute("href");
+            List<String> hrefs = new ArrayList<>();
+            for (DomRow link : links.subList(0, linksToCheck)) {
+                String href = link.getPropertyAsString("href");
                 if (isValidLink(href)) {
-                    boolean isBroken = isLinkBroken(href);
-                    if (!isBroken) {
-                        workingLinks.add(href);
-                    } else {
-                        brokenLinks.add(href);
-                    }
+                    hrefs.add(href);
                 }
             }
+            checkLinks(hrefs, tally);
             
-            if (brokenLinks.size() == 0) {
+            if (tally.brokenLinks.size() == 0) {
                 ExtentReportManager.markTestPassed("✅ All checked links are working");
             } else {
-                ExtentReportManager.logWarning("Found " + brokenLinks.size() + " broken links out of " + linksToCheck + " checked");
+                ExtentReportManager.logWarning("Found " + tally.brokenLinks.size() + " broken links out of " + linksToCheck + " checked");
             }
             
         } catch (Exception e) {
@@ -140,49 +154,35 @@ public class BrokenLinksTest {
     }
     
     // Helper methods
-    private void checkLinksOnUrl(String url) {
+    private void checkLinksOnUrl(String url, LinkTally tally) {
         ExtentReportManager.logInfo("Navigating to URL for link testing: " + url);
         BasePage.navigateToUrl(url);
         
         String navigationScreenshot = BasePage.takeStepScreenshot("Navigation_Complete");
         ExtentReportManager.addScreenshot(navigationScreenshot, "Successfully navigated to: " + url);
         
-        checkLinksOnCurrentPage();
+        checkLinksOnCurrentPage(tally);
     }
     
-    private void checkLinksOnCurrentPage() {
+    private void checkLinksOnCurrentPage(LinkTally tally) {
         try {
             String currentUrl = BasePage.getCurrentUrl();
             ExtentReportManager.logInfo("Checking links on page: " + currentUrl);
             
-            BasePage.waitFor(3000);
+            BasePage.waitForPageReady(3000);
             
-            List<WebElement> links = BasePage.getDriver().findElements(By.tagName("a"));
+            // One script call for every anchor instead of a round trip per getAttribute
+            List<DomRow> links = BasePage.extractRows(By.tagName("a"), "href");
             ExtentReportManager.logInfo("Total links found on page: " + links.size());
             
-            int checkedLinks = 0;
-            for (WebElement link : links) {
-                String href = link.getAttribute("href");
-                
+            List<String> hrefs = new ArrayList<>();
+            for (DomRow link : links) {
+                String href = link.getPropertyAsString("href");
                 if (isValidLink(href)) {
-                    checkedLinks++;
-                    ExtentReportManager.logInfo("Checking link " + checkedLinks + ": " + href);
-                    
-                    if (isLinkBroken(href)) {
-                        brokenLinks.add(href);
-                    } else {
-                        workingLinks.add(href);
-                    }
-                    
-                    BasePage.waitFor(100);
-                    
-                    // Limit to first 20 links for performance
-                    if (checkedLinks >= 20) {
-                        ExtentReportManager.logInfo("Limited check to first 20 links for performance");
-                        break;
-                    }
+                    hrefs.add(href);
                 }
             }
+            checkLinks(hrefs, tally);
             
         } catch (Exception e) {
             ExtentReportManager.logFail("Error during link checking: " + e.getMessage());
@@ -190,27 +190,29 @@ public class BrokenLinksTest {
         }
     }
     
-    private boolean isLinkBroken(String url) {
-        try {
-            URL link = new URL(url);
-            HttpURLConnection httpURLConnection = (HttpURLConnection) link.openConnection();
-            httpURLConnection.setConnectTimeout(5000);
-            httpURLConnection.setReadTimeout(5000);
-            httpURLConnection.setRequestMethod("HEAD");
-            httpURLConnection.connect();
-            
-            int responseCode = httpURLConnection.getResponseCode();
-            
-            if (responseCode >= 400) {
-                ExtentReportManager.logFail("Broken Link: " + url + " (Response Code: " + responseCode + ")");
-                return true;
+    private void checkLinks(List<String> hrefs, LinkTally tally) {
+        // All links are probed concurrently; the budget replaces the old fixed 20-link cap.
+        // Links with a fresh verdict from a previous run are answered from the cache.
+        // The checker shortens the budget if the test has less time left.
+        LinkChecker.Report report = new LinkChecker()
+                .useCache(LinkVerdictCache.shared())
+                .checkAll(hrefs, LinkChecker.defaultBudget());
+        
+        for (LinkChecker.Result result : report.getResults()) {
+            if (result.isBroken()) {
+                tally.brokenLinks.add(result.getUrl());
+                ExtentReportManager.logFail("Broken Link: " + result);
             } else {
-                ExtentReportManager.logPass("Working Link: " + url + " (Response Code: " + responseCode + ")");
-                return false;
+                tally.workingLinks.add(result.getUrl());
+                ExtentReportManager.logPass("Working Link: " + result);
             }
-        } catch (Exception e) {
-            ExtentReportManager.logFail("Exception for Link: " + url + " - " + e.getMessage());
-            return true;
+        }
+        
+        ExtentReportManager.logInfo("Checked " + report.getResults().size() + " unique links in "
+                + report.getElapsedMillis() + " ms (" + report.getCachedCount() + " from verdict cache)");
+        if (!report.getUnchecked().isEmpty()) {
+            ExtentReportManager.logWarning(report.getUnchecked().size()
+                    + " links not checked within the time budget (" + report.getElapsedMillis() + " ms)");
         }
     }
     
@@ -224,9 +226,10 @@ public class BrokenLinksTest {
                (href.startsWith("http://") || href.startsWith("https://"));
     }
     
-    private void generateLinkCheckSummary() {
+    private void generateLinkCheckSummary(LinkTally tally) {
+        List<String> brokenLinks = tally.brokenLinks;
         ExtentReportManager.logInfo("=== Link Check Summary ===");
-        ExtentReportManager.logInfo("Working links: " + workingLinks.size());
+        ExtentReportManager.logInfo("Working links: " + tally.workingLinks.size());
         ExtentReportManager.logInfo("Broken links: " + brokenLinks.size());
         
         if (brokenLinks.size() > 0) {
@@ -0,0 +1,158 @@
+package com.example.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Offline unit tests for CsvQuery filter expressions and for CsvColumnIndex, which must
+ * return exactly what a full scan returns
+ */
+public class CsvQueryTest {
+
+    private Path csv;
+
+    @BeforeClass
+    public void writeCsv() throws IOException {
+        csv = Files.createTempFile("csv-query", ".csv");
+        StringBuilder content = new StringBuilder("Id,Term,Group,Note\n");
+        for (int i = 0; i < 300; i++) {
+            String note;
+            switch (i % 5) {
+                case 0:
+                    note = "\"spans\ntwo lines\"";
+                    break;
+                case 1:
+                    note = "\"has, a comma\"";
+                    break;
+                case 2:
+                    note = "\"quoted \"\"word\"\"\"";
+                    break;
+                case 3:
+                    note = "ünïcödé";
+                    break;
+                default:
+                    note = "";
+            }
+            content.append(i).append(',').append("term").append(i % 7).append(',')
+                    .append(i % 3).append(',').append(note).append('\n');
+        }
+        content.append("300,term-last,9"); // Short last row without a trailing newline
+        Files.write(csv, content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteCsv() throws IOException {
+        Files.deleteIfExists(csv);
+    }
+
+    @Test
+    public void equalityExpressionMatchesWhereEquals() {
+        Assert.assertEquals(ids(query().where("Group=1")), ids(query().whereEquals("Group", "1")));
+        Assert.assertEquals(ids(query().where("Group=1")).size(), 100);
+    }
+
+    @Test
+    public void alternativesMatchAnyValue() {
+        List<String> ids = ids(query().where("Term=term0|term1"));
+        Assert.assertFalse(ids.isEmpty());
+        for (Object[] row : query().where("Term=term0|term1").toArray()) {
+            Assert.assertTrue(row[1].equals("term0") || row[1].equals("term1"), Arrays.toString(row));
+        }
+    }
+
+    @Test
+    public void inequalityExcludesEveryValue() {
+        for (Object[] row : query().where("Group!=0|1").toArray()) {
+            Assert.assertFalse(row[2].equals("0") || row[2].equals("1"), Arrays.toString(row));
+        }
+        Assert.assertEquals(ids(query().where("Group!=0|1")).size(), 101); // 100 rows of group 2, plus group 9
+    }
+
+    @Test
+    public void clausesAreCombinedAndTrimmed() {
+        List<String> ids = ids(query().where(" Group = 0 ; Term != term0 ;"));
+        Assert.assertFalse(ids.isEmpty());
+        for (Object[] row : query().where("Group=0;Term!=term0").toArray()) {
+            Assert.assertEquals(row[2], "0");
+            Assert.assertNotEquals(row[1], "term0");
+        }
+        Assert.assertEquals(ids, ids(query().where("Group=0;Term!=term0")));
+    }
+
+    @Test
+    public void blankExpressionKeepsEveryRow() {
+        Assert.assertEquals(ids(query().where((String) null)).size(), 301);
+        Assert.assertEquals(ids(query().where("  ")).size(), 301);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void clauseWithoutColumnIsRejected() {
+        query().where("=1");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void clauseWithoutOperatorIsRejected() {
+        query().where("Group");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void unknownColumnIsRejected() {
+        query().where("Missing=1").toArray();
+    }
+
+    @Test
+    public void indexReturnsWhatAScanReturns() {
+        for (String column : new String[] {"Id", "Term", "Group", "Note"}) {
+            for (Object[] row : query().select(column).toArray()) {
+                String value = (String) row[0];
+                Assert.assertEquals(rows(query().whereEquals(column, value)),
+                        rows(query().whereEquals(column, value).withoutIndex()),
+                        column + "=" + value);
+            }
+        }
+        Assert.assertEquals(rows(query().whereEquals("Group", "no-such-value")), List.of());
+    }
+
+    @Test
+    public void indexKeepsFileOrderAndLimit() {
+        List<String> indexed = ids(query().whereEquals("Term", "term3").limit(5));
+        List<String> scanned = ids(query().whereEquals("Term", "term3").withoutIndex().limit(5));
+        Assert.assertEquals(indexed, scanned);
+        Assert.assertEquals(indexed, List.of("3", "10", "17", "24", "31"));
+    }
+
+    @Test
+    public void indexIsRebuiltWhenTheFileChanges() throws IOException {
+        Path copy = Files.createTempFile("csv-query-change", ".csv");
+        try {
+            Files.write(copy, "Id,Group\n1,a\n2,b\n".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(CsvColumnIndex.forColumn(copy.toString(), "Group").count("a"), 1);
+            Files.write(copy, "Id,Group\n1,a\n2,b\n3,a\n4,a\n".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(CsvColumnIndex.forColumn(copy.toString(), "Group").count("a"), 3);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    private CsvQuery query() {
+        return CsvQuery.from(csv.toString());
+    }
+
+    private static List<String> ids(CsvQuery query) {
+        return Arrays.stream(query.toArray()).map(row -> (String) row[0]).collect(Collectors.toList());
+    }
+
+    private static List<String> rows(CsvQuery query) {
+        return Arrays.stream(query.toArray()).map(Arrays::toString).collect(Collectors.toList());
+    }
+}
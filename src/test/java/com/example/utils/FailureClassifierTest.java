@@ -0,0 +1,126 @@
+package com.example.utils;
+
+import com.example.pages.AdaptiveWait;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+/**
+ * Offline unit tests for the transient/deterministic classification rules
+ */
+public class FailureClassifierTest {
+
+    @DataProvider(name = "transientFailures")
+    public Object[][] transientFailures() {
+        return new Object[][] {
+                {new TimeoutException("Expected condition failed")},
+                {new StaleElementReferenceException("stale element reference")},
+                {new SocketTimeoutException("Read timed out")},
+                {new RuntimeException("Step failed", new ConnectException("Connection refused"))},
+                {new WebDriverException("timeout: Timed out receiving message from renderer: 10.0")},
+                {new RuntimeException("java.net.SocketException: Connection reset")},
+                {new IllegalStateException("Link check returned HTTP 503")},
+                {new IllegalStateException("Server answered with status: 502")},
+                {new WebDriverException("invalid session id")},
+                {new RuntimeException("Request timed out after 5000 ms")},
+        };
+    }
+
+    @DataProvider(name = "deterministicFailures")
+    public Object[][] deterministicFailures() {
+        return new Object[][] {
+                {new AssertionError("expected [3] but found [2]")},
+                {new AssertionError("Read timed out", new SocketTimeoutException("Read timed out"))},
+                {new NoSuchElementException("no such element: #search")},
+                {new IllegalArgumentException("Bad INT value 'x' in column ResultIndex")},
+                {new IllegalStateException("Expected timeout of 30 s but was 20 s")},
+                {new IllegalStateException("page load timeout setting is invalid")},
+                {new IllegalStateException("Order code 5000 rejected")},
+                {new SessionNotCreatedException("This version of ChromeDriver only supports Chrome version 114")},
+                {new RuntimeException("Driver start failed",
+                        new SessionNotCreatedException("Could not start a new session", new ConnectException("refused")))},
+                {new Deadline.ExceededException("Time budget of 60.0 s for 'search' used up")},
+                {null},
+        };
+    }
+
+    @Test(dataProvider = "transientFailures")
+    public void transientFailuresAreRetried(Throwable failure) {
+        Assert.assertEquals(FailureClassifier.classify(failure), FailureClassifier.Kind.TRANSIENT, String.valueOf(failure));
+        Assert.assertNotNull(FailureClassifier.describeTransient(failure));
+    }
+
+    @Test(dataProvider = "deterministicFailures")
+    public void deterministicFailuresAreNotRetried(Throwable failure) {
+        Assert.assertEquals(FailureClassifier.classify(failure), FailureClassifier.Kind.DETERMINISTIC, String.valueOf(failure));
+        Assert.assertNull(FailureClassifier.describeTransient(failure));
+    }
+
+    @Test
+    public void reasonNamesTheTransientCause() {
+        Throwable failure = new RuntimeException("wrapper", new StaleElementReferenceException("gone"));
+        Assert.assertEquals(FailureClassifier.describeTransient(failure), "StaleElementReferenceException");
+    }
+
+    @Test
+    public void selfReferencingCauseDoesNotLoop() {
+        Throwable failure = new RuntimeException("no cause") {
+            @Override
+            public synchronized Throwable getCause() {
+                return this;
+            }
+        };
+        Assert.assertNull(FailureClassifier.describeTransient(failure));
+    }
+
+    @AfterMethod
+    public void closeBudget() {
+        Deadline.clear();
+    }
+
+    @Test
+    public void cappedWaitRunningOutOfBudgetIsNotRetried() {
+        Deadline.forTest("capped", Duration.ofMillis(150), Duration.ofMillis(150));
+        try {
+            new AdaptiveWait.Wait(offlineDriver(), Duration.ofSeconds(5)).until(driver -> false);
+            Assert.fail("wait should have run out");
+        } catch (Deadline.ExceededException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException, String.valueOf(e.getCause()));
+            Assert.assertEquals(FailureClassifier.classify(e), FailureClassifier.Kind.DETERMINISTIC);
+        }
+    }
+
+    @Test
+    public void waitTimingOutWithinBudgetIsStillRetried() {
+        Deadline.forTest("roomy", Duration.ofSeconds(10), Duration.ofSeconds(10));
+        try {
+            new AdaptiveWait.Wait(offlineDriver(), Duration.ofMillis(100)).until(driver -> false);
+            Assert.fail("wait should have timed out");
+        } catch (TimeoutException e) {
+            Assert.assertEquals(FailureClassifier.classify(e), FailureClassifier.Kind.TRANSIENT);
+        }
+    }
+
+    // Just enough of a driver for a wait on a condition that never touches the page
+    private static WebDriver offlineDriver() {
+        ClassLoader loader = FailureClassifierTest.class.getClassLoader();
+        WebDriver.Timeouts timeouts = (WebDriver.Timeouts) Proxy.newProxyInstance(loader,
+                new Class<?>[] {WebDriver.Timeouts.class}, (proxy, method, args) -> Duration.ZERO);
+        WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(loader,
+                new Class<?>[] {WebDriver.Options.class}, (proxy, method, args) -> timeouts);
+        return (WebDriver) Proxy.newProxyInstance(loader,
+                new Class<?>[] {WebDriver.class}, (proxy, method, args) -> options);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.utils;
+
+import org.openqa.selenium.TimeoutException;
+import org.testng.Assert;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline unit tests for the jittered backoff and the suite retry budget
+ */
+public class RetryPolicyTest {
+
+    @BeforeMethod
+    public void resetBudget() {
+        RetryPolicy.reset();
+    }
+
+    @Test
+    public void backoffGrowsExponentiallyWithinJitterBounds() {
+        for (int attempt = 1; attempt <= 5; attempt++) {
+            long exponential = 500L << (attempt - 1);
+            for (int i = 0; i < 200; i++) {
+                long backoff = RetryPolicy.backoffFor(attempt, 500, 60000);
+                Assert.assertTrue(backoff >= exponential / 2 && backoff <= exponential,
+                        "attempt " + attempt + ": " + backoff + " not in [" + exponential / 2 + ", " + exponential + "]");
+            }
+        }
+    }
+
+    @Test
+    public void backoffIsJittered() {
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            seen.add(RetryPolicy.backoffFor(3, 500, 60000));
+        }
+        Assert.assertTrue(seen.size() > 10, "Only " + seen.size() + " distinct backoffs");
+    }
+
+    @Test
+    public void backoffIsCappedAndNeverOverflows() {
+        for (int attempt : new int[] {6, 30, 64, 1000, Integer.MAX_VALUE}) {
+            long backoff = RetryPolicy.backoffFor(attempt, 500, 8000);
+            Assert.assertTrue(backoff >= 4000 && backoff <= 8000, "attempt " + attempt + ": " + backoff);
+        }
+        Assert.assertEquals(RetryPolicy.backoffFor(1, 0, 8000), 0);
+        Assert.assertTrue(RetryPolicy.backoffFor(0, 500, 8000) <= 500);
+    }
+
+    @Test
+    public void budgetIsSharedAndNeverOverdrawn() throws InterruptedException {
+        int budget = RetryPolicy.getBudget();
+        if (budget < 0) {
+            return; // Unlimited budget configured for this run
+        }
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < budget * 10; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (RetryPolicy.takeFromBudget()) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        Assert.assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(granted.get(), budget);
+        Assert.assertFalse(RetryPolicy.takeFromBudget());
+        Assert.assertTrue(RetryPolicy.getStatsSummary().contains("budget " + budget + "/" + budget),
+                RetryPolicy.getStatsSummary());
+    }
+
+    @Test
+    public void resetRefillsTheBudget() {
+        while (RetryPolicy.getBudget() >= 0 && RetryPolicy.takeFromBudget()) {
+            // Drain it
+        }
+        RetryPolicy.reset();
+        Assert.assertTrue(RetryPolicy.takeFromBudget());
+    }
+
+    @Test
+    public void exhaustedBudgetRefusesStepRetriesWithoutWaiting() {
+        if (RetryPolicy.getBudget() < 0) {
+            return;
+        }
+        while (RetryPolicy.takeFromBudget()) {
+            // Drain it
+        }
+        long start = System.currentTimeMillis();
+        Assert.assertEquals(RetryPolicy.retryStep(1, 100, 60000), RetryPolicy.NO_BUDGET);
+        Assert.assertTrue(System.currentTimeMillis() - start < 100);
+    }
+
+    @Test
+    public void stepWithoutTimeForTheBackoffKeepsTheBudgetAndDoesNotWait() {
+        long start = System.currentTimeMillis();
+        Assert.assertEquals(RetryPolicy.retryStep(1, 100, 0), RetryPolicy.NO_TIME);
+        Assert.assertTrue(System.currentTimeMillis() - start < 100);
+        Assert.assertTrue(RetryPolicy.getStatsSummary().startsWith("Retries: 0 retried"), RetryPolicy.getStatsSummary());
+    }
+
+    @Test
+    public void passingTestForgetsItsRetries() {
+        if (RetryPolicy.getMaxRetries() < 2 || RetryPolicy.getBudget() == 0) {
+            return;
+        }
+        Object instance = new Object();
+        ITestResult failed = result(instance, false);
+        Assert.assertEquals(RetryPolicy.decide(failed).getAttempt(), 1);
+        RetryPolicy.clearAttempts(result(instance, true));
+        // A later failure of the same invocation starts over instead of counting on
+        Assert.assertEquals(RetryPolicy.decide(failed).getAttempt(), 1);
+    }
+
+    private static ITestResult result(Object instance, boolean success) {
+        ClassLoader loader = RetryPolicyTest.class.getClassLoader();
+        ITestNGMethod method = (ITestNGMethod) Proxy.newProxyInstance(loader,
+                new Class<?>[] {ITestNGMethod.class}, (proxy, m, args) -> "demo.FlakyTest.run");
+        return (ITestResult) Proxy.newProxyInstance(loader, new Class<?>[] {ITestResult.class}, (proxy, m, args) -> {
+            switch (m.getName()) {
+                case "getMethod":
+                    return method;
+                case "getParameters":
+                    return new Object[0];
+                case "getInstance":
+                    return instance;
+                case "isSuccess":
+                    return success;
+                case "getThrowable":
+                    return success ? null : new TimeoutException("page load");
+                case "getStartMillis":
+                case "getEndMillis":
+                    return 0L;
+                default:
+                    return null;
+            }
+        });
+    }
+}
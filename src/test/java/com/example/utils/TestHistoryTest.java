@@ -0,0 +1,53 @@
+package com.example.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Offline unit tests for saving and reloading the test history file
+ */
+public class TestHistoryTest {
+
+    @Test
+    public void historySurvivesCommaDecimalLocale() throws IOException {
+        Path file = Files.createTempDirectory("history").resolve("test-history.tsv");
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            TestHistory history = new TestHistory(file);
+            history.record("a.Login.valid", TestHistory.Outcome.FAIL, 1500, 1);
+            history.record("a.Login.valid", TestHistory.Outcome.PASS, 1200, 0);
+            history.save();
+        } finally {
+            Locale.setDefault(previous);
+        }
+
+        TestHistory.Entry entry = new TestHistory(file).get("a.Login.valid");
+        Assert.assertNotNull(entry, Files.readString(file));
+        Assert.assertEquals(entry.getRuns(), 2);
+        Assert.assertEquals(entry.getFailures(), 1);
+        Assert.assertTrue(entry.getFailureScore() > 0 && entry.getFailureScore() < 1, "score " + entry.getFailureScore());
+    }
+
+    @Test
+    public void saveKeepsWhatOtherHistoriesSaved() throws IOException {
+        Path file = Files.createTempDirectory("history").resolve("test-history.tsv");
+        TestHistory first = new TestHistory(file);
+        TestHistory second = new TestHistory(file);
+        first.record("a.Cart.add", TestHistory.Outcome.PASS, 900, 0);
+        second.record("a.Cart.remove", TestHistory.Outcome.PASS, 400, 0);
+        first.save();
+        second.save();
+
+        TestHistory reloaded = new TestHistory(file);
+        Assert.assertNotNull(reloaded.get("a.Cart.add"));
+        Assert.assertNotNull(reloaded.get("a.Cart.remove"));
+        Assert.assertNotNull(second.get("a.Cart.add"), "second sees first's entry after its save");
+        Assert.assertEquals(second.get("a.Cart.remove").getRuns(), 1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Offline unit tests for shard planning and the merger's exactly-once check
+ */
+public class TestSharderTest {
+    private static final List<String> PLAIN = List.of("a.Login.valid", "a.Login.invalid", "a.Cart.add",
+            "a.Cart.remove", "a.Search.empty", "a.Search.unknownNotInHistory");
+    private static final List<String> DATA_DRIVEN = List.of("a.Search.byTerm");
+
+    private static Map<String, Double> history() {
+        Map<String, Double> known = new LinkedHashMap<>();
+        known.put("a.Login.valid", 4000.0);
+        known.put("a.Login.invalid", 1500.0);
+        known.put("a.Cart.add", 9000.0);
+        known.put("a.Cart.remove", 1500.0); // Ties with a.Login.invalid
+        known.put("a.Search.empty", 700.0);
+        known.put("a.Search.byTerm[laptop]", 3000.0);
+        known.put("a.Search.byTerm[phone]", 3000.0);
+        known.put("a.Search.byTerm[book]", 2500.0);
+        known.put("a.Gone.removedTest", 5000.0); // No longer in the suite
+        return known;
+    }
+
+    @Test
+    public void sameHistoryGivesSamePlanWhateverTheOrder() {
+        Map<String, Integer> expected = TestSharder.planFor(PLAIN, DATA_DRIVEN, history(), 3, new double[3]);
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            List<String> plain = new ArrayList<>(PLAIN);
+            Collections.shuffle(plain, random);
+            List<Map.Entry<String, Double>> entries = new ArrayList<>(history().entrySet());
+            Collections.shuffle(entries, random);
+            Map<String, Double> known = new LinkedHashMap<>();
+            entries.forEach(e -> known.put(e.getKey(), e.getValue()));
+
+            Assert.assertEquals(TestSharder.planFor(plain, DATA_DRIVEN, known, 3, new double[3]), expected);
+        }
+    }
+
+    @Test
+    public void planCoversKnownUnitsOfTheSuiteOnly() {
+        Map<String, Integer> plan = TestSharder.planFor(PLAIN, DATA_DRIVEN, history(), 3, new double[3]);
+
+        Assert.assertEquals(plan.size(), 8);
+        Assert.assertFalse(plan.containsKey("a.Gone.removedTest"));
+        Assert.assertFalse(plan.containsKey("a.Search.unknownNotInHistory"));
+        plan.values().forEach(shard -> Assert.assertTrue(shard >= 1 && shard <= 3, "shard " + shard));
+    }
+
+    @Test
+    public void longestUnitsAreSpreadAcrossShards() {
+        double[] load = new double[3];
+        Map<String, Integer> plan = TestSharder.planFor(PLAIN, DATA_DRIVEN, history(), 3, load);
+
+        Assert.assertEquals(plan.get("a.Cart.add"), Integer.valueOf(1));
+        Assert.assertNotEquals(plan.get("a.Login.valid"), plan.get("a.Cart.add"));
+        Assert.assertEquals(load[0] + load[1] + load[2], 25200.0, 0.001);
+        for (double shardLoad : load) {
+            Assert.assertTrue(shardLoad <= 9000.0, "shard load " + shardLoad);
+        }
+    }
+
+    @Test
+    public void unknownUnitsHashToTheSameShardEverywhere() {
+        Map<String, Integer> plan = TestSharder.planFor(PLAIN, DATA_DRIVEN, history(), 4, new double[4]);
+        int shard = TestSharder.shardOf(plan, "a.Search.unknownNotInHistory", 4);
+
+        Assert.assertTrue(shard >= 1 && shard <= 4);
+        Assert.assertEquals(TestSharder.shardOf(new HashMap<>(), "a.Search.unknownNotInHistory", 4), shard);
+    }
+
+    @Test
+    public void mergerAcceptsEveryUnitRunOnce() throws IOException {
+        Path dir = Files.createTempDirectory("shards");
+        manifest(dir, 1, 2, "P\tT\ta\t1", "P\tT\tb\t2", "R\tT\ta", "R\tT\ta");
+        manifest(dir, 2, 2, "P\tT\ta\t1", "P\tT\tb\t2", "R\tT\tb");
+
+        Assert.assertEquals(ShardMerger.verify(List.of(dir.resolve("manifest-shard-1of2.tsv"),
+                dir.resolve("manifest-shard-2of2.tsv"))), List.of());
+    }
+
+    @Test
+    public void mergerReportsMissingDuplicateAndDisagreeingUnits() throws IOException {
+        Path dir = Files.createTempDirectory("shards");
+        manifest(dir, 1, 3, "P\tT\ta\t1", "P\tT\tb\t1", "P\tT\tc\t1", "R\tT\tc");
+        manifest(dir, 2, 3, "P\tT\ta\t2", "P\tT\tb\t1", "P\tT\tc\t1", "R\tT\tc");
+
+        List<String> problems = ShardMerger.verify(List.of(dir.resolve("manifest-shard-1of3.tsv"),
+                dir.resolve("manifest-shard-2of3.tsv")));
+
+        Assert.assertEquals(problems.size(), 4, problems.toString());
+        Assert.assertTrue(problems.contains("Shard 3 of 3 left no manifest"), problems.toString());
+        Assert.assertTrue(problems.contains("T | a: shards planned it differently {1=1, 2=2}"), problems.toString());
+        Assert.assertTrue(problems.contains("T | b: planned for shard 1 but never ran"), problems.toString());
+        Assert.assertTrue(problems.contains("T | c: ran 2 times, on shards [1, 2]"), problems.toString());
+    }
+
+    private static void manifest(Path dir, int shard, int total, String... lines) throws IOException {
+        Files.write(dir.resolve(TestSharder.MANIFEST_PREFIX + shard + "of" + total + ".tsv"),
+                List.of(lines), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.utils;
+
+import org.openqa.selenium.TimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline unit tests for step retries and how an exhausted step is reported to the
+ * test-level retry
+ */
+public class TestStepsTest {
+
+    @BeforeMethod
+    public void resetBudget() {
+        RetryPolicy.reset();
+    }
+
+    @Test
+    public void transientFailureRetriesOnlyTheStep() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        TestSteps steps = TestSteps.begin();
+        steps.run("Flaky", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new TimeoutException("Simulated timeout");
+            }
+        });
+        Assert.assertEquals(calls.get(), 2);
+        Assert.assertEquals(steps.getCompleted().get(0).getAttempts(), 2);
+    }
+
+    @Test
+    public void exhaustedStepIsNotRetriedAsAWholeTest() {
+        AtomicInteger calls = new AtomicInteger();
+        TimeoutException last = new TimeoutException("Always times out");
+        try {
+            TestSteps.begin().run("Broken", () -> {
+                calls.incrementAndGet();
+                throw last;
+            });
+            Assert.fail("Step should have failed");
+        } catch (Exception e) {
+            Assert.assertTrue(e instanceof TestSteps.StepFailedException, e.toString());
+            Assert.assertSame(e.getCause(), last);
+            Assert.assertEquals(FailureClassifier.classify(e), FailureClassifier.Kind.DETERMINISTIC);
+            Assert.assertEquals(FailureClassifier.classify(new RuntimeException("wrapped", e)),
+                    FailureClassifier.Kind.DETERMINISTIC);
+        }
+        Assert.assertEquals(calls.get(), Integer.getInteger("retry.step.max", RetryPolicy.getMaxRetries()) + 1);
+    }
+
+    @Test
+    public void deterministicFailureIsRethrownUnchanged() {
+        IllegalStateException failure = new IllegalStateException("Wrong page");
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            TestSteps.begin().run("Check", () -> {
+                calls.incrementAndGet();
+                throw failure;
+            });
+            Assert.fail("Step should have failed");
+        } catch (Exception e) {
+            Assert.assertSame(e, failure);
+        }
+        Assert.assertEquals(calls.get(), 1);
+    }
+}